@@ -0,0 +1,74 @@
+package com.example.test.benchmark;
+
+import com.example.test.filter.ImageFilter;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 필터 하나를 기본 파라미터로 적용하는 시간 (해상도, 채널 수별)
+// 지원하지 않는 채널 수 조합은 설정 단계에서 실패시켜 결과에서 제외
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+
+    @Param({"grayscale", "blur", "edges", "brightness", "histogram",
+        "sepia", "sharpen", "saturation", "noise", "invert"})
+    public String filter;
+
+    @Param({"1MP", "12MP", "50MP"})
+    public String resolution;
+
+    @Param({"1", "3", "4"})
+    public int channels;
+
+    private ImageFilter<Object> imageFilter;
+    private Object params;
+    private Mat source;
+    private Mat work;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        imageFilter = (ImageFilter<Object>) Filters.all().stream()
+            .filter(f -> f.name().equals(filter))
+            .findFirst()
+            .orElseThrow(() -> new IllegalArgumentException("알 수 없는 필터: " + filter));
+        params = imageFilter.defaultParams();
+
+        // 큰 이미지를 만들기 전에 작은 이미지로 채널 수 지원 여부 확인
+        Mat probe = SyntheticImages.photoLike(16, 16, channels);
+        try {
+            imageFilter.apply(probe, params);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException(filter + " 필터는 " + channels + "채널 이미지를 지원하지 않음", e);
+        } finally {
+            probe.release();
+        }
+
+        source = SyntheticImages.photoLike(resolution, channels);
+        work = new Mat();
+    }
+
+    // 필터가 이미지를 제자리에서 바꾸므로 매 호출 전에 원본으로 되돌림
+    @Setup(Level.Invocation)
+    public void reset() {
+        source.copyTo(work);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        source.release();
+        work.release();
+    }
+
+    @Benchmark
+    public Mat apply() {
+        imageFilter.apply(work, params);
+        return work;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.test.benchmark;
+
+import com.example.test.filter.*;
+
+import java.util.List;
+import java.util.Map;
+
+// 벤치마크용 필터 구성 (Spring 컨텍스트 없이 직접 생성)
+final class Filters {
+
+    private Filters() {
+    }
+
+    static List<ImageFilter<?>> all() {
+        return List.of(
+            new GrayscaleFilter(),
+            new BlurFilter(),
+            new EdgesFilter(),
+            new BrightnessFilter(),
+            new HistogramFilter(),
+            new SepiaFilter(),
+            new SharpenFilter(),
+            new SaturationFilter(),
+            new NoiseFilter(),
+            new InvertFilter()
+        );
+    }
+
+    static FilterRegistry registry(boolean fusePointOperations) {
+        return registry(fusePointOperations, true);
+    }
+
+    static FilterRegistry registry(boolean fusePointOperations, boolean shareLuma) {
+        return new FilterRegistry(all(), fusePointOperations, shareLuma);
+    }
+
+    // updateFilters 요청과 같은 형식의 레시피 항목
+    static Map<String, Object> enabled(Object value) {
+        return Map.of("enabled", true, "value", value);
+    }
+
+    // 자주 쓰이는 필터 조합
+    static Map<String, Object> recipe(String chain) {
+        return switch (chain) {
+            case "portrait" -> Map.of(
+                "brightness", enabled(Map.of("alpha", 1.1, "beta", 10)),
+                "saturation", enabled(1.2),
+                "sharpen", enabled(0.5)
+            );
+            case "document" -> Map.of(
+                "grayscale", enabled(1.0),
+                "histogram", enabled(1.0),
+                "sharpen", enabled(1.0)
+            );
+            case "vintage" -> Map.of(
+                "sepia", enabled(0.8),
+                "noise", enabled(15),
+                "blur", enabled(3),
+                "brightness", enabled(Map.of("alpha", 0.9, "beta", 5))
+            );
+            case "mono" -> Map.of(
+                "grayscale", enabled(1.0),
+                "blur", enabled(3),
+                "histogram", enabled(1.0),
+                "sharpen", enabled(0.8),
+                "sepia", enabled(0.6)
+            );
+            case "all" -> Map.of(
+                "grayscale", enabled(0.5),
+                "blur", enabled(5),
+                "edges", enabled(100),
+                "brightness", enabled(Map.of("alpha", 1.2, "beta", 0)),
+                "histogram", enabled(1.0),
+                "sepia", enabled(0.5),
+                "sharpen", enabled(1.0),
+                "saturation", enabled(1.1),
+                "noise", enabled(10),
+                "invert", enabled(0.2)
+            );
+            default -> throw new IllegalArgumentException("알 수 없는 필터 조합: " + chain);
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.test.benchmark;
+
+import com.example.test.filter.FilterPlan;
+import com.example.test.filter.FilterRegistry;
+import com.example.test.filter.RenderContext;
+import com.example.test.model.FilterState;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 흑백 계열 단계 사이의 휘도 공유(RenderContext) 효과
+// shareLuma=false 는 필터마다 BGR -> 흑백 -> BGR 을 반복하던 기존 경로
+// 보조 카운터로 렌더당 실행된 파이프라인 수준 변환/확장 횟수를 함께 기록
+// (shareLuma=false 에서는 필터 내부의 변환이 단계마다 일어나므로 시간 차이로 비교)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LumaSharingBenchmark {
+
+    @Param({"document", "mono", "vintage", "all"})
+    public String chain;
+
+    @Param({"1MP", "12MP"})
+    public String resolution;
+
+    @Param({"true", "false"})
+    public boolean fuse;
+
+    @Param({"true", "false"})
+    public boolean shareLuma;
+
+    // 렌더당 횟수 (JMH 가 연산 수로 나눠 보고)
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Passes {
+        public long lumaConversions;
+        public long expansions;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            lumaConversions = 0;
+            expansions = 0;
+        }
+    }
+
+    private FilterPlan plan;
+    private Mat source;
+
+    @Setup
+    public void setUp() {
+        FilterRegistry registry = Filters.registry(fuse, shareLuma);
+        FilterState state = new FilterState("benchmark", registry.names());
+        registry.applyRecipe(state, Filters.recipe(chain));
+        plan = registry.compile(state.snapshot());
+        source = SyntheticImages.photoLike(resolution, 3);
+    }
+
+    @TearDown
+    public void tearDown() {
+        source.release();
+    }
+
+    @Benchmark
+    public Mat render(Passes passes) {
+        Mat image = source.clone();
+        RenderContext context = new RenderContext(image, plan.sharesLuma());
+        for (FilterPlan.Stage<?> stage : plan.getStages()) {
+            context.prepare(stage);
+            stage.apply(image);
+        }
+        context.finish();
+        passes.lumaConversions += context.getLumaConversions();
+        passes.expansions += context.getExpansions();
+        image.release();
+        return image;
+    }
+}
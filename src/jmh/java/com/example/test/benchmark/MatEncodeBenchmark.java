@@ -0,0 +1,62 @@
+package com.example.test.benchmark;
+
+import com.example.test.service.ImageEncoder;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.bytedeco.opencv.global.opencv_imgcodecs.imwrite;
+
+// 기존 임시 파일 방식과 메모리 인코딩 방식의 처리량 비교
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MatEncodeBenchmark {
+
+    @Param({"1MP", "12MP", "50MP"})
+    public String resolution;
+
+    @Param({"1", "3", "4"})
+    public int channels;
+
+    private Mat image;
+    private ImageEncoder encoder;
+
+    @Setup
+    public void setUp() {
+        image = SyntheticImages.photoLike(resolution, channels);
+        encoder = new ImageEncoder("jpg", 95, 3, 90, 16);
+    }
+
+    @TearDown
+    public void tearDown() {
+        image.release();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] tempFileRoundTrip() throws IOException {
+        // 변경 전 matToBytes 경로 (충돌 방지를 위해 UUID 파일명 사용)
+        Path tempFile = Paths.get(System.getProperty("java.io.tmpdir"))
+                .resolve("opencv_bench_" + UUID.randomUUID() + ".jpg");
+        imwrite(tempFile.toString(), image);
+        byte[] bytes = Files.readAllBytes(tempFile);
+        Files.deleteIfExists(tempFile);
+        return bytes;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] inMemoryEncode() {
+        return encoder.encode(image);
+    }
+}
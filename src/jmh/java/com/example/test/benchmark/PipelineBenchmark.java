@@ -0,0 +1,78 @@
+package com.example.test.benchmark;
+
+import com.example.test.filter.FilterPlan;
+import com.example.test.filter.FilterRegistry;
+import com.example.test.filter.RenderContext;
+import com.example.test.model.FilterState;
+import com.example.test.service.ImageEncoder;
+import com.example.test.service.TiledExecutor;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// applyAllFilters 와 같은 경로: 원본 복사 -> 단계별 적용(휘도 공유 포함) -> 인코딩
+// 점 연산 합성과 타일 병렬 실행의 효과를 조합별로 비교
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"portrait", "document", "vintage", "all"})
+    public String chain;
+
+    @Param({"1MP", "12MP", "50MP"})
+    public String resolution;
+
+    @Param({"3", "4"})
+    public int channels;
+
+    @Param({"true", "false"})
+    public boolean fuse;
+
+    @Param({"true", "false"})
+    public boolean tiling;
+
+    private FilterPlan plan;
+    private TiledExecutor tiledExecutor;
+    private ImageEncoder encoder;
+    private Mat source;
+
+    @Setup
+    public void setUp() {
+        FilterRegistry registry = Filters.registry(fuse);
+        FilterState state = new FilterState("benchmark", registry.names());
+        registry.applyRecipe(state, Filters.recipe(chain));
+        plan = registry.compile(state.snapshot());
+
+        // 타일링을 끈 경우 기준 픽셀 수를 0 으로 두어 항상 전체 이미지에 적용
+        tiledExecutor = new TiledExecutor(tiling ? 1 : 0, 1024, 0);
+        encoder = new ImageEncoder("jpg", 95, 3, 90, 16);
+        source = SyntheticImages.photoLike(resolution, channels);
+    }
+
+    @TearDown
+    public void tearDown() {
+        tiledExecutor.shutdown();
+        source.release();
+    }
+
+    @Benchmark
+    public byte[] applyAllFilters() {
+        Mat image = source.clone();
+        try {
+            RenderContext context = new RenderContext(image, plan.sharesLuma());
+            for (FilterPlan.Stage<?> stage : plan.getStages()) {
+                context.prepare(stage);
+                tiledExecutor.apply(stage, image);
+            }
+            context.finish();
+            return encoder.encode(image);
+        } finally {
+            image.release();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.test.benchmark;
+
+import com.example.test.filter.FilterPlan;
+import com.example.test.filter.FilterRegistry;
+import com.example.test.filter.PointBackend;
+import com.example.test.model.FilterState;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.test.benchmark.Filters.enabled;
+
+// 점 연산 백엔드(OpenCV / Vector API)별 단계 하나의 적용 시간 (작은 이미지 -> 타일 크기)
+// 같은 크기에서 두 백엔드 시간이 만나는 지점이 비용 모델의 교차점이고,
+// AUTO 가 각 크기에서 더 빠른 쪽과 같은 시간이면 비용 계수가 맞게 보정된 것
+// (맞지 않으면 ./gradlew calibratePointKernels 로 이 결과에서 계수를 다시 구함, PointBackendCalibration)
+// 점 연산은 값과 무관하게 시간이 같으므로 매 호출 원본으로 되돌리지 않고 같은 작업 이미지에 반복 적용
+// Vector 백엔드가 없는 환경(모듈 미추가, 256비트 미만 SIMD)에서는 VECTOR 조합을 설정 단계에서 제외
+// (build.gradle 의 jmh.jvmArgsAppend 로 jdk.incubator.vector 모듈을 추가해 실행)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointBackendBenchmark {
+
+    // 단일 필터 또는 합성 단계 (fused-lut: 채널별 연산만, fused-matrix: 채널 간 연산 포함)
+    @Param({"brightness", "invert", "saturation", "noise", "fused-lut", "fused-matrix"})
+    public String kernel;
+
+    @Param({"32x32", "64x64", "128x128", "256x256", "512x512", "1024x1024"})
+    public String resolution;
+
+    @Param({"1", "3"})
+    public int channels;
+
+    @Param({"OPENCV", "VECTOR", "AUTO"})
+    public PointBackend.Mode backend;
+
+    private FilterPlan.Stage<?> stage;
+    private Mat work;
+    private PointBackend.Mode previousMode;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (backend == PointBackend.Mode.VECTOR && !PointBackend.isVectorAvailable()) {
+            throw new IllegalStateException("Vector 백엔드를 사용할 수 없는 환경");
+        }
+        if (channels == 1 && kernel.equals("saturation")) {
+            throw new IllegalStateException("채도는 휘도 이미지에서 변화 없음");
+        }
+
+        boolean fuse = kernel.startsWith("fused-");
+        FilterRegistry registry = Filters.registry(fuse, false);
+        FilterState state = new FilterState("benchmark", registry.names());
+        registry.applyRecipe(state, recipe(kernel));
+        FilterPlan plan = registry.compile(state.snapshot());
+        if (plan.size() != 1) {
+            throw new IllegalStateException(kernel + " 은 단계 하나로 컴파일되어야 함: " + plan.size());
+        }
+        stage = plan.getStages().get(0);
+
+        int[] size = SyntheticImages.dimensions(resolution);
+        work = SyntheticImages.photoLike(size[0], size[1], channels);
+
+        previousMode = PointBackend.getMode();
+        PointBackend.setMode(backend);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        PointBackend.setMode(previousMode);
+        work.release();
+    }
+
+    @Benchmark
+    public Mat apply() {
+        stage.apply(work);
+        return work;
+    }
+
+    private static Map<String, Object> recipe(String kernel) {
+        return switch (kernel) {
+            case "brightness" -> Map.of("brightness", enabled(Map.of("alpha", 1.2, "beta", 10)));
+            case "invert" -> Map.of("invert", enabled(0.3));
+            case "saturation" -> Map.of("saturation", enabled(1.3));
+            case "noise" -> Map.of("noise", enabled(15));
+            case "fused-lut" -> Map.of(
+                "brightness", enabled(Map.of("alpha", 1.1, "beta", 5)),
+                "noise", enabled(10),
+                "invert", enabled(0.2)
+            );
+            case "fused-matrix" -> Map.of(
+                "brightness", enabled(Map.of("alpha", 1.1, "beta", 5)),
+                "saturation", enabled(1.3),
+                "invert", enabled(0.2)
+            );
+            default -> throw new IllegalArgumentException("알 수 없는 커널: " + kernel);
+        };
+    }
+}
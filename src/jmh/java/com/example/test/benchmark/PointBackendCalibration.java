@@ -0,0 +1,146 @@
+package com.example.test.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// PointBackendBenchmark 결과(JMH JSON)로 PointBackend 비용 계수를 구해 properties 파일로 저장
+// (./gradlew jmh 후 ./gradlew calibratePointKernels, 결과는 src/main/resources/point-kernels.properties)
+// 3채널 결과만 사용하고, 상대 오차 제곱합이 최소가 되도록 최소제곱으로 맞춤
+// - OpenCV: 시간 = 호출 수 * opencv-call-nanos + 바이트 * 패스 수 * opencv-pass-byte-nanos
+// - Vector: 시간 = vector-call-nanos + 바이트 * (단계 수 * vector-stage-byte-nanos 또는 vector-transform-byte-nanos)
+public final class PointBackendCalibration {
+
+    // 커널별 OpenCV 경로 비용(호출 수, 패스 수)과 Vector 경로 형태 (필터의 OPENCV_COST, FusedPointFilter 의 LUT/TRANSFORM_COST 와 같아야 함)
+    private record Shape(int calls, int passes, int stages, boolean crossChannel) {}
+
+    private static final Map<String, Shape> SHAPES = Map.of(
+        "brightness", new Shape(1, 1, 1, false),
+        "invert", new Shape(2, 3, 1, false),
+        "saturation", new Shape(3, 4, 1, true),
+        "noise", new Shape(2, 2, 1, false),
+        "fused-lut", new Shape(1, 1, 3, false),
+        "fused-matrix", new Shape(1, 3, 1, true)
+    );
+
+    private PointBackendCalibration() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("사용법: PointBackendCalibration <results.json> <출력 properties>");
+        }
+        List<double[]> opencvRows = new ArrayList<>();
+        List<double[]> vectorRows = new ArrayList<>();
+        for (Map<String, Object> result : read(Path.of(args[0]))) {
+            if (!String.valueOf(result.get("benchmark")).endsWith("PointBackendBenchmark.apply")) {
+                continue;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> params = (Map<String, Object>) result.get("params");
+            Shape shape = SHAPES.get(String.valueOf(params.get("kernel")));
+            if (shape == null || !"3".equals(String.valueOf(params.get("channels")))) {
+                continue;
+            }
+            int[] size = SyntheticImages.dimensions(String.valueOf(params.get("resolution")));
+            double bytes = (double) size[0] * size[1] * 3;
+            double nanos = nanos(result);
+
+            switch (String.valueOf(params.get("backend"))) {
+                case "OPENCV" -> opencvRows.add(new double[]{shape.calls(), bytes * shape.passes(), nanos});
+                case "VECTOR" -> vectorRows.add(new double[]{
+                    1, shape.crossChannel() ? 0 : bytes * shape.stages(), shape.crossChannel() ? bytes : 0, nanos});
+                default -> {
+                    // AUTO 는 보정 결과 확인용
+                }
+            }
+        }
+        if (opencvRows.size() < 2 || vectorRows.size() < 3) {
+            throw new IllegalStateException("PointBackendBenchmark 의 OPENCV/VECTOR 결과가 부족합니다: " + args[0]);
+        }
+
+        double[] opencv = fit(opencvRows);
+        double[] vector = fit(vectorRows);
+        String properties = String.join("\n",
+            "# PointBackendCalibration 으로 생성 (" + args[0] + ", OpenCV " + opencvRows.size() + "건, Vector " + vectorRows.size() + "건)",
+            "# -Dimage.point-kernels.* 시스템 속성이 있으면 그 값이 우선",
+            property("opencv-call-nanos", opencv[0]),
+            property("opencv-pass-byte-nanos", opencv[1]),
+            property("vector-call-nanos", vector[0]),
+            property("vector-stage-byte-nanos", vector[1]),
+            property("vector-transform-byte-nanos", vector[2]),
+            "");
+        Files.writeString(Path.of(args[1]), properties);
+        System.out.print(properties);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> read(Path results) throws IOException {
+        return new ObjectMapper().readValue(Files.readString(results), List.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static double nanos(Map<String, Object> result) {
+        Map<String, Object> metric = (Map<String, Object>) result.get("primaryMetric");
+        double score = ((Number) metric.get("score")).doubleValue();
+        return switch (String.valueOf(metric.get("scoreUnit"))) {
+            case "ns/op" -> score;
+            case "us/op" -> score * 1e3;
+            case "ms/op" -> score * 1e6;
+            default -> throw new IllegalArgumentException("지원하지 않는 단위: " + metric.get("scoreUnit"));
+        };
+    }
+
+    // 행 = [특징..., 측정 시간], 각 행을 측정 시간으로 나눠 상대 오차 기준의 정규 방정식을 풂
+    private static double[] fit(List<double[]> rows) {
+        int n = rows.get(0).length - 1;
+        double[][] a = new double[n][n + 1];
+        for (double[] row : rows) {
+            double weight = 1.0 / row[n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    a[i][j] += row[i] * weight * row[j] * weight;
+                }
+                a[i][n] += row[i] * weight;
+            }
+        }
+        // 가우스 소거 (부분 피벗)
+        for (int col = 0; col < n; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < n; row++) {
+                if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) {
+                    pivot = row;
+                }
+            }
+            double[] swap = a[col];
+            a[col] = a[pivot];
+            a[pivot] = swap;
+            if (a[col][col] == 0) {
+                throw new IllegalStateException("계수를 구할 수 없습니다 (측정 조합 부족)");
+            }
+            for (int row = 0; row < n; row++) {
+                if (row != col) {
+                    double factor = a[row][col] / a[col][col];
+                    for (int k = col; k <= n; k++) {
+                        a[row][k] -= factor * a[col][k];
+                    }
+                }
+            }
+        }
+        double[] coefficients = new double[n];
+        for (int i = 0; i < n; i++) {
+            coefficients[i] = Math.max(0, a[i][n] / a[i][i]);
+        }
+        return coefficients;
+    }
+
+    private static String property(String name, double value) {
+        return "image.point-kernels." + name + "=" + String.format(Locale.ROOT, "%.4f", value);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.test.benchmark;
+
+import com.example.test.service.ComputeExecutor;
+import com.example.test.service.ComputeRejectedException;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Size;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.bytedeco.opencv.global.opencv_imgproc.GaussianBlur;
+
+// 렌더가 CPU 를 포화시키는 동안 가벼운 조회 요청의 지연 시간 분포 (p99 는 SampleTime 결과의 p0.99)
+// - platform: Tomcat 처럼 고정 크기 요청 스레드 풀에서 렌더 연산까지 직접 실행
+// - virtual: 요청마다 가상 스레드, 연산만 크기 제한된 ComputeExecutor 로 보내고 넘치면 거절(503)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReadLatencyUnderLoadBenchmark {
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    // 요청 스레드 풀 크기 (platform 모드)
+    @Param({"16"})
+    public int requestThreads;
+
+    // 렌더 요청을 끊임없이 보내는 클라이언트 수
+    @Param({"64"})
+    public int renderClients;
+
+    private ExecutorService requestExecutor;
+    private ComputeExecutor computeExecutor;
+    private ExecutorService loadClients;
+    private volatile boolean running;
+
+    private Mat source;
+    private Path imageFile;
+    private final AtomicLong renders = new AtomicLong();
+    private final AtomicLong shed = new AtomicLong();
+
+    @Setup
+    public void setUp() throws IOException {
+        source = SyntheticImages.photoLike(4000, 3000, 3);
+        imageFile = Files.createTempFile("read_latency_", ".jpg");
+        Files.write(imageFile, new byte[512 * 1024]);
+
+        if (mode.equals("platform")) {
+            requestExecutor = Executors.newFixedThreadPool(requestThreads);
+        } else {
+            requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            computeExecutor = new ComputeExecutor(0, 64);
+        }
+
+        // 렌더 부하: 각 클라이언트가 응답을 받자마자 다음 요청을 보냄
+        running = true;
+        loadClients = Executors.newFixedThreadPool(renderClients);
+        for (int i = 0; i < renderClients; i++) {
+            loadClients.execute(() -> {
+                while (running) {
+                    try {
+                        requestExecutor.submit(this::renderRequest).get();
+                    } catch (Exception e) {
+                        return;
+                    }
+                }
+            });
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        running = false;
+        loadClients.shutdownNow();
+        requestExecutor.shutdownNow();
+        if (computeExecutor != null) {
+            computeExecutor.shutdown();
+        }
+        System.out.printf("%n[%s] renders=%d shed=%d%n", mode, renders.get(), shed.get());
+        source.release();
+        Files.deleteIfExists(imageFile);
+    }
+
+    // /image/{fileName} 에 해당하는 가벼운 조회 요청
+    @Benchmark
+    public byte[] readWhileRendering() throws Exception {
+        Future<byte[]> response = requestExecutor.submit(() -> Files.readAllBytes(imageFile));
+        return response.get();
+    }
+
+    private void renderRequest() {
+        if (computeExecutor == null) {
+            render();
+            return;
+        }
+        try {
+            computeExecutor.submit(() -> {
+                render();
+                return null;
+            }).join();
+        } catch (ComputeRejectedException e) {
+            // 503 응답에 해당, 클라이언트는 잠시 후 재시도
+            shed.incrementAndGet();
+            sleepQuietly();
+        }
+    }
+
+    private void render() {
+        Mat image = source.clone();
+        GaussianBlur(image, image, new Size(15, 15), 0);
+        image.release();
+        renders.incrementAndGet();
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
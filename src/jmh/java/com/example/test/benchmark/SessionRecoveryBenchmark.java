@@ -0,0 +1,55 @@
+package com.example.test.benchmark;
+
+import com.example.test.service.FilterStateRepository;
+import com.example.test.service.LogFilterStateRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// 재시작 시 세션 로그 복구 시간 (이미지당 여러 번 갱신된 압축 전 로그)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SessionRecoveryBenchmark {
+
+    @Param({"10000", "100000"})
+    public int sessions;
+
+    @Param({"1", "10"})
+    public int updatesPerSession;
+
+    private Path directory;
+    private Path log;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("session_recovery_");
+        log = directory.resolve("sessions.log");
+        byte[] recipe = SessionStoreBenchmark.SessionRecipes.typical();
+        try (LogFilterStateRepository repository = new LogFilterStateRepository(log, Long.MAX_VALUE, 0)) {
+            for (int update = 1; update <= updatesPerSession; update++) {
+                for (int i = 0; i < sessions; i++) {
+                    repository.save(new FilterStateRepository.Entry("image-" + i + ".jpg", "source-hash", 0.25, update, recipe));
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        SessionStoreBenchmark.SessionRecipes.delete(directory);
+    }
+
+    @Benchmark
+    public int recover() throws IOException {
+        try (LogFilterStateRepository repository = new LogFilterStateRepository(log, Long.MAX_VALUE, 0)) {
+            return repository.size();
+        }
+    }
+}
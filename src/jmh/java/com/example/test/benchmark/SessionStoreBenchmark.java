@@ -0,0 +1,91 @@
+package com.example.test.benchmark;
+
+import com.example.test.filter.FilterRegistry;
+import com.example.test.model.FilterState;
+import com.example.test.service.FilterStateCodec;
+import com.example.test.service.FilterStateRepository;
+import com.example.test.service.LogFilterStateRepository;
+import com.example.test.service.SharedDirectoryFilterStateRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// 세션 저장소 쓰기 처리량 (슬라이더 조작마다 한 번씩 기록되는 경로)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionStoreBenchmark {
+
+    @Param({"log", "shared"})
+    public String store;
+
+    // 기록 대상 이미지 수
+    @Param({"1000"})
+    public int sessions;
+
+    private Path directory;
+    private FilterStateRepository repository;
+    private byte[] recipe;
+    private String[] fileNames;
+    private long counter;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("session_bench_");
+        repository = store.equals("log")
+                ? new LogFilterStateRepository(directory.resolve("sessions.log"), 4L * 1024 * 1024, 1000)
+                : new SharedDirectoryFilterStateRepository(directory);
+        recipe = SessionRecipes.typical();
+        fileNames = new String[sessions];
+        for (int i = 0; i < sessions; i++) {
+            fileNames[i] = "image-" + i + ".jpg";
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (repository instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+        SessionRecipes.delete(directory);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void save() {
+        long version;
+        synchronized (this) {
+            version = ++counter;
+        }
+        String fileName = fileNames[(int) (version % sessions)];
+        repository.save(new FilterStateRepository.Entry(fileName, "source-hash", 0.25, version, recipe));
+    }
+
+    // 벤치마크용 레시피 (자주 쓰는 필터 조합을 인코딩한 크기)
+    static final class SessionRecipes {
+
+        private SessionRecipes() {
+        }
+
+        static byte[] typical() {
+            FilterRegistry registry = Filters.registry(true);
+            FilterState state = new FilterState("benchmark", registry.names());
+            registry.applyRecipe(state, Filters.recipe("vintage"));
+            return new FilterStateCodec(registry).encode(state.snapshot());
+        }
+
+        static void delete(Path directory) throws IOException {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
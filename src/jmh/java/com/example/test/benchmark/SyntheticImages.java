@@ -0,0 +1,45 @@
+package com.example.test.benchmark;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.bytedeco.opencv.opencv_core.Size;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+// 벤치마크용 합성 이미지 (외부 파일 없이 셋업 시점에 생성)
+final class SyntheticImages {
+
+    private SyntheticImages() {
+    }
+
+    // 벤치마크 파라미터용 해상도 이름 (4:3 비율), 그 외에는 "가로x세로"
+    static int[] dimensions(String resolution) {
+        return switch (resolution) {
+            case "1MP" -> new int[]{1155, 866};
+            case "12MP" -> new int[]{4000, 3000};
+            case "50MP" -> new int[]{8165, 6124};
+            default -> {
+                String[] size = resolution.split("x");
+                yield new int[]{Integer.parseInt(size[0]), Integer.parseInt(size[1])};
+            }
+        };
+    }
+
+    static Mat photoLike(String resolution, int channels) {
+        int[] size = dimensions(resolution);
+        return photoLike(size[0], size[1], channels);
+    }
+
+    // 노이즈를 블러 처리해 사진과 비슷한 압축 특성을 갖도록 함
+    static Mat photoLike(int width, int height, int channels) {
+        Mat image = new Mat(height, width, CV_MAKETYPE(CV_8U, channels));
+        Mat low = new Mat(1, 1, CV_64FC1, new Scalar(0.0));
+        Mat high = new Mat(1, 1, CV_64FC1, new Scalar(255.0));
+        randu(image, low, high);
+        GaussianBlur(image, image, new Size(7, 7), 0);
+        low.release();
+        high.release();
+        return image;
+    }
+}
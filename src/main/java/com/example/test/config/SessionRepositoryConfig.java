@@ -0,0 +1,35 @@
+package com.example.test.config;
+
+import com.example.test.service.FilterStateRepository;
+import com.example.test.service.LogFilterStateRepository;
+import com.example.test.service.SharedDirectoryFilterStateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+// 세션 저장소 선택 (image.sessions.store)
+// - log: 내장 append-only 로그 (기본, 한 노드)
+// - shared: 여러 노드가 함께 마운트한 디렉토리
+// - memory: 저장하지 않음 (재시작하면 편집 상태가 사라짐)
+@Configuration
+public class SessionRepositoryConfig {
+
+    @Bean
+    public FilterStateRepository filterStateRepository(
+        @Value("${image.sessions.store:log}") String store,
+        @Value("${image.sessions.log.path:data/sessions.log}") String logPath,
+        @Value("${image.sessions.log.compact-min-bytes:4194304}") long compactMinBytes,
+        @Value("${image.sessions.log.sync-interval-millis:1000}") long syncIntervalMillis,
+        @Value("${image.sessions.shared.directory:data/sessions}") String sharedDirectory
+    ) throws IOException {
+        return switch (store) {
+            case "log" -> new LogFilterStateRepository(Paths.get(logPath), compactMinBytes, syncIntervalMillis);
+            case "shared" -> new SharedDirectoryFilterStateRepository(Paths.get(sharedDirectory));
+            case "memory" -> FilterStateRepository.NONE;
+            default -> throw new IllegalArgumentException("알 수 없는 세션 저장소: " + store);
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.test.config;
+
+import com.example.test.service.ImageProcessingService;
+import com.example.test.service.StartupMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+// 시작 예열: 준비 완료 전에 합성 이미지로 렌더/인코딩/디코딩을 몇 번 실행
+// ApplicationRunner 가 모두 끝난 뒤에 readiness 가 ACCEPTING_TRAFFIC 이 되므로,
+// 첫 요청이 네이티브 초기화와 인터프리터 실행 비용을 치르지 않음 (예열이 실패하면 시작 실패)
+// image.startup.exit-after-warmup=true 이면 예열 후 종료 (AOT 캐시/CDS 학습 실행용, build.gradle 의 trainStartupCache)
+@Component
+@Profile("!test")
+public class StartupWarmup implements ApplicationRunner {
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    @Autowired
+    private StartupMetrics startupMetrics;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Value("${image.startup.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${image.startup.warmup.size:512}")
+    private int size;
+
+    @Value("${image.startup.warmup.iterations:5}")
+    private int iterations;
+
+    @Value("${image.startup.exit-after-warmup:false}")
+    private boolean exitAfterWarmup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            long start = System.nanoTime();
+            imageProcessingService.warmUp(size, iterations);
+            long nanos = System.nanoTime() - start;
+            startupMetrics.recordWarmup(nanos);
+            System.out.println("예열 완료: " + nanos / 1_000_000 + "ms, JVM 시작부터 첫 렌더까지 "
+                    + startupMetrics.getFirstRenderMillis() + "ms");
+        }
+        if (exitAfterWarmup) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+}
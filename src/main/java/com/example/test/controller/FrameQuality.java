@@ -0,0 +1,80 @@
+package com.example.test.controller;
+
+// 렌더 스트림 연결별 프레임 품질 조절
+// 프레임 전송부터 클라이언트 ack 까지의 시간으로 처리량(바이트/초)을 추정하고,
+// 다음 프레임이 목표 시간 안에 전송되지 않을 것 같으면 JPEG 품질 -> 크기 순으로 낮춤
+// 여유가 생기면 반대 순서(크기 -> 품질)로 되돌림
+final class FrameQuality {
+
+    // 처리량 이동 평균에서 새 측정값의 비중
+    private static final double SMOOTHING = 0.3;
+    private static final int QUALITY_DOWN_STEP = 10;
+    private static final int QUALITY_UP_STEP = 5;
+
+    private final int maxQuality;
+    private final int minQuality;
+    private final int maxDimension;
+    private final int minDimension;
+    private final double targetSeconds;
+
+    private double bytesPerSecond = -1;
+    private int quality;
+    private int dimension;
+
+    FrameQuality(int maxQuality, int minQuality, int maxDimension, int minDimension, long targetFrameMillis) {
+        this.maxQuality = maxQuality;
+        this.minQuality = Math.min(minQuality, maxQuality);
+        this.maxDimension = maxDimension;
+        this.minDimension = Math.min(minDimension, maxDimension);
+        this.targetSeconds = targetFrameMillis / 1000.0;
+        this.quality = maxQuality;
+        this.dimension = maxDimension;
+    }
+
+    // 프레임 하나를 보내고 ack 를 받기까지 걸린 시간 기록
+    synchronized void record(int bytes, long nanos) {
+        double sample = bytes / (Math.max(nanos, 1) / 1e9);
+        bytesPerSecond = bytesPerSecond < 0 ? sample : bytesPerSecond * (1 - SMOOTHING) + sample * SMOOTHING;
+
+        // 같은 크기의 다음 프레임을 보내는 데 예상되는 시간 (1/3 이하일 때만 올려서 오르내림 반복을 줄임)
+        double expectedSeconds = bytes / bytesPerSecond;
+        if (expectedSeconds > targetSeconds) {
+            degrade();
+        } else if (expectedSeconds < targetSeconds / 3) {
+            improve();
+        }
+    }
+
+    private void degrade() {
+        if (quality > minQuality) {
+            quality = Math.max(minQuality, quality - QUALITY_DOWN_STEP);
+        } else {
+            dimension = Math.max(minDimension, dimension * 3 / 4);
+        }
+    }
+
+    private void improve() {
+        if (dimension < maxDimension) {
+            dimension = Math.min(maxDimension, dimension * 5 / 4);
+        } else {
+            quality = Math.min(maxQuality, quality + QUALITY_UP_STEP);
+        }
+    }
+
+    // 일반 렌더 결과 대신 축소 프레임으로 렌더해야 하는지
+    synchronized boolean isReduced() {
+        return quality < maxQuality || dimension < maxDimension;
+    }
+
+    synchronized int getQuality() {
+        return quality;
+    }
+
+    synchronized int getDimension() {
+        return dimension;
+    }
+
+    synchronized double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+}
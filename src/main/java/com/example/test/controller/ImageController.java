@@ -1,21 +1,37 @@
 package com.example.test.controller;
 
+import com.example.test.service.BatchJob;
+import com.example.test.service.BatchProcessingService;
+import com.example.test.service.ComputeRejectedException;
 import com.example.test.service.ImageProcessingService;
-import com.example.test.model.FilterState;
+import com.example.test.service.ProcessedImageStore;
+import com.example.test.service.RenderResult;
+import com.example.test.service.UploadRejectedException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Controller
 public class ImageController {
@@ -23,6 +39,12 @@ public class ImageController {
     @Autowired
     private ImageProcessingService imageProcessingService;
     
+    @Autowired
+    private BatchProcessingService batchProcessingService;
+    
+    @Value("${image.metrics.timing-header:false}")
+    private boolean timingHeader;
+    
     @GetMapping("/")
     public String index() {
         return "index";
@@ -38,80 +60,214 @@ public class ImageController {
             response.put("success", "true");
             response.put("fileName", fileName);
             response.put("message", "이미지가 성공적으로 업로드되었습니다.");
-        } catch (IOException e) {
+        } catch (IOException | UploadRejectedException e) {
             response.put("success", "false");
             response.put("message", "이미지 업로드 실패: " + e.getMessage());
         }
         
         return response;
     }
+
+    // 요청 본문을 그대로 이미지로 받는 업로드 (multipart 처럼 컨테이너가 미리 버퍼링하지 않고 읽으면서 검증/저장)
+    @PostMapping("/upload/stream")
+    @ResponseBody
+    public Map<String, String> uploadImageStream(InputStream body) {
+        Map<String, String> response = new HashMap<>();
+
+        try {
+            String fileName = imageProcessingService.uploadImage(body);
+            response.put("success", "true");
+            response.put("fileName", fileName);
+            response.put("message", "이미지가 성공적으로 업로드되었습니다.");
+        } catch (IOException | UploadRejectedException e) {
+            response.put("success", "false");
+            response.put("message", "이미지 업로드 실패: " + e.getMessage());
+        }
+
+        return response;
+    }
     
 
     
 
     
     @GetMapping("/uploads/{fileName}")
-    public ResponseEntity<ByteArrayResource> getUploadedImage(@PathVariable String fileName) {
-        try {
-            byte[] imageBytes = imageProcessingService.getUploadedImageBytes(fileName);
-            ByteArrayResource resource = new ByteArrayResource(imageBytes);
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.IMAGE_JPEG)
-                    .body(resource);
-        } catch (IOException e) {
+    public ResponseEntity<Resource> getUploadedImage(@PathVariable String fileName) {
+        Resource resource = originalResource(fileName);
+        if (resource == null) {
             return ResponseEntity.notFound().build();
         }
+        
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
+                .contentType(originalContentType(fileName))
+                .body(resource);
     }
     
     @GetMapping("/processed/{fileName}")
-    public ResponseEntity<ByteArrayResource> getProcessedImage(@PathVariable String fileName) {
-        try {
-            byte[] imageBytes = imageProcessingService.getImageBytes(fileName);
-            ByteArrayResource resource = new ByteArrayResource(imageBytes);
-            
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.IMAGE_JPEG)
-                    .body(resource);
-        } catch (IOException e) {
+    public ResponseEntity<Resource> getProcessedImage(
+        @PathVariable String fileName,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        // 마지막으로 완료된 렌더 결과와 그 버전 (버전/ETag/본문 모두 같은 결과 기준)
+        ProcessedImageStore.Published processed = imageProcessingService.getProcessedImage(fileName);
+        if (processed == null) {
             return ResponseEntity.notFound().build();
         }
+        String etag = etag(processed.tag());
+        if (notModified(ifNoneMatch, etag)) {
+            return notModifiedResponse(etag).header("X-Render-Version", String.valueOf(processed.version())).build();
+        }
+        if (processed.evicted()) {
+            // 저장소에서 제거된 경우에만 다시 렌더 (렌더 결과의 버전/식별값으로 응답)
+            processed = imageProcessingService.rebuildProcessedImage(fileName);
+        }
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
+                .header("X-Render-Version", String.valueOf(processed.version()));
+        return imageResponse(withETag(builder, etag(processed.tag())), fileName, processed.buffer());
     }
     
     @GetMapping("/image/{fileName}")
-    public ResponseEntity<ByteArrayResource> getImage(@PathVariable String fileName) {
-        try {
-            byte[] imageBytes = imageProcessingService.getImageBytes(fileName);
-            ByteArrayResource resource = new ByteArrayResource(imageBytes);
+    public ResponseEntity<Resource> getImage(
+        @PathVariable String fileName,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        ProcessedImageStore.Published processed = imageProcessingService.getProcessedImage(fileName);
+        if (processed == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = etag(processed.tag());
+        if (notModified(ifNoneMatch, etag)) {
+            return notModifiedResponse(etag).build();
+        }
+        if (processed.evicted()) {
+            processed = imageProcessingService.rebuildProcessedImage(fileName);
+        }
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"");
+        return imageResponse(withETag(builder, etag(processed.tag())), fileName, processed.buffer());
+    }
+    
+    // 확대/이동된 뷰포트의 영역만 렌더해 반환 (x, y, width, height 는 원본 해상도 좌표, scale 은 출력 배율 0~1)
+    // 전체 이미지를 렌더/인코딩하지 않으므로 큰 이미지를 확대해 볼 때 사용
+    @GetMapping("/image/{fileName}/region")
+    public CompletableFuture<ResponseEntity<Resource>> getImageRegion(
+        @PathVariable String fileName,
+        @RequestParam int x,
+        @RequestParam int y,
+        @RequestParam int width,
+        @RequestParam int height,
+        @RequestParam(defaultValue = "1.0") double scale,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (imageProcessingService.getFilterState(fileName) == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+        
+        return imageProcessingService.requestRegionRender(fileName, x, y, width, height, scale).handle((result, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof ComputeRejectedException rejected) {
+                    throw rejected;
+                }
+                if (cause instanceof IllegalArgumentException) {
+                    return ResponseEntity.badRequest().build();
+                }
+                return ResponseEntity.internalServerError().build();
+            }
             
-            return ResponseEntity.ok()
+            String etag = etag(result.tag());
+            if (notModified(ifNoneMatch, etag)) {
+                return notModifiedResponse(etag).build();
+            }
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "\"")
-                    .contentType(MediaType.IMAGE_JPEG)
-                    .body(resource);
-        } catch (IOException e) {
+                    .header("X-Render-Version", String.valueOf(result.version()))
+                    // 연속 요청이 합쳐지면 더 최근에 요청된 영역이 반환됨
+                    .header("X-Render-Region", result.region());
+            if (timingHeader && !result.timings().isEmpty()) {
+                builder.header("Server-Timing", result.timings().toServerTiming());
+            }
+            return withETag(builder, etag)
+                    .contentType(MediaType.parseMediaType(imageProcessingService.getProcessedContentType()))
+                    .body(new ByteBufferResource(ByteBuffer.wrap(result.imageBytes()), fileName));
+        });
+    }
+    
+    // 내용 식별값을 강한 ETag 형식으로
+    private static String etag(String tag) {
+        return tag != null ? "\"" + tag + "\"" : null;
+    }
+    
+    // 브라우저가 매번 재검증하도록 no-cache 와 함께 ETag 설정
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, String etag) {
+        if (etag == null) {
+            return builder;
+        }
+        return builder.eTag(etag).cacheControl(CacheControl.noCache());
+    }
+    
+    private static ResponseEntity.BodyBuilder notModifiedResponse(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache());
+    }
+    
+    // If-None-Match 가 현재 ETag 와 일치하면 본문 없이 304 (OpenCV 연산 없이 판단)
+    private static boolean notModified(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    // 처리된 이미지는 힙 밖 버퍼에서, 없으면 원본 파일에서 복사 없이 바로 응답
+    // Resource 본문이므로 Content-Length 와 Range 요청(206)은 Spring 이 처리
+    private ResponseEntity<Resource> imageResponse(ResponseEntity.BodyBuilder builder, String fileName, ByteBuffer processed) {
+        if (processed != null) {
+            return builder
+                    .contentType(MediaType.parseMediaType(imageProcessingService.getProcessedContentType()))
+                    .body(new ByteBufferResource(processed, fileName));
+        }
+        
+        Resource original = originalResource(fileName);
+        if (original == null) {
             return ResponseEntity.notFound().build();
         }
+        return builder
+                .contentType(originalContentType(fileName))
+                .body(original);
+    }
+    
+    private Resource originalResource(String fileName) {
+        Path path = imageProcessingService.getUploadedImagePath(fileName);
+        return path != null ? new FileSystemResource(path) : null;
+    }
+    
+    private static MediaType originalContentType(String fileName) {
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
     }
     
     @PostMapping("/filter/reset")
     @ResponseBody
-    public Map<String, String> resetFilters(@RequestParam("fileName") String fileName) {
-        Map<String, String> response = new HashMap<>();
-        
+    public CompletableFuture<ResponseEntity<Map<String, String>>> resetFilters(@RequestParam("fileName") String fileName) {
         try {
             imageProcessingService.resetFilters(fileName);
-            // 메모리에서 처리된 이미지 바이트 배열 반환
-            byte[] processedImageBytes = imageProcessingService.applyAllFilters(fileName);
-            response.put("success", "true");
-            response.put("message", "모든 필터가 초기화되었습니다.");
         } catch (Exception e) {
-            response.put("success", "false");
-            response.put("message", "초기화 실패: " + e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.ok(failure("초기화 실패: ", e)));
         }
         
-        return response;
+        return renderResponse(fileName, "모든 필터가 초기화되었습니다.", "초기화 실패: ");
     }
     
     @DeleteMapping("/image/{fileName}")
@@ -133,94 +289,167 @@ public class ImageController {
 
     @PostMapping("/filter/update")
     @ResponseBody
-    public Map<String, String> updateFilters(
+    public CompletableFuture<ResponseEntity<Map<String, String>>> updateFilters(
         @RequestParam("fileName") String fileName,
         @RequestBody Map<String, Object> filterData
     ) {
-        Map<String, String> response = new HashMap<>();
         try {
-            FilterState filterState = imageProcessingService.getFilterState(fileName);
-            if (filterState == null) throw new RuntimeException("이미지 상태 없음");
-
-            String[] filters = {"grayscale", "blur", "edges", "brightness", "histogram", "sepia", "sharpen", "saturation", "noise", "invert"};
-            for (String filter : filters) {
-                if (filterData.containsKey(filter)) {
-                    Map<String, Object> filterInfo = (Map<String, Object>) filterData.get(filter);
-                    boolean enabled = (Boolean) filterInfo.getOrDefault("enabled", false);
-                    filterState.setFilterActive(filter, enabled);
-                    
-                    if (filterInfo.containsKey("value")) {
-                        Object value = filterInfo.get("value");
-                        if (filter.equals("blur") || filter.equals("edges") || filter.equals("noise")) {
-                            filterState.setFilterValue(filter, Integer.parseInt(value.toString()));
-                        } else if (filter.equals("brightness")) {
-                            Map<String, Object> brightnessInfo = (Map<String, Object>) filterInfo.get("value");
-                            double alpha = Double.parseDouble(brightnessInfo.get("alpha").toString());
-                            double beta = Double.parseDouble(brightnessInfo.get("beta").toString());
-                            filterState.setFilterValue("brightness_alpha", alpha);
-                            filterState.setFilterValue("brightness_beta", beta);
-                        } else {
-                            filterState.setFilterValue(filter, Double.parseDouble(value.toString()));
-                        }
-                    }
-                }
-            }
-
-            // 메모리에서 처리된 이미지 바이트 배열 반환
-            byte[] processedImageBytes = imageProcessingService.applyAllFilters(fileName);
-            response.put("success", "true");
-            response.put("message", "필터가 적용되었습니다.");
+            // 등록된 필터 기준으로 파싱해 이미지 단위로 원자적으로 상태 변경
+            imageProcessingService.updateFilters(fileName, filterData);
         } catch (Exception e) {
-            response.put("success", "false");
-            response.put("message", "필터 적용 실패: " + e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.ok(failure("필터 적용 실패: ", e)));
         }
-        return response;
+
+        // 같은 이미지에 대한 연속 요청은 렌더 한 번으로 합쳐짐
+        return renderResponse(fileName, "필터가 적용되었습니다.", "필터 적용 실패: ");
     }
 
     @PostMapping("/filter/order")
     @ResponseBody
-    public Map<String, String> updateFilterOrder(
+    public CompletableFuture<ResponseEntity<Map<String, String>>> updateFilterOrder(
         @RequestParam("fileName") String fileName,
         @RequestBody Map<String, Object> orderData
     ) {
-        Map<String, String> response = new HashMap<>();
         try {
-            FilterState filterState = imageProcessingService.getFilterState(fileName);
-            if (filterState == null) throw new RuntimeException("이미지 상태 없음");
-
-            @SuppressWarnings("unchecked")
-            List<String> newOrder = (List<String>) orderData.get("order");
-            filterState.setFilterOrder(newOrder);
-
-            // 순서 변경 후 다시 필터 적용
-            byte[] processedImageBytes = imageProcessingService.applyAllFilters(fileName);
-            response.put("success", "true");
-            response.put("message", "필터 순서가 변경되었습니다.");
+            imageProcessingService.updateFilterOrder(fileName, orderData.get("order"));
         } catch (Exception e) {
-            response.put("success", "false");
-            response.put("message", "순서 변경 실패: " + e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.ok(failure("순서 변경 실패: ", e)));
         }
+
+        // 순서 변경 후 다시 필터 적용
+        return renderResponse(fileName, "필터 순서가 변경되었습니다.", "순서 변경 실패: ");
+    }
+    
+    // 편집 확정: 미리보기로 편집한 현재 상태를 원본 해상도로 렌더
+    @PostMapping("/filter/commit")
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<Map<String, String>>> commitFilters(@RequestParam("fileName") String fileName) {
+        return renderResponse(imageProcessingService.requestFullRender(fileName), "원본 해상도로 적용되었습니다.", "적용 실패: ");
+    }
+    
+    // 렌더 완료 후 응답 생성 (반영된 상태 버전 포함)
+    private CompletableFuture<ResponseEntity<Map<String, String>>> renderResponse(String fileName, String successMessage, String failureMessage) {
+        return renderResponse(imageProcessingService.requestRender(fileName), successMessage, failureMessage);
+    }
+    
+    private CompletableFuture<ResponseEntity<Map<String, String>>> renderResponse(CompletableFuture<RenderResult> render, String successMessage, String failureMessage) {
+        return render.handle((result, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof ComputeRejectedException rejected) {
+                    // 과부하는 실패 응답이 아닌 503 으로 전달
+                    throw rejected;
+                }
+                return ResponseEntity.ok(failure(failureMessage, cause));
+            }
+            Map<String, String> response = new HashMap<>();
+            response.put("success", "true");
+            response.put("message", successMessage);
+            response.put("version", String.valueOf(result.version()));
+            
+            // 디버그용 단계별 소요 시간 (브라우저 개발자 도구의 Timing 탭에 표시됨)
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+            if (timingHeader && !result.timings().isEmpty()) {
+                builder.header("Server-Timing", result.timings().toServerTiming());
+            }
+            return builder.body(response);
+        });
+    }
+    
+    private Map<String, String> failure(String message, Throwable e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("success", "false");
+        response.put("message", message + e.getMessage());
         return response;
     }
 
     @GetMapping("/download/{fileName}")
-    public ResponseEntity<ByteArrayResource> downloadImage(@PathVariable String fileName) {
+    public ResponseEntity<Resource> downloadImage(
+        @PathVariable String fileName,
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        // 현재 상태의 원본 해상도 결과 식별값은 렌더하지 않고 계산 가능
+        String etag = etag(imageProcessingService.getDownloadTag(fileName));
+        if (notModified(ifNoneMatch, etag)) {
+            return notModifiedResponse(etag).build();
+        }
+        
+        // 편집 중에는 미리보기만 렌더되므로 다운로드 시 원본 해상도 결과를 사용
+        // 처리된 이미지가 없으면 원본 이미지 반환
+        ByteBuffer processed = imageProcessingService.getFullResolutionImageBuffer(fileName);
+        String downloadFileName = imageProcessingService.getDownloadFileName(fileName);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + downloadFileName + "\"");
+        return imageResponse(withETag(builder, etag), fileName, processed);
+    }
+
+    @GetMapping("/stats/cache")
+    @ResponseBody
+    public Map<String, Object> getCacheStats() {
+        return imageProcessingService.getCacheStats();
+    }
+
+    // 배치 처리: 업로드된 이미지 목록에 같은 레시피 적용 ({recipe, fileNames}), 결과는 ZIP 스트리밍
+    // 요청 형식이나 레시피가 잘못되면 400 과 실패 사유, 그 외 서버 오류는 그대로 전파
+    @PostMapping("/batch")
+    public ResponseEntity<?> processBatch(@RequestBody Map<String, Object> request) {
         try {
-            byte[] imageBytes = imageProcessingService.getProcessedImageBytes(fileName);
-            if (imageBytes == null) {
-                // 처리된 이미지가 없으면 원본 이미지 반환
-                imageBytes = imageProcessingService.getUploadedImageBytes(fileName);
-            }
-            
-            String downloadFileName = imageProcessingService.getDownloadFileName(fileName);
-            ByteArrayResource resource = new ByteArrayResource(imageBytes);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> recipe = (Map<String, Object>) request.getOrDefault("recipe", Map.of());
+            @SuppressWarnings("unchecked")
+            List<String> fileNames = (List<String>) request.get("fileNames");
             
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + downloadFileName + "\"")
-                    .contentType(MediaType.IMAGE_JPEG)
-                    .body(resource);
-        } catch (IOException e) {
+            BatchProcessingService.BatchSource source = batchProcessingService.uploadedFiles(fileNames);
+            return batchResponse(batchProcessingService.createJob(recipe), source);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            return ResponseEntity.badRequest().body(failure("배치 처리 실패: ", e));
+        }
+    }
+    
+    // 배치 처리: ZIP 업로드 (recipe JSON 파트 + archive 파트)
+    @PostMapping("/batch/archive")
+    public ResponseEntity<?> processBatchArchive(
+        @RequestPart("recipe") Map<String, Object> recipe,
+        @RequestPart("archive") MultipartFile archive
+    ) throws IOException {
+        BatchJob job;
+        try {
+            job = batchProcessingService.createJob(recipe);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            return ResponseEntity.badRequest().body(failure("배치 처리 실패: ", e));
+        }
+        return batchResponse(job, batchProcessingService.zipArchive(archive.getInputStream()));
+    }
+    
+    private ResponseEntity<StreamingResponseBody> batchResponse(BatchJob job, BatchProcessingService.BatchSource source) {
+        StreamingResponseBody body = out -> batchProcessingService.run(job, source, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"batch-" + job.getId() + ".zip\"")
+                .header("X-Batch-Job", job.getId())
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(body);
+    }
+    
+    // 배치 작업 상태 (단계별 처리량, 실패 목록)
+    @GetMapping("/batch/{jobId}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getBatchStatus(@PathVariable String jobId) {
+        BatchJob job = batchProcessingService.getJob(jobId);
+        if (job == null) {
             return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok(job.toStatus());
+    }
+
+    // 연산 풀이 포화 상태면 작업을 쌓지 않고 503 으로 거절
+    @ExceptionHandler(ComputeRejectedException.class)
+    @ResponseBody
+    public ResponseEntity<Map<String, String>> handleComputeRejected(ComputeRejectedException e) {
+        Map<String, String> response = new HashMap<>();
+        response.put("success", "false");
+        response.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
     }
-} 
\ No newline at end of file
+}
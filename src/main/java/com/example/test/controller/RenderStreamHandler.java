@@ -0,0 +1,273 @@
+package com.example.test.controller;
+
+import com.example.test.service.ImageProcessingService;
+import com.example.test.service.RenderResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 이미지별 렌더 스트림 (/ws/render?fileName=...)
+// 업데이트 요청 후 결과를 다시 GET 하던 두 번의 왕복 대신, 한 연결에서 변경 내용을 받고 렌더 결과를 바로 보냄
+//
+// 클라이언트 -> 서버 (텍스트, JSON)
+//   {"type":"update","filters":{필터명:{enabled,value}}}  바뀐 필터만 보내면 됨 (/filter/update 와 같은 형식)
+//   {"type":"order","order":[필터명...]}
+//   {"type":"reset"}
+//   {"type":"ack","version":n}  바이너리 프레임을 받은 직후 보냄 (전송 속도 측정과 다음 프레임 전송에 사용)
+// 서버 -> 클라이언트
+//   바이너리: [렌더 버전 8바이트][인코딩된 이미지]
+//   텍스트:   {"type":"original","version":n} 적용할 필터가 없음 (원본 표시)
+//             {"type":"error","message":...}
+//
+// 렌더 중에 들어온 변경은 최신 것 하나로 합치고, 전송이 밀리면 보내지 못한 이전 프레임은 버림
+// 프레임은 한 번에 하나만 보내고 ack 를 받은 뒤 다음 프레임을 보냄
+// (sendMessage 는 다른 스레드가 전송 중이면 버퍼에 넣고 바로 반환하므로, 전송 시간은 ack 까지의 시간으로 측정)
+// 전송 속도가 느린 클라이언트에는 JPEG 품질/크기를 낮춘 프레임을 보냄 (FrameQuality, 축소 크기로 렌더)
+@Component
+public class RenderStreamHandler extends AbstractWebSocketHandler {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String STREAM_ATTRIBUTE = "renderStream";
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    @Value("${image.stream.target-frame-millis:150}")
+    private long targetFrameMillis;
+
+    @Value("${image.stream.min-quality:40}")
+    private int minQuality;
+
+    @Value("${image.preview.max-dimension:1280}")
+    private int maxDimension;
+
+    @Value("${image.stream.min-dimension:320}")
+    private int minDimension;
+
+    @Value("${image.stream.send-time-limit-millis:5000}")
+    private int sendTimeLimitMillis;
+
+    @Value("${image.stream.buffer-size-limit:4194304}")
+    private int bufferSizeLimit;
+
+    @Value("${image.stream.ack-timeout-millis:2000}")
+    private long ackTimeoutMillis;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        String fileName = session.getUri() == null ? null
+                : UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams().getFirst("fileName");
+        if (fileName == null || imageProcessingService.getFilterState(fileName) == null) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("이미지 상태 없음"));
+            return;
+        }
+
+        // 렌더 스트림과 요청 처리 스레드가 함께 보내므로 전송을 직렬화 (한도를 넘으면 오래된 메시지부터 버림)
+        WebSocketSession output = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, bufferSizeLimit,
+                ConcurrentWebSocketSessionDecorator.OverflowStrategy.DROP);
+        RenderStream stream = new RenderStream(fileName, output,
+                new FrameQuality(imageProcessingService.getFrameQuality(), minQuality, maxDimension, minDimension, targetFrameMillis));
+        session.getAttributes().put(STREAM_ATTRIBUTE, stream);
+
+        // 연결 직후 현재 상태를 한 번 보냄
+        stream.request();
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        RenderStream stream = (RenderStream) session.getAttributes().get(STREAM_ATTRIBUTE);
+        if (stream == null) {
+            return;
+        }
+
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> request = JSON.readValue(message.getPayload(), Map.class);
+            String type = String.valueOf(request.get("type"));
+            if ("ack".equals(type)) {
+                // 렌더 요청이 아니므로 다시 렌더하지 않음
+                stream.acknowledge(((Number) request.get("version")).longValue());
+                return;
+            }
+            switch (type) {
+                case "update" -> {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> filters = (Map<String, Object>) request.get("filters");
+                    imageProcessingService.updateFilters(stream.fileName, filters != null ? filters : Map.of());
+                }
+                case "order" -> imageProcessingService.updateFilterOrder(stream.fileName, request.get("order"));
+                case "reset" -> imageProcessingService.resetFilters(stream.fileName);
+                default -> throw new IllegalArgumentException("알 수 없는 요청: " + type);
+            }
+        } catch (Exception e) {
+            stream.sendText("error", "message", "필터 적용 실패: " + e.getMessage());
+            return;
+        }
+        stream.request();
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        RenderStream stream = (RenderStream) session.getAttributes().remove(STREAM_ATTRIBUTE);
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    // 연결 하나의 렌더 요청 -> 렌더 -> 전송 파이프라인
+    private final class RenderStream {
+
+        private final String fileName;
+        private final WebSocketSession session;
+        private final FrameQuality quality;
+        private final Sinks.Many<Boolean> requests = Sinks.many().unicast().onBackpressureBuffer();
+        private final Disposable subscription;
+        private volatile long sentVersion = -1;
+        // ack 를 기다리는 프레임 (없으면 null)
+        private volatile PendingFrame pending;
+
+        RenderStream(String fileName, WebSocketSession session, FrameQuality quality) {
+            this.fileName = fileName;
+            this.session = session;
+            this.quality = quality;
+            this.subscription = requests.asFlux()
+                    // 렌더 중에 들어온 요청은 가장 최근 것 하나만 남김 (렌더는 항상 최신 상태로 실행됨)
+                    .onBackpressureLatest()
+                    .concatMap(ignored -> Mono.fromFuture(this::render)
+                            .onErrorResume(error -> {
+                                sendText("error", "message", "렌더 실패: " + cause(error).getMessage());
+                                return Mono.empty();
+                            }), 0)
+                    // 전송이 밀리는 동안 나온 결과는 가장 최근 것 하나만 남김
+                    .onBackpressureLatest()
+                    .concatMap(this::send, 0)
+                    .subscribe();
+        }
+
+        void request() {
+            requests.tryEmitNext(Boolean.TRUE);
+        }
+
+        // 느린 클라이언트에는 처음부터 축소 크기/낮은 품질로 렌더 (전체 결과를 다시 디코딩하지 않음)
+        // 축소 프레임은 처리 결과 저장소에 반영되지 않으므로 일반 렌더도 예약해 /processed 가 최신 완료 결과를 주도록 함
+        // (같은 이미지의 일반 렌더와 합쳐지고, 결과는 기다리지 않음)
+        private CompletableFuture<RenderResult> render() {
+            if (!quality.isReduced()) {
+                return imageProcessingService.requestRender(fileName);
+            }
+            imageProcessingService.requestRender(fileName);
+            return imageProcessingService.requestFrameRender(fileName, quality.getDimension(), quality.getQuality());
+        }
+
+        private Mono<Void> send(RenderResult result) {
+            long version = result.version();
+            if (version <= sentVersion || !session.isOpen()) {
+                return Mono.empty();
+            }
+            if (result.imageBytes() == null) {
+                sentVersion = version;
+                sendText("original", "version", version);
+                return Mono.empty();
+            }
+
+            // 전송은 블로킹 I/O 이므로 연산 풀 밖에서 실행하고, ack (또는 제한 시간)까지 다음 프레임을 보내지 않음
+            return Mono.fromCallable(() -> write(version, result.imageBytes()))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMap(frame -> frame.acked.asMono()
+                            .timeout(Duration.ofMillis(ackTimeoutMillis), Mono.fromRunnable(() -> complete(frame))))
+                    .onErrorResume(error -> {
+                        sendText("error", "message", "프레임 전송 실패: " + cause(error).getMessage());
+                        return Mono.empty();
+                    });
+        }
+
+        private PendingFrame write(long version, byte[] bytes) {
+            ByteBuffer payload = ByteBuffer.allocate(Long.BYTES + bytes.length);
+            payload.putLong(version).put(bytes).flip();
+            PendingFrame frame = new PendingFrame(version, bytes.length, System.nanoTime());
+            pending = frame;
+            try {
+                session.sendMessage(new BinaryMessage(payload));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            sentVersion = version;
+            return frame;
+        }
+
+        void acknowledge(long version) {
+            PendingFrame frame = pending;
+            if (frame != null && frame.version == version) {
+                complete(frame);
+            }
+        }
+
+        // ack 를 받았거나 제한 시간이 지난 프레임의 전송 시간 기록 (버려진 프레임은 제한 시간만큼 느린 전송으로 기록됨)
+        private void complete(PendingFrame frame) {
+            if (frame.completed.compareAndSet(false, true)) {
+                quality.record(frame.bytes, System.nanoTime() - frame.startNanos);
+                frame.acked.tryEmitEmpty();
+            }
+        }
+
+        void sendText(String type, String key, Object value) {
+            if (!session.isOpen()) {
+                return;
+            }
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", type);
+            message.put(key, value);
+            try {
+                session.sendMessage(new TextMessage(JSON.writeValueAsString(message)));
+            } catch (IOException e) {
+                // 연결이 끊긴 경우 (afterConnectionClosed 에서 정리됨)
+            }
+        }
+
+        void close() {
+            requests.tryEmitComplete();
+            subscription.dispose();
+        }
+
+        private static Throwable cause(Throwable error) {
+            return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        }
+    }
+
+    // 전송 후 ack 를 기다리는 프레임
+    private static final class PendingFrame {
+        private final long version;
+        private final int bytes;
+        private final long startNanos;
+        private final Sinks.One<Void> acked = Sinks.one();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        PendingFrame(long version, int bytes, long startNanos) {
+            this.version = version;
+            this.bytes = bytes;
+            this.startNanos = startNanos;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.*;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+// 가우시안 블러 (커널 크기는 홀수)
+@Component
+@Order(20)
+public class BlurFilter implements ImageFilter<BlurFilter.Params> {
+
+    public record Params(int kernelSize) {}
+
+    @Override
+    public String name() {
+        return "blur";
+    }
+
+    @Override
+    public Params defaultParams() {
+        return new Params(5);
+    }
+
+    @Override
+    public Params parseParams(Object value) {
+        return new Params(ImageFilter.parseInt(value));
+    }
+
+    @Override
+    public void apply(Mat image, Params params) {
+        GaussianBlur(image, image, new Size(params.kernelSize(), params.kernelSize()), 0);
+    }
+
+    @Override
+    public boolean acceptsLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public Params scaleForPreview(Params params, double scale) {
+        // 커널 크기를 배율에 맞추고 GaussianBlur 요구사항대로 홀수로 맞춤
+        int kernelSize = (int) Math.round(params.kernelSize() * scale);
+        if (kernelSize % 2 == 0) {
+            kernelSize += 1;
+        }
+        return new Params(Math.max(1, kernelSize));
+    }
+
+    @Override
+    public int haloRadius(Params params) {
+        return params.kernelSize() / 2;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.*;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// 밝기/대비 조절 (alpha: 대비, beta: 밝기)
+@Component
+@Order(40)
+public class BrightnessFilter implements PointOperation<BrightnessFilter.Params> {
+
+    public record Params(double alpha, double beta) {}
+
+    // OpenCV 경로: convertTo 한 번
+    private static final PointBackend.OpenCvCost OPENCV_COST = new PointBackend.OpenCvCost(1, 1);
+
+    @Override
+    public String name() {
+        return "brightness";
+    }
+
+    @Override
+    public Params defaultParams() {
+        return new Params(1.0, 0.0);
+    }
+
+    @Override
+    public Params parseParams(Object value) {
+        Map<String, Object> brightnessInfo = ImageFilter.parseObject(value);
+        double alpha = ImageFilter.parseDouble(brightnessInfo.get("alpha"));
+        double beta = ImageFilter.parseDouble(brightnessInfo.get("beta"));
+        return new Params(alpha, beta);
+    }
+
+    @Override
+    public void apply(Mat image, Params params) {
+        if (PointBackend.tryApply(image, this, params, OPENCV_COST)) {
+            return;
+        }
+        image.convertTo(image, -1, params.alpha(), params.beta());
+    }
+
+    @Override
+    public boolean acceptsLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public double[] colorMatrix(Params params) {
+        return PointOperation.diagonal(params.alpha(), params.beta());
+    }
+}
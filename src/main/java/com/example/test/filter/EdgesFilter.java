@@ -0,0 +1,82 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.*;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+// Canny 엣지 검출
+@Component
+@Order(30)
+public class EdgesFilter implements ImageFilter<EdgesFilter.Params> {
+
+    public record Params(int threshold) {}
+
+    private static final int REGION_HALO = 16;
+
+    @Override
+    public String name() {
+        return "edges";
+    }
+
+    @Override
+    public Params defaultParams() {
+        return new Params(100);
+    }
+
+    @Override
+    public Params parseParams(Object value) {
+        return new Params(ImageFilter.parseInt(value));
+    }
+
+    @Override
+    public void apply(Mat image, Params params) {
+        MatPool pool = MatPool.shared();
+        try (MatPool.Lease edges = pool.lease(image.rows(), image.cols(), CV_8UC1)) {
+            if (image.channels() == 1) {
+                // 이미 휘도 이미지면 변환 없이 검출
+                Canny(image, edges.mat(), params.threshold(), params.threshold() * 1.5);
+                edges.mat().copyTo(image);
+                return;
+            }
+            try (MatPool.Lease gray = pool.lease(image.rows(), image.cols(), CV_8UC1)) {
+                cvtColor(image, gray.mat(), COLOR_BGR2GRAY);
+                Canny(gray.mat(), edges.mat(), params.threshold(), params.threshold() * 1.5);
+            }
+            cvtColor(edges.mat(), image, COLOR_GRAY2BGR);
+        }
+    }
+
+    @Override
+    public boolean producesLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public boolean acceptsLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public Params scaleForPreview(Params params, double scale) {
+        // Canny 임계값은 밝기 기울기 크기라 해상도와 무관하고,
+        // pyrDown 의 가우시안 평활화가 원본에서 사라질 미세 텍스처 엣지를 이미 걸러주므로 그대로 사용
+        return params;
+    }
+
+    @Override
+    public int haloRadius(Params params) {
+        // 히스테리시스 단계가 약한 엣지를 연결된 강한 엣지까지 이미지 전체로 추적하므로
+        // 고정 halo 로는 타일 결과가 달라질 수 있음 (Canny 는 OpenCV 내부에서 병렬 처리됨)
+        return WHOLE_IMAGE;
+    }
+
+    @Override
+    public int regionHaloRadius(Params params) {
+        // Sobel(3x3) + 비최대 억제에 필요한 2픽셀에, 영역 경계 밖으로 이어지는 약한 엣지 추적 여유를 더함
+        // 이보다 먼 강한 엣지에만 연결된 약한 엣지는 영역 렌더에서 빠질 수 있음 (표시용 근사)
+        return REGION_HALO;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.util.List;
+
+// FilterState 를 컴파일한 불변 실행 계획
+// 상태가 바뀔 때 한 번만 만들어지고, 렌더링 중에는 맵 조회/문자열 비교/박싱 없이 단계만 순서대로 실행
+public final class FilterPlan {
+
+    public static final class Stage<P> {
+        private final ImageFilter<P> filter;
+        private final P params;
+        private final long hash; // 필터 이름 + 파라미터 해시 (중간 결과 캐시 키용)
+
+        Stage(ImageFilter<P> filter, P params, long hash) {
+            this.filter = filter;
+            this.params = params;
+            this.hash = hash;
+        }
+
+        public void apply(Mat image) {
+            filter.apply(image, params);
+        }
+
+        public ImageFilter<P> getFilter() {
+            return filter;
+        }
+
+        public P getParams() {
+            return params;
+        }
+
+        public long getHash() {
+            return hash;
+        }
+    }
+
+    private final long version;
+    private final List<Stage<?>> stages;
+    private final boolean sharesLuma;
+
+    FilterPlan(long version, List<Stage<?>> stages, boolean sharesLuma) {
+        this.version = version;
+        this.stages = List.copyOf(stages);
+        this.sharesLuma = sharesLuma;
+    }
+
+    // 컴파일 대상 FilterState 의 버전
+    public long getVersion() {
+        return version;
+    }
+
+    // 실행 시 단계 사이에서 휘도 평면을 공유할지 (RenderContext)
+    public boolean sharesLuma() {
+        return sharesLuma;
+    }
+
+    public List<Stage<?>> getStages() {
+        return stages;
+    }
+
+    public int size() {
+        return stages.size();
+    }
+
+    public boolean isEmpty() {
+        return stages.isEmpty();
+    }
+}
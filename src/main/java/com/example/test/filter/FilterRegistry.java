@@ -0,0 +1,142 @@
+package com.example.test.filter;
+
+import com.example.test.model.FilterState;
+import com.example.test.model.StableHash;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+// 등록된 필터 목록 (Spring 빈 + ServiceLoader 플러그인)
+// 빈은 @Order 순서, 플러그인은 그 뒤에 발견 순서대로 기본 적용 순서가 정해짐
+@Component
+public class FilterRegistry {
+
+    private final Map<String, ImageFilter<?>> filters = new LinkedHashMap<>();
+    private final boolean fusePointOperations;
+    private final boolean shareLuma;
+
+    public FilterRegistry(
+        List<ImageFilter<?>> beans,
+        @Value("${image.pipeline.fuse-point-ops:true}") boolean fusePointOperations,
+        @Value("${image.pipeline.share-luma:true}") boolean shareLuma
+    ) {
+        this.fusePointOperations = fusePointOperations;
+        this.shareLuma = shareLuma;
+        for (ImageFilter<?> filter : beans) {
+            register(filter);
+        }
+        for (ImageFilter<?> filter : ServiceLoader.load(ImageFilter.class)) {
+            // 같은 이름의 빈이 있으면 빈이 우선
+            if (!filters.containsKey(filter.name())) {
+                register(filter);
+            }
+        }
+    }
+
+    private void register(ImageFilter<?> filter) {
+        if (filters.putIfAbsent(filter.name(), filter) != null) {
+            throw new IllegalStateException("중복된 필터 이름: " + filter.name());
+        }
+    }
+
+    public ImageFilter<?> get(String name) {
+        return filters.get(name);
+    }
+
+    // 기본 적용 순서의 필터 이름 목록
+    public List<String> names() {
+        return Collections.unmodifiableList(new ArrayList<>(filters.keySet()));
+    }
+
+    // 요청의 필터 순서 검증 (등록되지 않은 이름이면 상태를 건드리기 전에 거부)
+    public List<String> checkOrder(Object order) {
+        if (!(order instanceof List<?> names)) {
+            throw new IllegalArgumentException("필터 순서 목록이 필요합니다: " + order);
+        }
+        List<String> result = new ArrayList<>(names.size());
+        for (Object name : names) {
+            if (!(name instanceof String filterName) || !filters.containsKey(filterName)) {
+                throw new IllegalArgumentException("알 수 없는 필터: " + name);
+            }
+            result.add(filterName);
+        }
+        return result;
+    }
+
+    // 요청 JSON ({필터명: {enabled, value}}) 을 FilterState 에 반영
+    public void applyRecipe(FilterState filterState, Map<String, Object> recipe) {
+        for (ImageFilter<?> filter : filters.values()) {
+            Object entry = recipe.get(filter.name());
+            if (entry == null) {
+                continue;
+            }
+
+            Map<String, Object> filterInfo = ImageFilter.parseObject(entry);
+            boolean enabled = Boolean.TRUE.equals(filterInfo.getOrDefault("enabled", false));
+            filterState.setFilterActive(filter.name(), enabled);
+
+            if (filterInfo.containsKey("value")) {
+                filterState.setFilterValue(filter.name(), parseVector(filter, filterInfo.get("value")));
+            }
+        }
+    }
+
+    // 불변 스냅샷을 실행 계획으로 컴파일
+    public FilterPlan compile(FilterState snapshot) {
+        return compile(snapshot, 1.0);
+    }
+
+    // 축소 미리보기용 컴파일 (scale < 1 이면 필터별로 파라미터를 배율에 맞게 조정)
+    public FilterPlan compile(FilterState snapshot, double scale) {
+        List<FilterPlan.Stage<?>> stages = new ArrayList<>();
+        for (String name : snapshot.getActiveFiltersInOrder()) {
+            ImageFilter<?> filter = filters.get(name);
+            if (filter != null) {
+                stages.add(stage(filter, snapshot.getFilterValue(name), scale));
+            }
+        }
+        // 인접한 점 연산은 한 번의 메모리 패스로 합침
+        return new FilterPlan(snapshot.getVersion(),
+                fusePointOperations ? PlanOptimizer.fusePointOperations(stages) : stages, shareLuma);
+    }
+
+    // 결과 캐시 키용 레시피 해시 (활성 필터 순서 + 값, 스냅샷에서 한 번만 계산)
+    // 요청 JSON 의 표기 차이(필드 순서, 비활성 필터 값 등)와 무관하게 같은 상태면 같은 값
+    public long recipeHash(FilterState snapshot) {
+        // 점 연산 병합/휘도 공유 여부에 따라 반올림 결과가 조금 달라질 수 있으므로 포함
+        return StableHash.mix(snapshot.fingerprint(), (fusePointOperations ? 1 : 0) | (shareLuma ? 2 : 0));
+    }
+
+    private static <P> double[] parseVector(ImageFilter<P> filter, Object value) {
+        return filter.toVector(filter.parseParams(value));
+    }
+
+    // 저장된 벡터를 파라미터로 복원 (없거나 형식이 맞지 않으면 기본값)
+    private static <P> P resolveParams(ImageFilter<P> filter, double[] vector) {
+        if (vector == null) {
+            return filter.defaultParams();
+        }
+        try {
+            return filter.fromVector(vector);
+        } catch (IllegalArgumentException e) {
+            return filter.defaultParams();
+        }
+    }
+
+    // 단계 해시는 저장된 벡터와 배율로 계산 (파라미터 record 를 리플렉션으로 읽지 않음)
+    private static <P> FilterPlan.Stage<P> stage(ImageFilter<P> filter, double[] vector, double scale) {
+        P params = resolveParams(filter, vector);
+        long hash = StableHash.mix(StableHash.of(filter.name()), StableHash.ofVector(vector));
+        if (scale < 1.0) {
+            params = filter.scaleForPreview(params, scale);
+            hash = StableHash.mix(hash, Double.doubleToLongBits(scale));
+        }
+        return new FilterPlan.Stage<>(filter, params, hash);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.test.filter;
+
+import org.bytedeco.javacpp.DoublePointer;
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.util.List;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+
+// 인접한 점 연산 여러 개를 합친 단계 (실행 계획 최적화 전용, 레지스트리에는 등록되지 않음)
+// 모두 채널별 연산이면 채널당 256 항목 LUT 한 번(단계별 포화 처리까지 동일),
+// 채널 간 연산이 섞여 있으면 합성한 3x4 색 변환 행렬로 transform 한 번 적용
+// (합성 행렬은 단계 사이의 포화를 재현할 수 없으므로 중간 결과가 범위를 넘지 않는 단계들만 합침, 반올림 차이는 ±1)
+public final class FusedPointFilter implements ImageFilter<FusedPointFilter.Params> {
+
+    static final FusedPointFilter INSTANCE = new FusedPointFilter();
+
+    // lut 또는 matrix 중 하나만 존재, stages 는 3채널이 아닐 때의 대체 경로
+    // lumaLut 은 모든 단계가 휘도에 그대로 적용되는 경우의 1채널 LUT (아니면 null)
+    // kernel 은 같은 계산의 Vector 백엔드 계수 (작은 이미지/타일은 OpenCV 대신 사용, PointBackend)
+    // 네이티브 메모리는 갖지 않음: OpenCV 경로는 적용할 때 MatPool 에서 표 Mat 을 빌려 채움 (교체된 계획이 Mat 을 남기지 않음)
+    public record Params(List<FilterPlan.Stage<?>> stages, byte[] lut, double[] matrix, byte[] lumaLut, PointKernel kernel) {
+        @Override
+        public String toString() {
+            return "fused" + stages.stream().map(stage -> stage.getFilter().name()).toList();
+        }
+    }
+
+    // OpenCV 경로 비용: LUT 한 번, 색 변환은 픽셀마다 행렬 곱이라 패스 여러 번 수준
+    private static final PointBackend.OpenCvCost LUT_COST = new PointBackend.OpenCvCost(1, 1);
+    private static final PointBackend.OpenCvCost TRANSFORM_COST = new PointBackend.OpenCvCost(1, 3);
+
+    // 구간 경계 비교 허용 오차 (계수 곱의 부동소수점 오차로 255 를 살짝 넘는 경우)
+    private static final double RANGE_EPSILON = 1e-9;
+
+    private FusedPointFilter() {
+    }
+
+    @Override
+    public String name() {
+        return "fused";
+    }
+
+    @Override
+    public Params defaultParams() {
+        return new Params(List.of(), null, null, null, null);
+    }
+
+    @Override
+    public Params parseParams(Object value) {
+        throw new UnsupportedOperationException("합성 단계는 요청으로 만들 수 없습니다");
+    }
+
+    @Override
+    public void apply(Mat image, Params params) {
+        MatPool pool = MatPool.shared();
+        if (image.channels() == 1 && params.lumaLut() != null) {
+            if (!PointBackend.tryApply(image, params.kernel(), LUT_COST)) {
+                try (MatPool.Lease table = pool.lease(1, 256, CV_8UC1)) {
+                    table.mat().data().put(params.lumaLut());
+                    LUT(image, table.mat(), image);
+                }
+            }
+            return;
+        }
+        if (image.channels() != 3) {
+            for (FilterPlan.Stage<?> stage : params.stages()) {
+                stage.apply(image);
+            }
+            return;
+        }
+
+        if (PointBackend.tryApply(image, params.kernel(), params.lut() != null ? LUT_COST : TRANSFORM_COST)) {
+            return;
+        }
+        if (params.lut() != null) {
+            try (MatPool.Lease table = pool.lease(1, 256, CV_8UC3)) {
+                table.mat().data().put(params.lut());
+                LUT(image, table.mat(), image);
+            }
+        } else {
+            try (MatPool.Lease table = pool.lease(3, 4, CV_64F)) {
+                new DoublePointer(table.mat().data()).put(params.matrix());
+                transform(image, image, table.mat());
+            }
+        }
+    }
+
+    // 점 연산 단계들을 하나로 합침
+    // 채널 간 연산이 섞인 단계들은 중간 결과가 [0, 255] 안에 있어야 함 (PlanOptimizer 가 staysInRange 로 나눔)
+    static Params fuse(List<FilterPlan.Stage<?>> stages) {
+        double[][] matrices = new double[stages.size()][];
+        boolean perChannel = true;
+        for (int i = 0; i < stages.size(); i++) {
+            matrices[i] = colorMatrix(stages.get(i));
+            perChannel &= isDiagonal(matrices[i]);
+        }
+
+        boolean acceptsLuma = acceptsLuma(stages);
+        byte[] lumaLut = acceptsLuma ? buildLumaLut(matrices) : null;
+        if (perChannel) {
+            return new Params(List.copyOf(stages), buildLut(matrices), null, lumaLut, PointKernel.of(matrices, null, acceptsLuma));
+        }
+        double[] matrix = compose(matrices);
+        return new Params(List.copyOf(stages), null, matrix, lumaLut, PointKernel.of(matrices, matrix, acceptsLuma));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean acceptsLuma(List<FilterPlan.Stage<?>> stages) {
+        for (FilterPlan.Stage<?> stage : stages) {
+            FilterPlan.Stage<Object> current = (FilterPlan.Stage<Object>) stage;
+            if (!current.getFilter().acceptsLuma(current.getParams())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 첫 단계가 휘도를 만들고 나머지가 휘도를 유지하면 합친 결과도 휘도
+    @Override
+    public boolean producesLuma(Params params) {
+        if (params.lumaLut() == null || params.stages().isEmpty()) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        FilterPlan.Stage<Object> first = (FilterPlan.Stage<Object>) params.stages().get(0);
+        return first.getFilter().producesLuma(first.getParams());
+    }
+
+    @Override
+    public boolean acceptsLuma(Params params) {
+        return params.lumaLut() != null;
+    }
+
+    static boolean isDiagonal(double[] m) {
+        return m[1] == 0 && m[2] == 0 && m[4] == 0 && m[6] == 0 && m[8] == 0 && m[9] == 0;
+    }
+
+    // 채널별 LUT (B,G,R 교차 배치), 단계마다 반올림/포화를 적용해 순차 실행 결과와 같게 함
+    // 계수와 계산은 Vector 커널(PointKernel)과 같은 float 곱셈 후 덧셈이라 두 백엔드의 결과가 같음
+    private static byte[] buildLut(double[][] matrices) {
+        byte[] lut = new byte[256 * 3];
+        for (int channel = 0; channel < 3; channel++) {
+            for (int v = 0; v < 256; v++) {
+                int value = v;
+                for (double[] m : matrices) {
+                    value = saturate((float) m[channel * 4 + channel] * value + (float) m[channel * 4 + 3]);
+                }
+                lut[v * 3 + channel] = (byte) value;
+            }
+        }
+        return lut;
+    }
+
+    // 세 채널이 같은 입력(휘도)에서의 단계별 변환: 한 행의 채널 계수 합 * v + 오프셋
+    // (acceptsLuma 인 단계는 모든 행이 같으므로 첫 행만 사용)
+    private static byte[] buildLumaLut(double[][] matrices) {
+        byte[] lut = new byte[256];
+        for (int v = 0; v < 256; v++) {
+            int value = v;
+            for (double[] m : matrices) {
+                value = saturate((float) (m[0] + m[1] + m[2]) * value + (float) m[3]);
+            }
+            lut[v] = (byte) value;
+        }
+        return lut;
+    }
+
+    @SuppressWarnings("unchecked")
+    static double[] colorMatrix(FilterPlan.Stage<?> stage) {
+        FilterPlan.Stage<Object> current = (FilterPlan.Stage<Object>) stage;
+        return ((PointOperation<Object>) current.getFilter()).colorMatrix(current.getParams());
+    }
+
+    // 순서대로 적용되는 아핀 변환들의 합성 (뒤 단계 * 앞 단계)
+    private static double[] compose(double[][] matrices) {
+        double[] result = PointOperation.diagonal(1.0, 0.0);
+        for (double[] m : matrices) {
+            result = compose(result, m);
+        }
+        return result;
+    }
+
+    // first 다음에 next 를 적용하는 변환
+    static double[] compose(double[] first, double[] next) {
+        double[] result = new double[12];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 4; col++) {
+                double sum = col == 3 ? next[row * 4 + 3] : 0.0;
+                for (int k = 0; k < 3; k++) {
+                    sum += next[row * 4 + k] * first[k * 4 + col];
+                }
+                result[row * 4 + col] = sum;
+            }
+        }
+        return result;
+    }
+
+    // 입력이 [0, 255]^3 일 때 변환 결과가 모든 채널에서 [0, 255] 안에 있는지 (구간 연산, 포화가 일어나지 않음)
+    static boolean staysInRange(double[] m) {
+        for (int row = 0; row < 3; row++) {
+            double low = m[row * 4 + 3];
+            double high = m[row * 4 + 3];
+            for (int col = 0; col < 3; col++) {
+                double extent = m[row * 4 + col] * 255.0;
+                low += Math.min(0.0, extent);
+                high += Math.max(0.0, extent);
+            }
+            if (low < -RANGE_EPSILON || high > 255.0 + RANGE_EPSILON) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int saturate(float value) {
+        return (int) Math.rint(Math.max(0f, Math.min(255f, value)));
+    }
+
+    @Override
+    public int haloRadius(Params params) {
+        return 0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+
+// 이미지 전체 통계가 필요한 필터 (히스토그램 평활화 등)
+// 타일 실행 시 2단계로 처리: 타일별 부분 통계를 모아 합친 뒤, 합친 통계로 각 타일에 적용
+public interface GlobalOperation<P> extends ImageFilter<P> {
+
+    // 1단계: 타일의 부분 통계 (타일 결과는 원소별로 더해서 합침)
+    // 통계는 입력 이미지로만 정해져야 함 (파라미터만 바뀐 경우 캐시된 통계를 재사용)
+    long[] collect(Mat tile, P params);
+
+    // 2단계: 이미지 전체 통계로 타일에 제자리 적용
+    void applyWithStatistics(Mat tile, P params, long[] statistics);
+}
@@ -0,0 +1,61 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.*;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+// 흑백 변환 후 강도 조절
+@Component
+@Order(10)
+public class GrayscaleFilter implements PointOperation<GrayscaleFilter.Params> {
+
+    public record Params(double intensity) {}
+
+    @Override
+    public String name() {
+        return "grayscale";
+    }
+
+    @Override
+    public Params defaultParams() {
+        return new Params(1.0);
+    }
+
+    @Override
+    public Params parseParams(Object value) {
+        return new Params(ImageFilter.parseDouble(value));
+    }
+
+    @Override
+    public void apply(Mat image, Params params) {
+        if (image.channels() == 1) {
+            // 이미 휘도 이미지
+            image.convertTo(image, -1, params.intensity(), 0);
+            return;
+        }
+        // 강도 조절은 1채널에서 한 뒤 확장 (세 채널이 같은 값이므로 결과 동일)
+        try (MatPool.Lease gray = MatPool.shared().lease(image.rows(), image.cols(), CV_8UC1)) {
+            cvtColor(image, gray.mat(), COLOR_BGR2GRAY);
+            gray.mat().convertTo(gray.mat(), -1, params.intensity(), 0);
+            cvtColor(gray.mat(), image, COLOR_GRAY2BGR);
+        }
+    }
+
+    @Override
+    public boolean producesLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public boolean acceptsLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public double[] colorMatrix(Params params) {
+        return PointOperation.luma(params.intensity(), 0);
+    }
+}
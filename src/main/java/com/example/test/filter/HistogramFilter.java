@@ -0,0 +1,135 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.*;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.Arrays;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+// 히스토그램 평활화
+@Component
+@Order(50)
+public class HistogramFilter implements GlobalOperation<HistogramFilter.Params> {
+
+    public record Params(double intensity) {}
+
+    @Override
+    public String name() {
+        return "histogram";
+    }
+
+    @Override
+    public Params defaultParams() {
+        return new Params(1.0);
+    }
+
+    @Override
+    public Params parseParams(Object value) {
+        return new Params(ImageFilter.parseDouble(value));
+    }
+
+    @Override
+    public void apply(Mat image, Params params) {
+        MatPool pool = MatPool.shared();
+        try (MatPool.Lease equalized = pool.lease(image.rows(), image.cols(), CV_8UC1)) {
+            if (image.channels() == 1) {
+                equalizeHist(image, equalized.mat());
+                equalized.mat().convertTo(image, -1, params.intensity(), 0);
+                return;
+            }
+            try (MatPool.Lease gray = pool.lease(image.rows(), image.cols(), CV_8UC1)) {
+                cvtColor(image, gray.mat(), COLOR_BGR2GRAY);
+                equalizeHist(gray.mat(), equalized.mat());
+            }
+            // 강도 조절은 1채널에서 한 뒤 확장
+            equalized.mat().convertTo(equalized.mat(), -1, params.intensity(), 0);
+            cvtColor(equalized.mat(), image, COLOR_GRAY2BGR);
+        }
+    }
+
+    @Override
+    public boolean producesLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public boolean acceptsLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public long[] collect(Mat tile, Params params) {
+        long[] histogram = new long[256];
+        if (tile.channels() == 1) {
+            count(tile, histogram);
+        } else {
+            try (MatPool.Lease gray = MatPool.shared().lease(tile.rows(), tile.cols(), CV_8UC1)) {
+                cvtColor(tile, gray.mat(), COLOR_BGR2GRAY);
+                count(gray.mat(), histogram);
+            }
+        }
+        return histogram;
+    }
+
+    // 1채널 Mat 의 픽셀 메모리를 행마다 직접 읽어 셈 (타일 ROI 는 행 사이가 떨어져 있으므로 행 단위)
+    private static void count(Mat gray, long[] histogram) {
+        long cols = gray.cols();
+        for (int row = 0; row < gray.rows(); row++) {
+            MemorySegment pixels = MemorySegment.ofAddress(gray.ptr(row).address()).reinterpret(cols);
+            for (long i = 0; i < cols; i++) {
+                histogram[pixels.get(ValueLayout.JAVA_BYTE, i) & 0xff]++;
+            }
+        }
+    }
+
+    @Override
+    public void applyWithStatistics(Mat tile, Params params, long[] histogram) {
+        MatPool pool = MatPool.shared();
+        try (MatPool.Lease lut = pool.lease(1, 256, CV_8UC1)) {
+            lut.mat().data().put(equalizationTable(histogram));
+            if (tile.channels() == 1) {
+                LUT(tile, lut.mat(), tile);
+                tile.convertTo(tile, -1, params.intensity(), 0);
+                return;
+            }
+            try (MatPool.Lease gray = pool.lease(tile.rows(), tile.cols(), CV_8UC1)) {
+                cvtColor(tile, gray.mat(), COLOR_BGR2GRAY);
+                LUT(gray.mat(), lut.mat(), gray.mat());
+                gray.mat().convertTo(gray.mat(), -1, params.intensity(), 0);
+                cvtColor(gray.mat(), tile, COLOR_GRAY2BGR);
+            }
+        }
+    }
+
+    // equalizeHist 와 같은 누적 분포 변환표 (float 배율과 반올림 방식까지 동일)
+    static byte[] equalizationTable(long[] histogram) {
+        byte[] lut = new byte[256];
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+
+        int first = 0;
+        while (first < 255 && histogram[first] == 0) {
+            first++;
+        }
+        if (histogram[first] == total) {
+            // 단색 이미지는 그 값 그대로
+            Arrays.fill(lut, (byte) first);
+            return lut;
+        }
+
+        float scale = 255.0f / (total - histogram[first]);
+        long sum = 0;
+        for (int value = first + 1; value < 256; value++) {
+            sum += histogram[value];
+            lut[value] = (byte) Math.min(255, Math.rint(sum * scale));
+        }
+        return lut;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.util.Map;
+
+// 필터 플러그인 SPI
+// Spring 빈(@Component) 또는 META-INF/services 를 통한 ServiceLoader 로 등록하면
+// 컨트롤러 수정 없이 업데이트/다운로드/렌더링 경로에서 모두 사용됨
+// P 는 필터 파라미터 레코드 (원시 타입 필드로 구성해 렌더링 중 박싱이 없도록 함)
+public interface ImageFilter<P> {
+
+    // 타일로 나누지 않고 전체 이미지에 한 번에 적용해야 하는 필터의 halo 반경
+    int WHOLE_IMAGE = -1;
+
+    // 요청 JSON 과 FilterState 에서 사용하는 필터 이름
+    String name();
+
+    // 값이 지정되지 않았을 때의 파라미터
+    P defaultParams();
+
+    // updateFilters 요청의 "value" 필드를 파라미터로 변환
+    P parseParams(Object value);
+
+    // 이미지에 제자리(in-place) 적용
+    void apply(Mat image, P params);
+
+    // 축소된 미리보기(scale < 1)에서도 원본과 비슷하게 보이도록 파라미터 조정
+    // 커널 크기처럼 픽셀 단위인 값만 조정하면 됨
+    default P scaleForPreview(P params, double scale) {
+        return params;
+    }
+
+    // 타일 실행 시 타일 경계 밖에서 함께 읽어야 하는 픽셀 반경 (커널 반지름)
+    // 알 수 없는 플러그인 필터는 안전하게 전체 이미지에 적용
+    default int haloRadius(P params) {
+        return WHOLE_IMAGE;
+    }
+
+    // 영역(ROI) 렌더에서 요청 영역 밖에서 함께 처리할 픽셀 반경
+    // 확대된 뷰포트 표시용이라 전체 렌더와 드물게 다른 픽셀이 생기는 근사를 허용할 수 있는 필터만 재정의
+    default int regionHaloRadius(P params) {
+        return haloRadius(params);
+    }
+
+    // 휘도 공유: 결과가 입력의 휘도에만 의존하고 세 채널이 같은 값인 필터 (흑백, 엣지 등)
+    // 렌더 중에는 이 단계 앞에서 한 번만 1채널 휘도로 바꾸고, BGR 확장은 색이 필요할 때까지 미룸
+    default boolean producesLuma(P params) {
+        return false;
+    }
+
+    // 1채널 휘도 이미지에 적용하면 세 채널이 같은 BGR 에 적용한 결과의 한 채널과 같은 필터
+    // (채널별로 같은 연산을 하는 필터, apply 가 1채널 입력을 처리할 수 있어야 함)
+    default boolean acceptsLuma(P params) {
+        return false;
+    }
+
+    // 세션 저장용 압축 인코딩 (파라미터 <-> 숫자 벡터)
+    // 숫자/boolean 필드만 가진 record 는 기본 구현으로 충분하고, 그 외 파라미터는 재정의해야 함
+    default double[] toVector(P params) {
+        return ParamVectors.toVector(params);
+    }
+
+    default P fromVector(double[] vector) {
+        return ParamVectors.fromVector(defaultParams(), vector);
+    }
+
+    static double parseDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : Double.parseDouble(value.toString());
+    }
+
+    static int parseInt(Object value) {
+        return value instanceof Number number ? number.intValue() : Integer.parseInt(value.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> parseObject(Object value) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("객체 형식의 값이 필요합니다: " + value);
+        }
+        return (Map<String, Object>) value;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.*;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+// 색상 반전 (강도만큼 원본과 블렌딩)
+@Component
+@Order(100)
+public class InvertFilter implements PointOperation<InvertFilter.Params> {
+
+    public record Params(double intensity) {}
+
+    // OpenCV 경로: bitwise_not + addWeighted (임시 Mat 사용)
+    private static final PointBackend.OpenCvCost OPENCV_COST = new PointBackend.OpenCvCost(2, 3);
+
+    @Override
+    public String name() {
+        return "invert";
+    }
+
+    @Override
+    public Params defaultParams() {
+        return new Params(1.0);
+    }
+
+    @Override
+    public Params parseParams(Object value) {
+        return new Params(ImageFilter.parseDouble(value));
+    }
+
+    @Override
+    public void apply(Mat image, Params params) {
+        if (PointBackend.tryApply(image, this, params, OPENCV_COST)) {
+            return;
+        }
+        try (MatPool.Lease inverted = MatPool.shared().leaseLike(image)) {
+            bitwise_not(image, inverted.mat());
+
+            addWeighted(image, 1.0 - params.intensity(), inverted.mat(), params.intensity(), 0.0, image);
+        }
+    }
+
+    @Override
+    public boolean acceptsLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public double[] colorMatrix(Params params) {
+        // (1 - i) * v + i * (255 - v)
+        return PointOperation.diagonal(1.0 - 2.0 * params.intensity(), 255.0 * params.intensity());
+    }
+}
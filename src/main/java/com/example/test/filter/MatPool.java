@@ -0,0 +1,187 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 필터 내부 임시 Mat 의 크기/타입별 재사용 풀
+// 필터는 임시 Mat 을 try-with-resources 로 빌려 쓰고, 닫을 때 풀로 돌려줌
+// (같은 크기의 다음 단계/다음 렌더가 네이티브 할당 없이 재사용, 타일 작업 스레드에서도 사용 가능)
+//
+//   try (MatPool.Lease gray = MatPool.shared().lease(image.rows(), image.cols(), CV_8UC1)) {
+//       cvtColor(image, gray.mat(), COLOR_BGR2GRAY);
+//   }
+//
+// 누수 추적(-Dimage.mat-pool.track-leaks=true 또는 setLeakTracking)을 켜면
+// 반환되지 않은 lease 를 빌린 위치와 함께 보고함 (테스트용)
+public final class MatPool {
+
+    // 풀에 보관하는 유휴 Mat 의 총량과 크기/타입별 개수 상한
+    private static final long DEFAULT_MAX_IDLE_BYTES = 256L * 1024 * 1024;
+    private static final int DEFAULT_MAX_IDLE_PER_KEY = 8;
+
+    private static final MatPool SHARED = new MatPool(DEFAULT_MAX_IDLE_BYTES, DEFAULT_MAX_IDLE_PER_KEY);
+
+    private record Key(int rows, int cols, int type) {}
+
+    // 빌린 임시 Mat (close 하면 풀로 반환, 중복 close 는 무시)
+    public final class Lease implements AutoCloseable {
+        private final Key key;
+        private final Mat mat;
+        private final Throwable origin;
+        private boolean closed;
+
+        private Lease(Key key, Mat mat, Throwable origin) {
+            this.key = key;
+            this.mat = mat;
+            this.origin = origin;
+        }
+
+        public Mat mat() {
+            if (closed) {
+                throw new IllegalStateException("이미 반환된 Mat 입니다");
+            }
+            return mat;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            giveBack(this);
+        }
+    }
+
+    private final long maxIdleBytes;
+    private final int maxIdlePerKey;
+    private final Map<Key, ConcurrentLinkedDeque<Mat>> idle = new ConcurrentHashMap<>();
+    private final AtomicLong idleBytes = new AtomicLong();
+
+    private volatile boolean leakTracking = Boolean.getBoolean("image.mat-pool.track-leaks");
+    private final Map<Lease, Throwable> tracked = new ConcurrentHashMap<>();
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong allocations = new AtomicLong();
+
+    public MatPool(long maxIdleBytes, int maxIdlePerKey) {
+        this.maxIdleBytes = maxIdleBytes;
+        this.maxIdlePerKey = maxIdlePerKey;
+    }
+
+    // 모든 필터가 공유하는 풀
+    public static MatPool shared() {
+        return SHARED;
+    }
+
+    public Lease lease(int rows, int cols, int type) {
+        Key key = new Key(rows, cols, type);
+        leases.incrementAndGet();
+
+        Mat mat = null;
+        ConcurrentLinkedDeque<Mat> queue = idle.get(key);
+        if (queue != null) {
+            mat = queue.pollFirst();
+        }
+        if (mat != null) {
+            idleBytes.addAndGet(-sizeOf(mat));
+        } else {
+            allocations.incrementAndGet();
+            mat = new Mat(rows, cols, type);
+        }
+
+        Lease lease = new Lease(key, mat, leakTracking ? new Throwable("Mat lease") : null);
+        outstanding.incrementAndGet();
+        if (lease.origin != null) {
+            tracked.put(lease, lease.origin);
+        }
+        return lease;
+    }
+
+    // image 와 같은 크기/타입
+    public Lease leaseLike(Mat image) {
+        return lease(image.rows(), image.cols(), image.type());
+    }
+
+    private void giveBack(Lease lease) {
+        outstanding.decrementAndGet();
+        if (lease.origin != null) {
+            tracked.remove(lease);
+        }
+
+        // OpenCV 가 출력 크기/타입을 바꿔 재할당했으면 같은 키로 재사용할 수 없음
+        Mat mat = lease.mat;
+        Key key = lease.key;
+        boolean reusable = mat.rows() == key.rows() && mat.cols() == key.cols() && mat.type() == key.type();
+        if (reusable) {
+            ConcurrentLinkedDeque<Mat> queue = idle.computeIfAbsent(key, k -> new ConcurrentLinkedDeque<>());
+            if (queue.size() < maxIdlePerKey) {
+                long size = sizeOf(mat);
+                if (idleBytes.addAndGet(size) <= maxIdleBytes) {
+                    queue.offerFirst(mat);
+                    return;
+                }
+                idleBytes.addAndGet(-size);
+            }
+        }
+        mat.release();
+    }
+
+    private static long sizeOf(Mat mat) {
+        return mat.total() * mat.elemSize();
+    }
+
+    // 유휴 Mat 을 모두 해제 (빌려 간 Mat 은 반환될 때 다시 풀에 들어감)
+    public void clear() {
+        for (ConcurrentLinkedDeque<Mat> queue : idle.values()) {
+            Mat mat;
+            while ((mat = queue.pollFirst()) != null) {
+                idleBytes.addAndGet(-sizeOf(mat));
+                mat.release();
+            }
+        }
+    }
+
+    public void setLeakTracking(boolean leakTracking) {
+        this.leakTracking = leakTracking;
+    }
+
+    // 반환되지 않은 lease 가 있으면 빌린 위치를 담아 실패 (누수 추적이 켜진 뒤 빌린 것만 위치 확인 가능)
+    public void assertNoLeaks() {
+        int count = outstanding.get();
+        if (count == 0) {
+            return;
+        }
+        IllegalStateException leak = new IllegalStateException("반환되지 않은 Mat lease " + count + "개");
+        List<Throwable> origins = new ArrayList<>(tracked.values());
+        for (Throwable origin : origins) {
+            leak.addSuppressed(origin);
+        }
+        throw leak;
+    }
+
+    public int getOutstandingCount() {
+        return outstanding.get();
+    }
+
+    public long getLeaseCount() {
+        return leases.get();
+    }
+
+    // 풀에 없어서 새로 할당한 횟수
+    public long getAllocationCount() {
+        return allocations.get();
+    }
+
+    public long getIdleBytes() {
+        return idleBytes.get();
+    }
+}
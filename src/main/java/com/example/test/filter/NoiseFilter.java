@@ -0,0 +1,53 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.*;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// 노이즈 효과
+@Component
+@Order(90)
+public class NoiseFilter implements PointOperation<NoiseFilter.Params> {
+
+    public record Params(int amount) {}
+
+    // OpenCV 경로: convertTo 두 번
+    private static final PointBackend.OpenCvCost OPENCV_COST = new PointBackend.OpenCvCost(2, 2);
+
+    @Override
+    public String name() {
+        return "noise";
+    }
+
+    @Override
+    public Params defaultParams() {
+        return new Params(10);
+    }
+
+    @Override
+    public Params parseParams(Object value) {
+        return new Params(ImageFilter.parseInt(value));
+    }
+
+    @Override
+    public void apply(Mat image, Params params) {
+        if (PointBackend.tryApply(image, this, params, OPENCV_COST)) {
+            return;
+        }
+        // 간단한 노이즈 효과: 밝기 조정으로 시뮬레이션
+        image.convertTo(image, -1, 1.0, params.amount());
+
+        // 값 범위 제한
+        image.convertTo(image, -1, 1.0, 0);
+    }
+
+    @Override
+    public boolean acceptsLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public double[] colorMatrix(Params params) {
+        return PointOperation.diagonal(1.0, params.amount());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.test.filter;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+
+// 숫자 필드로 된 파라미터 record <-> double 벡터 (ImageFilter.toVector/fromVector 기본 구현)
+final class ParamVectors {
+
+    private ParamVectors() {
+    }
+
+    static double[] toVector(Object params) {
+        RecordComponent[] components = components(params.getClass());
+        double[] vector = new double[components.length];
+        try {
+            for (int i = 0; i < components.length; i++) {
+                Object value = components[i].getAccessor().invoke(params);
+                vector[i] = value instanceof Boolean flag ? (flag ? 1 : 0) : ((Number) value).doubleValue();
+            }
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("숫자 필드만 인코딩할 수 있습니다: " + params.getClass().getName(), e);
+        }
+        return vector;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <P> P fromVector(P defaults, double[] vector) {
+        Class<?> type = defaults.getClass();
+        RecordComponent[] components = components(type);
+        if (components.length != vector.length) {
+            throw new IllegalArgumentException("파라미터 개수가 다릅니다: " + type.getName());
+        }
+
+        Class<?>[] types = new Class<?>[components.length];
+        Object[] values = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+            values[i] = convert(types[i], vector[i]);
+        }
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor(types);
+            constructor.setAccessible(true);
+            return (P) constructor.newInstance(values);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("파라미터를 만들 수 없습니다: " + type.getName(), e);
+        }
+    }
+
+    private static RecordComponent[] components(Class<?> type) {
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException("record 파라미터만 기본 인코딩을 지원합니다: " + type.getName());
+        }
+        return type.getRecordComponents();
+    }
+
+    private static Object convert(Class<?> type, double value) {
+        if (type == int.class || type == Integer.class) {
+            return (int) value;
+        } else if (type == long.class || type == Long.class) {
+            return (long) value;
+        } else if (type == float.class || type == Float.class) {
+            return (float) value;
+        } else if (type == boolean.class || type == Boolean.class) {
+            return value != 0;
+        } else if (type == double.class || type == Double.class) {
+            return value;
+        }
+        throw new IllegalArgumentException("지원하지 않는 파라미터 타입: " + type.getName());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.test.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 실행 계획 최적화
+final class PlanOptimizer {
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private PlanOptimizer() {
+    }
+
+    // 인접한 점 연산 단계(2개 이상)를 하나의 LUT/색 변환 단계로 합침
+    static List<FilterPlan.Stage<?>> fusePointOperations(List<FilterPlan.Stage<?>> stages) {
+        List<FilterPlan.Stage<?>> optimized = new ArrayList<>(stages.size());
+        List<FilterPlan.Stage<?>> run = new ArrayList<>();
+        for (FilterPlan.Stage<?> stage : stages) {
+            if (stage.getFilter() instanceof PointOperation) {
+                run.add(stage);
+                continue;
+            }
+            flushRun(run, optimized);
+            optimized.add(stage);
+        }
+        flushRun(run, optimized);
+        return optimized;
+    }
+
+    // 채널 간 연산이 섞인 묶음은 합성 행렬 하나로 적용되어 단계 사이의 포화가 사라지므로,
+    // 이어 붙일 단계 앞까지의 합성 결과가 모든 입력에서 [0, 255] 안에 있을 때만 합치고 아니면 그 단계에서 나눔
+    // (채널별 연산만 있는 묶음은 LUT 가 단계마다 포화하므로 항상 합칠 수 있음)
+    private static void flushRun(List<FilterPlan.Stage<?>> run, List<FilterPlan.Stage<?>> optimized) {
+        List<FilterPlan.Stage<?>> group = new ArrayList<>();
+        boolean perChannel = true;
+        boolean inRange = true;
+        double[] composed = PointOperation.diagonal(1.0, 0.0);
+        for (FilterPlan.Stage<?> stage : run) {
+            double[] matrix = FusedPointFilter.colorMatrix(stage);
+            boolean diagonal = FusedPointFilter.isDiagonal(matrix);
+            if (!group.isEmpty() && !(perChannel && diagonal) && !inRange) {
+                addGroup(group, optimized);
+                perChannel = true;
+                inRange = true;
+                composed = PointOperation.diagonal(1.0, 0.0);
+            }
+            group.add(stage);
+            perChannel &= diagonal;
+            composed = FusedPointFilter.compose(composed, matrix);
+            inRange &= FusedPointFilter.staysInRange(composed);
+        }
+        addGroup(group, optimized);
+        run.clear();
+    }
+
+    private static void addGroup(List<FilterPlan.Stage<?>> group, List<FilterPlan.Stage<?>> optimized) {
+        if (group.size() >= 2) {
+            long hash = 0;
+            for (FilterPlan.Stage<?> stage : group) {
+                hash = (hash ^ stage.getHash()) * FNV_PRIME;
+            }
+            optimized.add(new FilterPlan.Stage<>(FusedPointFilter.INSTANCE, FusedPointFilter.fuse(group), hash));
+        } else {
+            optimized.addAll(group);
+        }
+        group.clear();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.foreign.MemorySegment;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8U;
+
+// 점 연산 실행 백엔드 선택 (OpenCV 또는 Vector API)
+// OpenCV 경로는 호출마다 JNI 진입, Mat/InputArray 래퍼 생성, 임시 Mat 대여 같은 고정 비용이 들고
+// Vector 경로(VectorPointKernels)는 Mat 의 픽셀 메모리에 직접 적용하므로 고정 비용은 작지만 바이트당 비용이 큼
+// 필터마다 OpenCV 경로의 호출 수/메모리 패스 수로 두 비용을 추정해 작은 쪽을 선택 (작은 이미지와 타일은 Vector)
+//
+// 모드: -Dimage.point-kernels=auto|opencv|vector (기본 auto, vector 는 지원하는 이미지면 항상 Vector)
+// Vector 경로는 --add-modules jdk.incubator.vector 로 실행하고 CPU 가 256비트 이상 SIMD 를 지원할 때만 사용하며,
+// 그 외에는 항상 OpenCV 로 처리
+// 비용 계수는 PointBackendBenchmark 결과로 구한 point-kernels.properties (클래스패스, ./gradlew calibratePointKernels) 값을 쓰고,
+// 파일이 없으면 아래 기본값, -Dimage.point-kernels.opencv-call-nanos 등 시스템 속성이 있으면 그 값이 우선
+public final class PointBackend {
+
+    public enum Mode { AUTO, OPENCV, VECTOR }
+
+    // 필터의 OpenCV 경로 비용: 네이티브 호출 수, 이미지 전체를 읽고 쓰는 횟수
+    public record OpenCvCost(int calls, int passes) {}
+
+    private static final boolean VECTOR_AVAILABLE = detectVector();
+
+    private static final Properties CALIBRATION = loadCalibration();
+
+    private static final double OPENCV_CALL_NANOS = coefficient("opencv-call-nanos", 2000);
+    private static final double OPENCV_PASS_BYTE_NANOS = coefficient("opencv-pass-byte-nanos", 0.15);
+    private static final double VECTOR_CALL_NANOS = coefficient("vector-call-nanos", 400);
+    private static final double VECTOR_STAGE_BYTE_NANOS = coefficient("vector-stage-byte-nanos", 0.25);
+    private static final double VECTOR_TRANSFORM_BYTE_NANOS = coefficient("vector-transform-byte-nanos", 0.8);
+
+    private static volatile Mode mode = Mode.valueOf(
+            System.getProperty("image.point-kernels", "auto").toUpperCase(Locale.ROOT));
+
+    private static final AtomicLong vectorApplications = new AtomicLong();
+    private static final AtomicLong opencvApplications = new AtomicLong();
+
+    private PointBackend() {
+    }
+
+    // kernel 을 Vector 경로로 적용했으면 true (false 면 호출자가 OpenCV 경로로 처리)
+    static boolean tryApply(Mat image, PointKernel kernel, OpenCvCost cost) {
+        if (kernel == null || !supports(image, kernel.acceptsLuma())) {
+            opencvApplications.incrementAndGet();
+            return false;
+        }
+        boolean luma = image.channels() == 1;
+        int stages = luma ? kernel.lumaScales.length : kernel.stageCount();
+        if (!prefersVector(bytes(image), stages, !luma && kernel.isCrossChannel(), cost)) {
+            opencvApplications.incrementAndGet();
+            return false;
+        }
+        apply(image, kernel);
+        vectorApplications.incrementAndGet();
+        return true;
+    }
+
+    // 점 연산 필터 하나를 Vector 경로로 적용했으면 true (계수는 선택된 경우에만 만듦)
+    static <P> boolean tryApply(Mat image, PointOperation<P> filter, P params, OpenCvCost cost) {
+        if (!supports(image, filter.acceptsLuma(params))) {
+            opencvApplications.incrementAndGet();
+            return false;
+        }
+        double[] matrix = filter.colorMatrix(params);
+        boolean crossChannel = image.channels() == 3 && !FusedPointFilter.isDiagonal(matrix);
+        if (!prefersVector(bytes(image), 1, crossChannel, cost)) {
+            opencvApplications.incrementAndGet();
+            return false;
+        }
+        apply(image, PointKernel.of(new double[][]{matrix}, crossChannel ? matrix : null, filter.acceptsLuma(params)));
+        vectorApplications.incrementAndGet();
+        return true;
+    }
+
+    private static boolean supports(Mat image, boolean acceptsLuma) {
+        if (!VECTOR_AVAILABLE || mode == Mode.OPENCV || image.depth() != CV_8U) {
+            return false;
+        }
+        return image.channels() == 3 || (image.channels() == 1 && acceptsLuma);
+    }
+
+    private static boolean prefersVector(long bytes, int stages, boolean crossChannel, OpenCvCost cost) {
+        return mode == Mode.VECTOR || vectorNanos(bytes, stages, crossChannel) < opencvNanos(bytes, cost);
+    }
+
+    // 비용 모델: OpenCV 경로 추정 시간 (ns)
+    public static double opencvNanos(long bytes, OpenCvCost cost) {
+        return cost.calls() * OPENCV_CALL_NANOS + bytes * cost.passes() * OPENCV_PASS_BYTE_NANOS;
+    }
+
+    // 비용 모델: Vector 경로 추정 시간 (ns), 채널별 연산은 단계 수에 비례
+    public static double vectorNanos(long bytes, int stages, boolean crossChannel) {
+        double perByte = crossChannel ? VECTOR_TRANSFORM_BYTE_NANOS : stages * VECTOR_STAGE_BYTE_NANOS;
+        return VECTOR_CALL_NANOS + bytes * perByte;
+    }
+
+    // 연속 Mat 은 한 번에, 타일 같은 ROI 는 행마다 적용
+    private static void apply(Mat image, PointKernel kernel) {
+        long rowBytes = (long) image.cols() * image.channels();
+        if (image.isContinuous()) {
+            applySegment(MemorySegment.ofAddress(image.data().address()).reinterpret(rowBytes * image.rows()), image.channels(), kernel);
+            return;
+        }
+        for (int row = 0; row < image.rows(); row++) {
+            applySegment(MemorySegment.ofAddress(image.ptr(row).address()).reinterpret(rowBytes), image.channels(), kernel);
+        }
+    }
+
+    private static void applySegment(MemorySegment pixels, int channels, PointKernel kernel) {
+        if (channels == 1) {
+            VectorPointKernels.affine(pixels, 1, kernel.lumaScales, kernel.lumaOffsets);
+        } else if (kernel.matrix != null) {
+            VectorPointKernels.transform(pixels, kernel.matrix);
+        } else {
+            VectorPointKernels.affine(pixels, 3, kernel.scales, kernel.offsets);
+        }
+    }
+
+    private static long bytes(Mat image) {
+        return image.total() * image.channels();
+    }
+
+    private static boolean detectVector() {
+        // 모듈을 추가하지 않고 실행하면 Vector 클래스를 로드할 수 없으므로 먼저 확인
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorPointKernels.isSupported();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    private static Properties loadCalibration() {
+        Properties properties = new Properties();
+        try (InputStream in = PointBackend.class.getResourceAsStream("/point-kernels.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("point-kernels.properties 를 읽을 수 없습니다", e);
+        }
+        return properties;
+    }
+
+    private static double coefficient(String name, double defaultValue) {
+        String key = "image.point-kernels." + name;
+        return Double.parseDouble(System.getProperty(key, CALIBRATION.getProperty(key, String.valueOf(defaultValue))));
+    }
+
+    public static boolean isVectorAvailable() {
+        return VECTOR_AVAILABLE;
+    }
+
+    // 벤치마크/테스트에서 백엔드를 고정할 때 사용
+    public static Mode getMode() {
+        return mode;
+    }
+
+    public static void setMode(Mode newMode) {
+        mode = newMode;
+    }
+
+    public static long getVectorApplicationCount() {
+        return vectorApplications.get();
+    }
+
+    public static long getOpenCvApplicationCount() {
+        return opencvApplications.get();
+    }
+}
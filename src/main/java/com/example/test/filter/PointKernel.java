@@ -0,0 +1,74 @@
+package com.example.test.filter;
+
+// 점 연산 단계들의 Vector 백엔드 계수 (OpenCV 경로의 LUT/색 변환 행렬과 같은 계산)
+// 채널별 연산만 있으면 단계마다 반올림/포화하는 a*v+b 목록, 채널 간 연산이 섞이면 합성한 3x4 행렬 하나
+// 계획을 만들 때 한 번 만들어 모든 렌더/타일이 읽기 전용으로 공유
+public final class PointKernel {
+
+    // [단계][B,G,R] (matrix 가 있으면 null)
+    final float[][] scales;
+    final float[][] offsets;
+    // 행 우선 3x4 (채널별 연산만 있으면 null)
+    final float[] matrix;
+    // [단계][1] 1채널 휘도에 적용할 때의 계수 (휘도에 그대로 적용할 수 없는 단계가 있으면 null)
+    final float[][] lumaScales;
+    final float[][] lumaOffsets;
+
+    private PointKernel(float[][] scales, float[][] offsets, float[] matrix, float[][] lumaScales, float[][] lumaOffsets) {
+        this.scales = scales;
+        this.offsets = offsets;
+        this.matrix = matrix;
+        this.lumaScales = lumaScales;
+        this.lumaOffsets = lumaOffsets;
+    }
+
+    // matrices 는 단계별 colorMatrix, composed 는 채널 간 연산이 섞였을 때의 합성 행렬 (아니면 null)
+    static PointKernel of(double[][] matrices, double[] composed, boolean acceptsLuma) {
+        float[][] scales = null;
+        float[][] offsets = null;
+        float[] matrix = null;
+        if (composed != null) {
+            matrix = new float[12];
+            for (int i = 0; i < 12; i++) {
+                matrix[i] = (float) composed[i];
+            }
+        } else {
+            scales = new float[matrices.length][3];
+            offsets = new float[matrices.length][3];
+            for (int stage = 0; stage < matrices.length; stage++) {
+                for (int channel = 0; channel < 3; channel++) {
+                    scales[stage][channel] = (float) matrices[stage][channel * 4 + channel];
+                    offsets[stage][channel] = (float) matrices[stage][channel * 4 + 3];
+                }
+            }
+        }
+
+        float[][] lumaScales = null;
+        float[][] lumaOffsets = null;
+        if (acceptsLuma) {
+            // 세 채널이 같은 입력이면 한 행의 채널 계수 합 * v + 오프셋 (FusedPointFilter 의 휘도 LUT 와 같음)
+            lumaScales = new float[matrices.length][1];
+            lumaOffsets = new float[matrices.length][1];
+            for (int stage = 0; stage < matrices.length; stage++) {
+                double[] m = matrices[stage];
+                lumaScales[stage][0] = (float) (m[0] + m[1] + m[2]);
+                lumaOffsets[stage][0] = (float) m[3];
+            }
+        }
+        return new PointKernel(scales, offsets, matrix, lumaScales, lumaOffsets);
+    }
+
+    // 채널 간 연산이 섞여 있는지 (3채널에서 색 변환 커널 사용)
+    public boolean isCrossChannel() {
+        return matrix != null;
+    }
+
+    // 픽셀 값마다 계산하는 a*v+b 단계 수 (색 변환이면 1)
+    public int stageCount() {
+        return matrix != null ? 1 : scales.length;
+    }
+
+    public boolean acceptsLuma() {
+        return lumaScales != null;
+    }
+}
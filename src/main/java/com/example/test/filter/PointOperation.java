@@ -0,0 +1,40 @@
+package com.example.test.filter;
+
+// 픽셀 단위(point) 연산 필터
+// BGR 각 채널에 대한 3x4 아핀 변환으로 표현할 수 있어서, 인접한 점 연산들은
+// 실행 계획에서 하나의 LUT 또는 색 변환 행렬로 합쳐 한 번의 메모리 패스로 처리됨
+public interface PointOperation<P> extends ImageFilter<P> {
+
+    // BGR 휘도 계수 (COLOR_BGR2GRAY 와 동일)
+    double[] LUMA = {0.114, 0.587, 0.299};
+
+    // 행 우선 3x4 행렬 (출력 B,G,R 행마다 [B 계수, G 계수, R 계수, 오프셋])
+    double[] colorMatrix(P params);
+
+    // 주변 픽셀을 읽지 않으므로 타일에 그대로 적용 가능
+    @Override
+    default int haloRadius(P params) {
+        return 0;
+    }
+
+    // 채널마다 a*v + b 형태의 대각 행렬
+    static double[] diagonal(double scale, double offset) {
+        return new double[]{
+            scale, 0, 0, offset,
+            0, scale, 0, offset,
+            0, 0, scale, offset
+        };
+    }
+
+    // 휘도를 세 채널에 복사한 뒤 a*v + b
+    static double[] luma(double scale, double offset) {
+        double[] matrix = new double[12];
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                matrix[row * 4 + col] = LUMA[col] * scale;
+            }
+            matrix[row * 4 + 3] = offset;
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+// 렌더 중인 작업 이미지의 성질을 단계마다 추적해 흑백 변환을 공유
+// - 휘도를 만드는 단계(흑백/세피아/엣지/히스토그램) 앞에서 BGR -> 휘도 변환을 한 번만 하고
+//   이후 휘도에 그대로 적용되는 단계는 1채널에서 실행 (필터마다 흑백 변환/확장을 반복하지 않음)
+// - 작업 이미지가 1채널이면 그 자체가 유효한 휘도 평면 (변경하는 단계도 휘도를 유지하는 단계뿐)
+// - 색이 필요한 단계 앞이나 렌더 마지막에만 BGR 로 한 번 확장
+// 중간 결과 캐시에 1채널로 저장된 이미지에서 이어서 렌더해도 같은 규칙으로 처리됨
+//
+//   RenderContext context = new RenderContext(image, plan.sharesLuma());
+//   for (FilterPlan.Stage<?> stage : plan.getStages()) {
+//       context.prepare(stage);
+//       stage.apply(image);
+//   }
+//   context.finish();
+public final class RenderContext {
+
+    private final Mat image;
+    private final boolean shareLuma;
+
+    private int lumaConversions;
+    private int expansions;
+
+    public RenderContext(Mat image, boolean shareLuma) {
+        this.image = image;
+        this.shareLuma = shareLuma;
+    }
+
+    // 작업 이미지가 1채널 휘도인지
+    public boolean isLuma() {
+        return image.channels() == 1;
+    }
+
+    // 단계를 실행하기 전에 작업 이미지를 단계에 맞는 형태로 바꿈
+    public <P> void prepare(FilterPlan.Stage<P> stage) {
+        ImageFilter<P> filter = stage.getFilter();
+        P params = stage.getParams();
+        if (isLuma()) {
+            if (!filter.acceptsLuma(params)) {
+                expand();
+            }
+        } else if (shareLuma && image.channels() == 3 && filter.producesLuma(params)) {
+            // 알파 채널이 있는 이미지는 마지막에 되돌릴 수 없으므로 변환하지 않음
+            cvtColor(image, image, COLOR_BGR2GRAY);
+            lumaConversions++;
+        }
+    }
+
+    // 모든 단계를 실행한 뒤 인코딩 전에 호출 (휘도면 BGR 로 확장)
+    public void finish() {
+        if (isLuma()) {
+            expand();
+        }
+    }
+
+    private void expand() {
+        cvtColor(image, image, COLOR_GRAY2BGR);
+        expansions++;
+    }
+
+    // 이번 렌더에서 한 BGR -> 휘도 변환 횟수
+    public int getLumaConversions() {
+        return lumaConversions;
+    }
+
+    // 이번 렌더에서 한 휘도 -> BGR 확장 횟수
+    public int getExpansions() {
+        return expansions;
+    }
+}
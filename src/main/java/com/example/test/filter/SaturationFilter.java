@@ -0,0 +1,69 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.*;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+// 채도 조절
+@Component
+@Order(80)
+public class SaturationFilter implements PointOperation<SaturationFilter.Params> {
+
+    public record Params(double intensity) {}
+
+    // OpenCV 경로: 흑백 변환 + BGR 확장 + addWeighted (임시 Mat 2개 사용)
+    private static final PointBackend.OpenCvCost OPENCV_COST = new PointBackend.OpenCvCost(3, 4);
+
+    @Override
+    public String name() {
+        return "saturation";
+    }
+
+    @Override
+    public Params defaultParams() {
+        return new Params(1.0);
+    }
+
+    @Override
+    public Params parseParams(Object value) {
+        return new Params(ImageFilter.parseDouble(value));
+    }
+
+    @Override
+    public void apply(Mat image, Params params) {
+        if (image.channels() == 1) {
+            // 휘도 이미지는 원본과 흑백이 같으므로 변화 없음
+            return;
+        }
+        if (PointBackend.tryApply(image, this, params, OPENCV_COST)) {
+            return;
+        }
+        // 간단한 채도 조정: 그레이스케일 변환 후 원본과 블렌딩
+        MatPool pool = MatPool.shared();
+        try (MatPool.Lease gray = pool.lease(image.rows(), image.cols(), CV_8UC1);
+             MatPool.Lease grayColor = pool.leaseLike(image)) {
+            cvtColor(image, gray.mat(), COLOR_BGR2GRAY);
+            cvtColor(gray.mat(), grayColor.mat(), COLOR_GRAY2BGR);
+
+            addWeighted(image, params.intensity(), grayColor.mat(), 1.0 - params.intensity(), 0.0, image);
+        }
+    }
+
+    @Override
+    public boolean acceptsLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public double[] colorMatrix(Params params) {
+        // s * 원본 + (1 - s) * 휘도
+        double[] matrix = PointOperation.luma(1.0 - params.intensity(), 0);
+        for (int channel = 0; channel < 3; channel++) {
+            matrix[channel * 4 + channel] += params.intensity();
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.*;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+// 세피아 톤
+@Component
+@Order(60)
+public class SepiaFilter implements PointOperation<SepiaFilter.Params> {
+
+    public record Params(double intensity) {}
+
+    @Override
+    public String name() {
+        return "sepia";
+    }
+
+    @Override
+    public Params defaultParams() {
+        return new Params(1.0);
+    }
+
+    @Override
+    public Params parseParams(Object value) {
+        return new Params(ImageFilter.parseDouble(value));
+    }
+
+    @Override
+    public void apply(Mat image, Params params) {
+        if (image.channels() == 1) {
+            image.convertTo(image, -1, params.intensity(), 30);
+            return;
+        }
+        try (MatPool.Lease gray = MatPool.shared().lease(image.rows(), image.cols(), CV_8UC1)) {
+            cvtColor(image, gray.mat(), COLOR_BGR2GRAY);
+            gray.mat().convertTo(gray.mat(), -1, params.intensity(), 30);
+            cvtColor(gray.mat(), image, COLOR_GRAY2BGR);
+        }
+    }
+
+    @Override
+    public boolean producesLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public boolean acceptsLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public double[] colorMatrix(Params params) {
+        return PointOperation.luma(params.intensity(), 30);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.test.filter;
+
+import org.bytedeco.javacpp.indexer.FloatIndexer;
+import org.bytedeco.opencv.opencv_core.*;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.bytedeco.opencv.global.opencv_imgproc.*;
+
+// 선명도 (3x3 샤프닝 커널과 원본을 강도만큼 블렌딩)
+@Component
+@Order(70)
+public class SharpenFilter implements ImageFilter<SharpenFilter.Params> {
+
+    // 읽기 전용으로 모든 호출이 공유 (한 번만 생성)
+    private static final Mat KERNEL = kernel(new float[][]{
+        {0.0f, -1.0f, 0.0f},
+        {-1.0f, 5.0f, -1.0f},
+        {0.0f, -1.0f, 0.0f}
+    });
+
+    public record Params(double intensity) {}
+
+    @Override
+    public String name() {
+        return "sharpen";
+    }
+
+    @Override
+    public Params defaultParams() {
+        return new Params(1.0);
+    }
+
+    @Override
+    public Params parseParams(Object value) {
+        return new Params(ImageFilter.parseDouble(value));
+    }
+
+    @Override
+    public void apply(Mat image, Params params) {
+        try (MatPool.Lease sharpened = MatPool.shared().leaseLike(image)) {
+            filter2D(image, sharpened.mat(), -1, KERNEL);
+            addWeighted(image, 1.0 - params.intensity(), sharpened.mat(), params.intensity(), 0.0, image);
+        }
+    }
+
+    // 각 원소를 위치 지정으로 기록 (ptr(row).putFloat 은 행 첫 원소만 반복해서 덮어씀)
+    private static Mat kernel(float[][] values) {
+        Mat kernel = new Mat(values.length, values[0].length, CV_32F);
+        FloatIndexer indexer = kernel.createIndexer();
+        for (int row = 0; row < values.length; row++) {
+            for (int col = 0; col < values[row].length; col++) {
+                indexer.put(row, col, values[row][col]);
+            }
+        }
+        indexer.release();
+        return kernel;
+    }
+
+    @Override
+    public boolean acceptsLuma(Params params) {
+        return true;
+    }
+
+    @Override
+    public Params scaleForPreview(Params params, double scale) {
+        // 3x3 커널은 축소 이미지에서 원본의 더 넓은 영역을 덮으므로 강도를 배율만큼 낮춤
+        return new Params(params.intensity() * scale);
+    }
+
+    @Override
+    public int haloRadius(Params params) {
+        // 3x3 커널
+        return 1;
+    }
+}
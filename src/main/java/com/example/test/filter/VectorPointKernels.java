@@ -0,0 +1,170 @@
+package com.example.test.filter;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+// 점 연산의 Vector API(SIMD) 구현 (OpenCV 를 거치지 않고 픽셀 메모리에 직접 적용)
+// 8비트 값을 float 레인으로 넓혀 계산하고 반올림/포화한 뒤 다시 8비트로 저장
+// 벡터 부분과 남은 부분(스칼라)은 같은 float 연산 순서를 따르므로 길이와 무관하게 같은 결과
+// jdk.incubator.vector 모듈이 없으면 로드할 수 없으므로 PointBackend 를 통해서만 사용
+final class VectorPointKernels {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, FLOATS.vectorShape());
+    // float 레인 수만큼의 8비트 값 (256비트 float 벡터면 64비트)
+    private static final VectorSpecies<Byte> BYTES = FLOATS.length() >= 8
+            ? VectorSpecies.of(byte.class, VectorShape.forBitSize(FLOATS.length() * Byte.SIZE))
+            : null;
+
+    // 1.5 * 2^23 을 더했다 빼면 [0, 2^22) 범위 float 가 가장 가까운 정수로 반올림됨 (Math.rint 와 같은 짝수 반올림)
+    private static final float ROUNDING = 12582912f;
+
+    // 색 변환은 이웃 값을 읽으므로 블록 단위로 복사본에서 읽어 제자리에 기록 (픽셀 경계에 맞도록 3의 배수)
+    private static final int TRANSFORM_BLOCK = 3 * 4096;
+
+    private VectorPointKernels() {
+    }
+
+    // 256비트 이상 SIMD 에서만 사용 (더 좁으면 8비트 -> float 변환 모양이 맞지 않고 이득도 적음)
+    static boolean isSupported() {
+        return BYTES != null;
+    }
+
+    // 채널별 a*v+b 단계들을 순서대로 적용 (단계마다 반올림/포화, FusedPointFilter 의 LUT 와 같은 계산)
+    // scales/offsets 는 [단계][채널], pixels 는 channels 개 값이 교차 배치된 픽셀들 (픽셀 경계에서 시작)
+    static void affine(MemorySegment pixels, int channels, float[][] scales, float[][] offsets) {
+        int lanes = FLOATS.length();
+        int stages = scales.length;
+
+        // 벡터 첫 레인의 채널(위상)별 계수, 3채널이면 레인마다 B,G,R 가 반복됨
+        FloatVector[][] a = new FloatVector[stages][channels];
+        FloatVector[][] b = new FloatVector[stages][channels];
+        for (int stage = 0; stage < stages; stage++) {
+            for (int phase = 0; phase < channels; phase++) {
+                a[stage][phase] = periodic(scales[stage], phase);
+                b[stage][phase] = periodic(offsets[stage], phase);
+            }
+        }
+
+        long length = pixels.byteSize();
+        long bound = length - length % lanes;
+        int phaseStep = lanes % channels;
+        int phase = 0;
+        long i = 0;
+        for (; i < bound; i += lanes) {
+            FloatVector v = load(pixels, i);
+            for (int stage = 0; stage < stages; stage++) {
+                v = saturate(v.mul(a[stage][phase]).add(b[stage][phase]));
+            }
+            store(v, pixels, i);
+            phase = (phase + phaseStep) % channels;
+        }
+
+        for (; i < length; i++) {
+            int channel = (int) (i % channels);
+            float v = pixels.get(ValueLayout.JAVA_BYTE, i) & 0xff;
+            for (int stage = 0; stage < stages; stage++) {
+                v = saturate(scales[stage][channel] * v + offsets[stage][channel]);
+            }
+            pixels.set(ValueLayout.JAVA_BYTE, i, (byte) (int) v);
+        }
+    }
+
+    // 3채널 색 변환 (행 우선 3x4 행렬, 출력 채널 c = m[c][0]*B + m[c][1]*G + m[c][2]*R + m[c][3])
+    // 값 i 와 같은 픽셀의 값은 i-2..i+2 에 있으므로, 밀린 벡터 5개에 위치별 계수(다른 픽셀이면 0)를 곱해 더함
+    static void transform(MemorySegment pixels, float[] matrix) {
+        int lanes = FLOATS.length();
+
+        // weights[d + 2][위상]: 위치 i 의 출력에서 i + d 의 값에 곱할 계수
+        FloatVector[][] weights = new FloatVector[5][3];
+        FloatVector[] offsets = new FloatVector[3];
+        for (int phase = 0; phase < 3; phase++) {
+            for (int d = -2; d <= 2; d++) {
+                float[] w = new float[lanes];
+                for (int lane = 0; lane < lanes; lane++) {
+                    int channel = (phase + lane) % 3;
+                    int source = channel + d;
+                    w[lane] = source >= 0 && source < 3 ? matrix[channel * 4 + source] : 0f;
+                }
+                weights[d + 2][phase] = FloatVector.fromArray(FLOATS, w, 0);
+            }
+            float[] o = new float[lanes];
+            for (int lane = 0; lane < lanes; lane++) {
+                o[lane] = matrix[((phase + lane) % 3) * 4 + 3];
+            }
+            offsets[phase] = FloatVector.fromArray(FLOATS, o, 0);
+        }
+
+        // 블록 앞뒤에 2바이트 여유 (블록 경계는 픽셀 경계라 여유 값의 계수는 항상 0)
+        byte[] block = new byte[TRANSFORM_BLOCK + 4];
+        MemorySegment source = MemorySegment.ofArray(block);
+        int phaseStep = lanes % 3;
+        long length = pixels.byteSize();
+        for (long start = 0; start < length; start += TRANSFORM_BLOCK) {
+            int size = (int) Math.min(TRANSFORM_BLOCK, length - start);
+            MemorySegment.copy(pixels, start, source, 2, size);
+
+            int phase = 0;
+            int i = 0;
+            for (; i + lanes <= size; i += lanes) {
+                FloatVector sum = offsets[phase];
+                for (int d = 0; d < 5; d++) {
+                    // source 의 i + d 는 블록 안 위치 i + d - 2
+                    sum = sum.add(load(source, i + d).mul(weights[d][phase]));
+                }
+                store(saturate(sum), pixels, start + i);
+                phase = (phase + phaseStep) % 3;
+            }
+
+            for (; i < size; i++) {
+                int channel = i % 3;
+                int pixel = i - channel + 2;
+                float sum = matrix[channel * 4 + 3];
+                for (int k = 0; k < 3; k++) {
+                    sum += matrix[channel * 4 + k] * (block[pixel + k] & 0xff);
+                }
+                pixels.set(ValueLayout.JAVA_BYTE, start + i, (byte) (int) saturate(sum));
+            }
+        }
+    }
+
+    // 레인 l 에 values[(phase + l) % values.length] 를 담은 벡터
+    private static FloatVector periodic(float[] values, int phase) {
+        float[] lanes = new float[FLOATS.length()];
+        for (int lane = 0; lane < lanes.length; lane++) {
+            lanes[lane] = values[(phase + lane) % values.length];
+        }
+        return FloatVector.fromArray(FLOATS, lanes, 0);
+    }
+
+    // 부호 없는 8비트 -> float
+    private static FloatVector load(MemorySegment segment, long offset) {
+        ByteVector bytes = ByteVector.fromMemorySegment(BYTES, segment, offset, ByteOrder.nativeOrder());
+        IntVector ints = ((IntVector) bytes.convertShape(VectorOperators.B2I, INTS, 0)).and(0xff);
+        return (FloatVector) ints.convert(VectorOperators.I2F, 0);
+    }
+
+    // 0~255 정수 값 float -> 8비트
+    private static void store(FloatVector values, MemorySegment segment, long offset) {
+        IntVector ints = (IntVector) values.convert(VectorOperators.F2I, 0);
+        ByteVector bytes = (ByteVector) ints.convertShape(VectorOperators.I2B, BYTES, 0);
+        bytes.intoMemorySegment(segment, offset, ByteOrder.nativeOrder());
+    }
+
+    // [0, 255] 로 제한한 뒤 반올림 (경계가 정수이므로 반올림 후 제한한 것과 같음)
+    private static FloatVector saturate(FloatVector values) {
+        return values.max(0f).min(255f).add(ROUNDING).sub(ROUNDING);
+    }
+
+    private static float saturate(float value) {
+        return (float) Math.rint(Math.max(0f, Math.min(255f, value)));
+    }
+}
@@ -1,74 +1,296 @@
 package com.example.test.model;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+// 이미지별 필터 상태
+// 여러 요청 스레드가 동시에 접근하므로 모든 접근은 인스턴스 모니터로 보호하고,
+// 렌더링은 snapshot()으로 얻은 불변 복사본을 사용
+//
+// 필터 이름은 슬롯 번호로 바꿔 원시 배열에 보관 (맵/박싱/스트림 없이 렌더 경로에서 조회)
+// - 활성 여부: 슬롯 번호 비트셋 (long)
+// - 값: 슬롯 번호로 찾는 double 벡터 배열 (ImageFilter.toVector 로 바꾼 파라미터, 렌더 계획 컴파일 때만 record 로 복원)
+// - 적용 순서: 슬롯 번호 byte 배열
+// 같은 기본 순서로 만든 상태들은 이름 <-> 슬롯 표를 공유
+// 적용 순서는 슬롯 표에 있는 이름만 받음 (요청의 임의 이름으로 표가 커지지 않도록)
 public class FilterState {
-    private String originalFileName;
-    private Map<String, Boolean> activeFilters; // 효과별 ON/OFF
-    private Map<String, Object> filterValues;   // 효과별 값
-    private List<String> filterOrder; // 필터 적용 순서
+
+    // 비트셋 크기 (필터 이름 + 값만 쓰는 키 합계)
+    private static final int MAX_SLOTS = Long.SIZE;
+
+    private static final List<String> DEFAULT_ORDER = List.of(
+        "grayscale", "blur", "edges", "brightness", "histogram",
+        "sepia", "sharpen", "saturation", "noise", "invert"
+    );
+
+    private final String originalFileName;
+    private final boolean immutable;
+    private Slots slots;
+    private long active;       // 효과별 ON/OFF (슬롯 비트)
+    private long assigned;     // ON/OFF 가 한 번이라도 지정된 슬롯 (getActiveFilters 용)
+    private double[][] values; // 효과별 값 (슬롯 번호 -> 파라미터 벡터, 없으면 null)
+    private byte[] order;      // 필터 적용 순서 (슬롯 번호)
+    private long version; // 변경될 때마다 증가 (렌더 결과 버전)
+
+    private FilterState lastSnapshot; // 버전이 같으면 재사용
+
+    // 스냅샷에서만 사용 (처음 요청될 때 한 번 계산)
+    private List<String> activeInOrder;
+    private boolean fingerprinted;
+    private long fingerprint;
 
     public FilterState(String originalFileName) {
-        this.originalFileName = originalFileName;
-        this.activeFilters = new HashMap<>();
-        this.filterValues = new HashMap<>();
-        this.filterOrder = new ArrayList<>();
-        
         // 기본 필터 순서 설정
-        this.filterOrder.addAll(Arrays.asList(
-            "grayscale", "blur", "edges", "brightness", "histogram", 
-            "sepia", "sharpen", "saturation", "noise", "invert"
-        ));
+        this(originalFileName, DEFAULT_ORDER);
+    }
+
+    // 등록된 필터 목록 기준의 기본 순서로 생성
+    public FilterState(String originalFileName, List<String> defaultOrder) {
+        this.originalFileName = originalFileName;
+        this.slots = Slots.of(defaultOrder);
+        this.values = new double[slots.size()][];
+        this.order = slots.indexes(defaultOrder);
+        this.immutable = false;
+    }
+
+    // 스냅샷 생성용 (슬롯 표는 불변이므로 공유하고 배열만 복사, 값 벡터는 교체만 되므로 공유)
+    private FilterState(FilterState source) {
+        this.originalFileName = source.originalFileName;
+        this.slots = source.slots;
+        this.active = source.active;
+        this.assigned = source.assigned;
+        this.values = source.values.clone();
+        this.order = source.order.clone();
+        this.immutable = true;
+        this.version = source.version;
+    }
+
+    // 렌더링용 불변 복사본 (변경이 없으면 이전 스냅샷을 그대로 반환)
+    public synchronized FilterState snapshot() {
+        if (immutable) {
+            return this;
+        }
+        if (lastSnapshot == null || lastSnapshot.version != version) {
+            lastSnapshot = new FilterState(this);
+        }
+        return lastSnapshot;
+    }
+
+    public boolean isImmutable() {
+        return immutable;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    // 저장소에서 복구한 상태의 버전을 이어서 사용 (복구 후 렌더 버전이 되돌아가지 않도록)
+    public synchronized void restoreVersion(long version) {
+        checkMutable();
+        this.version = version;
     }
 
     public String getOriginalFileName() {
         return originalFileName;
     }
 
-    public void setFilterActive(String filterName, boolean active) {
-        activeFilters.put(filterName, active);
+    public synchronized void setFilterActive(String filterName, boolean active) {
+        checkMutable();
+        long bit = 1L << slot(filterName);
+        this.active = active ? this.active | bit : this.active & ~bit;
+        this.assigned |= bit;
+        version++;
+    }
+
+    public synchronized boolean isFilterActive(String filterName) {
+        int slot = slots.indexOf(filterName);
+        return slot >= 0 && (active & (1L << slot)) != 0;
+    }
+
+    public synchronized Map<String, Boolean> getActiveFilters() {
+        Map<String, Boolean> result = new HashMap<>();
+        for (long bits = assigned; bits != 0; bits &= bits - 1) {
+            int slot = Long.numberOfTrailingZeros(bits);
+            result.put(slots.name(slot), (active & (1L << slot)) != 0);
+        }
+        return immutable ? Collections.unmodifiableMap(result) : result;
+    }
+
+    // 파라미터 벡터 지정 (복사해서 보관)
+    public synchronized void setFilterValue(String filterName, double... vector) {
+        checkMutable();
+        // slot() 이 배열을 늘릴 수 있으므로 먼저 슬롯을 구함
+        int slot = slot(filterName);
+        values[slot] = vector.clone();
+        version++;
+    }
+
+    // 파라미터 벡터 복사본 (없으면 null)
+    public synchronized double[] getFilterValue(String filterName) {
+        int slot = slots.indexOf(filterName);
+        return slot >= 0 && values[slot] != null ? values[slot].clone() : null;
     }
 
-    public boolean isFilterActive(String filterName) {
-        return activeFilters.getOrDefault(filterName, false);
+    public synchronized Map<String, double[]> getFilterValues() {
+        Map<String, double[]> result = new HashMap<>();
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != null) {
+                result.put(slots.name(slot), values[slot].clone());
+            }
+        }
+        return immutable ? Collections.unmodifiableMap(result) : result;
     }
 
-    public Map<String, Boolean> getActiveFilters() {
-        return activeFilters;
+    public synchronized List<String> getFilterOrder() {
+        List<String> result = new ArrayList<>(order.length);
+        for (byte slot : order) {
+            result.add(slots.name(slot));
+        }
+        return result;
     }
 
-    public void setFilterValue(String filterName, Object value) {
-        filterValues.put(filterName, value);
+    // 슬롯 표에 없는 이름이 있으면 아무것도 바꾸지 않고 거부
+    public synchronized void setFilterOrder(List<String> newOrder) {
+        checkMutable();
+        if (newOrder == null) {
+            throw new IllegalArgumentException("필터 순서가 없습니다");
+        }
+        for (String name : newOrder) {
+            if (slots.indexOf(name) < 0) {
+                throw new IllegalArgumentException("알 수 없는 필터: " + name);
+            }
+        }
+        this.order = slots.indexes(newOrder);
+        version++;
     }
 
-    public Object getFilterValue(String filterName) {
-        return filterValues.get(filterName);
+    // 스냅샷은 한 번 만든 목록을 계속 반환 (렌더/컴파일마다 새로 만들지 않음)
+    public synchronized List<String> getActiveFiltersInOrder() {
+        if (immutable && activeInOrder != null) {
+            return activeInOrder;
+        }
+        List<String> result = new ArrayList<>(Long.bitCount(active));
+        for (byte slot : order) {
+            if ((active & (1L << slot)) != 0) {
+                result.add(slots.name(slot));
+            }
+        }
+        if (immutable) {
+            activeInOrder = Collections.unmodifiableList(result);
+            return activeInOrder;
+        }
+        return result;
     }
 
-    public Map<String, Object> getFilterValues() {
-        return filterValues;
+    public synchronized boolean isEmpty() {
+        return active == 0;
     }
 
-    public List<String> getFilterOrder() {
-        return new ArrayList<>(filterOrder);
+    public synchronized void clear() {
+        checkMutable();
+        active = 0;
+        assigned = 0;
+        Arrays.fill(values, null);
+        version++;
     }
 
-    public void setFilterOrder(List<String> newOrder) {
-        this.filterOrder = new ArrayList<>(newOrder);
+    // 내용 기반 64비트 해시 (적용 순서대로 활성 필터 이름 + 값, 버전과 비활성 필터 값은 제외)
+    // 같은 내용이면 세션/프로세스가 달라도 같은 값이므로 결과 캐시 키로 사용
+    public synchronized long fingerprint() {
+        if (immutable && fingerprinted) {
+            return fingerprint;
+        }
+        long hash = StableHash.INITIAL;
+        for (byte slot : order) {
+            if ((active & (1L << slot)) != 0) {
+                hash = StableHash.mix(hash, StableHash.of(slots.name(slot)));
+                hash = StableHash.mix(hash, StableHash.ofVector(values[slot]));
+            }
+        }
+        if (immutable) {
+            fingerprint = hash;
+            fingerprinted = true;
+        }
+        return hash;
     }
 
-    public List<String> getActiveFiltersInOrder() {
-        return filterOrder.stream()
-                .filter(this::isFilterActive)
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    private void checkMutable() {
+        if (immutable) {
+            throw new UnsupportedOperationException("스냅샷은 수정할 수 없습니다");
+        }
     }
 
-    public boolean isEmpty() {
-        return activeFilters.values().stream().noneMatch(v -> v);
+    // 이름의 슬롯 번호 (처음 보는 이름이면 표를 늘림)
+    private int slot(String name) {
+        int slot = slots.indexOf(name);
+        if (slot < 0) {
+            slots = slots.with(name);
+            values = Arrays.copyOf(values, slots.size());
+            slot = slots.size() - 1;
+        }
+        return slot;
     }
 
-    public void clear() {
-        activeFilters.clear();
-        filterValues.clear();
+    // 이름 <-> 슬롯 번호 표 (불변, 같은 기본 순서끼리 공유)
+    private static final class Slots {
+
+        // 보통은 등록된 필터 순서 하나뿐이므로 몇 개만 공유 (복구된 임의 순서가 쌓이지 않도록)
+        private static final int MAX_SHARED = 16;
+        private static final Map<List<String>, Slots> SHARED = new ConcurrentHashMap<>();
+
+        private final String[] names;
+        private final Map<String, Integer> indexes;
+
+        private Slots(String[] names) {
+            if (names.length > MAX_SLOTS) {
+                throw new IllegalStateException("필터는 최대 " + MAX_SLOTS + "개까지 지원합니다");
+            }
+            this.names = names;
+            Map<String, Integer> map = new HashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                map.put(names[i], i);
+            }
+            this.indexes = map;
+        }
+
+        static Slots of(List<String> defaultOrder) {
+            Slots slots = SHARED.get(defaultOrder);
+            if (slots != null) {
+                return slots;
+            }
+            slots = new Slots(new LinkedHashSet<>(defaultOrder).toArray(String[]::new));
+            if (SHARED.size() >= MAX_SHARED) {
+                return slots;
+            }
+            Slots existing = SHARED.putIfAbsent(List.copyOf(defaultOrder), slots);
+            return existing != null ? existing : slots;
+        }
+
+        Slots with(String name) {
+            String[] extended = Arrays.copyOf(names, names.length + 1);
+            extended[names.length] = name;
+            return new Slots(extended);
+        }
+
+        int indexOf(String name) {
+            Integer index = indexes.get(name);
+            return index != null ? index : -1;
+        }
+
+        String name(int slot) {
+            return names[slot];
+        }
+
+        int size() {
+            return names.length;
+        }
+
+        byte[] indexes(List<String> order) {
+            byte[] result = new byte[order.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = (byte) indexOf(order.get(i));
+            }
+            return result;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.example.test.model;
+
+// 실행/프로세스가 달라도 같은 값을 내는 64비트 해시 (FNV-1a 기반)
+// Object.hashCode 는 실행마다 달라질 수 있어 결과 캐시 키나 ETag 에 쓰지 않음
+public final class StableHash {
+
+    public static final long INITIAL = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private StableHash() {
+    }
+
+    public static long of(String value) {
+        long hash = INITIAL;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= PRIME;
+        }
+        return hash;
+    }
+
+    // hash 에 value 를 이어서 섞음 (순서가 다르면 결과도 다름)
+    public static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xFF;
+            hash *= PRIME;
+        }
+        return hash;
+    }
+
+    // 파라미터 벡터 해시 (길이와 각 값의 비트 기준, 없으면 0)
+    public static long ofVector(double[] vector) {
+        if (vector == null) {
+            return 0;
+        }
+        long hash = mix(INITIAL, vector.length);
+        for (double value : vector) {
+            hash = mix(hash, Double.doubleToLongBits(value));
+        }
+        return hash;
+    }
+}
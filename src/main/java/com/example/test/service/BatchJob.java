@@ -0,0 +1,112 @@
+package com.example.test.service;
+
+import com.example.test.filter.FilterPlan;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 배치 작업 상태 (단계별 처리량 조회용)
+public class BatchJob {
+
+    public enum State { PENDING, RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    // 단계별 누적 처리 건수와 작업 시간
+    public static final class StageStats {
+        private final int workers;
+        private final AtomicLong items = new AtomicLong();
+        private final AtomicLong busyNanos = new AtomicLong();
+
+        private StageStats(int workers) {
+            this.workers = workers;
+        }
+
+        public void record(long nanos) {
+            items.incrementAndGet();
+            busyNanos.addAndGet(nanos);
+        }
+
+        private Map<String, Object> toMap(double elapsedSeconds) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("workers", workers);
+            map.put("items", items.get());
+            map.put("busyMillis", busyNanos.get() / 1_000_000);
+            map.put("itemsPerSecond", elapsedSeconds > 0 ? items.get() / elapsedSeconds : 0.0);
+            return map;
+        }
+    }
+
+    private final String id;
+    private final FilterPlan plan;
+    private final Map<String, StageStats> stages = new LinkedHashMap<>();
+    private final List<String> failures = new ArrayList<>();
+    private volatile State state = State.PENDING;
+    // 입력 읽기나 단계 작업자가 중간에 멈춘 경우 (남은 이미지는 처리되지 않음)
+    private volatile boolean aborted;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    BatchJob(String id, FilterPlan plan) {
+        this.id = id;
+        this.plan = plan;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    FilterPlan getPlan() {
+        return plan;
+    }
+
+    synchronized StageStats addStage(String name, int workers) {
+        StageStats stats = new StageStats(workers);
+        stages.put(name, stats);
+        return stats;
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+        state = State.RUNNING;
+    }
+
+    // 작업 중단 사유가 기록되어 있으면 FAILED 로 끝남
+    void finish(State finalState) {
+        endNanos = System.nanoTime();
+        state = aborted && finalState == State.COMPLETED ? State.FAILED : finalState;
+    }
+
+    // 개별 이미지 실패는 작업을 멈추지 않고 기록만 함
+    synchronized void recordFailure(String name, Throwable error) {
+        failures.add(name + ": " + error.getMessage());
+    }
+
+    // 입력 전체나 단계 자체의 실패 (작업은 처리된 이미지까지만 내보내고 FAILED 로 끝남)
+    synchronized void recordAbort(String stage, Throwable error) {
+        aborted = true;
+        failures.add(stage + ": " + error);
+    }
+
+    public synchronized Map<String, Object> toStatus() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        double elapsedSeconds = startNanos != 0 ? (end - startNanos) / 1e9 : 0.0;
+
+        Map<String, Object> stageStatus = new LinkedHashMap<>();
+        stages.forEach((name, stats) -> stageStatus.put(name, stats.toMap(elapsedSeconds)));
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("jobId", id);
+        status.put("state", state.name());
+        status.put("elapsedMillis", (long) (elapsedSeconds * 1000));
+        status.put("stages", stageStatus);
+        status.put("failed", failures.size());
+        status.put("failures", new ArrayList<>(failures));
+        return status;
+    }
+}
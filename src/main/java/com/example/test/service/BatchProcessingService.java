@@ -0,0 +1,449 @@
+package com.example.test.service;
+
+import com.example.test.filter.FilterPlan;
+import com.example.test.filter.FilterRegistry;
+import com.example.test.filter.RenderContext;
+import com.example.test.model.FilterState;
+import jakarta.annotation.PostConstruct;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.bytedeco.opencv.global.opencv_imgcodecs.*;
+
+// 하나의 필터 레시피를 여러 이미지에 적용하는 배치 처리
+// 읽기 -> 디코딩 -> 필터 -> 인코딩 -> ZIP 쓰기 단계를 크기가 제한된 큐로 연결해서
+// 느린 단계(또는 느린 클라이언트)가 앞 단계를 자연스럽게 멈추게 하고(역압),
+// 메모리에는 큐 크기만큼의 이미지만 올라가도록 함
+// 필터 연산은 대화형 렌더와 같은 연산 풀(ComputeExecutor)에서 실행하되, 모든 배치 작업을 합쳐
+// compute-permits 개 슬롯까지만 사용해 나머지 코어와 대기열은 대화형 요청에 남겨 둠
+@Service
+public class BatchProcessingService {
+
+    // 입력 이미지 (ZIP 항목은 data, 업로드된 파일은 path)
+    public record BatchInput(String name, byte[] data, Path path) {}
+
+    @FunctionalInterface
+    public interface BatchSink {
+        void accept(BatchInput input) throws InterruptedException;
+    }
+
+    // 입력 목록, sink 가 막히면 읽기도 함께 멈춤
+    @FunctionalInterface
+    public interface BatchSource {
+        void read(BatchSink sink) throws IOException, InterruptedException;
+    }
+
+    // 단계 사이를 이동하는 작업 단위
+    private static final class Item {
+        private final BatchInput input;
+        private Mat image;
+        private byte[] encoded;
+
+        private Item(BatchInput input) {
+            this.input = input;
+        }
+
+        private String name() {
+            return input.name();
+        }
+
+        private void release() {
+            if (image != null) {
+                image.release();
+                image = null;
+            }
+        }
+    }
+
+    // 단계 종료 표시
+    private static final Item END = new Item(null);
+
+    @Autowired
+    private FilterRegistry filterRegistry;
+
+    @Autowired
+    private ImageEncoder imageEncoder;
+
+    @Autowired
+    private TiledExecutor tiledExecutor;
+
+    @Autowired
+    private ComputeExecutor computeExecutor;
+
+    @Value("${image.batch.decode-threads:2}")
+    private int decodeThreads;
+
+    @Value("${image.batch.filter-threads:0}")
+    private int filterThreads;
+
+    @Value("${image.batch.compute-permits:0}")
+    private int computePermits;
+
+    @Value("${image.batch.retry-millis:50}")
+    private long retryMillis;
+
+    @Value("${image.batch.encode-threads:2}")
+    private int encodeThreads;
+
+    @Value("${image.batch.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${image.batch.max-entry-bytes:67108864}")
+    private long maxEntryBytes;
+
+    @Value("${image.batch.retained-jobs:100}")
+    private int retainedJobs;
+
+    // 최근 작업 상태 (오래된 작업부터 제거)
+    private final Map<String, BatchJob> jobs = new LinkedHashMap<>();
+
+    // 모든 배치 작업이 함께 쓰는 연산 슬롯
+    private Semaphore computeSlots;
+    private int slotCount;
+
+    @PostConstruct
+    void init() {
+        // 0 이면 연산 풀 스레드의 절반
+        slotCount = computePermits > 0 ? computePermits : Math.max(1, computeExecutor.getPoolSize() / 2);
+        computeSlots = new Semaphore(slotCount, true);
+    }
+
+    // 레시피를 실행 계획으로 컴파일해서 작업 생성 (잘못된 레시피는 여기서 예외)
+    public BatchJob createJob(Map<String, Object> recipe) {
+        FilterState filterState = new FilterState("batch", filterRegistry.names());
+        filterRegistry.applyRecipe(filterState, recipe);
+        FilterPlan plan = filterRegistry.compile(filterState.snapshot());
+
+        BatchJob job = new BatchJob(UUID.randomUUID().toString(), plan);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            if (jobs.size() > retainedJobs) {
+                jobs.remove(jobs.keySet().iterator().next());
+            }
+        }
+        return job;
+    }
+
+    public BatchJob getJob(String jobId) {
+        synchronized (jobs) {
+            return jobs.get(jobId);
+        }
+    }
+
+    // 이미 업로드된 이미지 목록
+    public BatchSource uploadedFiles(List<String> fileNames) {
+        if (fileNames == null || fileNames.isEmpty()) {
+            throw new IllegalArgumentException("처리할 이미지가 없습니다.");
+        }
+        Path uploadDir = Paths.get(ImageProcessingService.UPLOAD_DIR).toAbsolutePath().normalize();
+        List<Path> paths = new ArrayList<>();
+        for (String fileName : fileNames) {
+            Path path = uploadDir.resolve(fileName).normalize();
+            if (!path.getParent().equals(uploadDir)) {
+                throw new IllegalArgumentException("잘못된 파일명: " + fileName);
+            }
+            paths.add(path);
+        }
+
+        return sink -> {
+            for (int i = 0; i < paths.size(); i++) {
+                sink.accept(new BatchInput(fileNames.get(i), null, paths.get(i)));
+            }
+        };
+    }
+
+    // ZIP 스트림의 항목을 순서대로 읽음 (전체를 메모리에 올리지 않음)
+    public BatchSource zipArchive(InputStream in) {
+        return sink -> {
+            try (ZipInputStream zip = new ZipInputStream(in)) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    if (entry.isDirectory()) {
+                        continue;
+                    }
+                    byte[] data = zip.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxEntryBytes + 1));
+                    if (data.length > maxEntryBytes) {
+                        // 압축 폭탄 방지: 너무 큰 항목은 건너뜀 (디코딩 단계에서 실패로 기록)
+                        data = null;
+                    }
+                    sink.accept(new BatchInput(entry.getName(), data, null));
+                }
+            }
+        };
+    }
+
+    // 파이프라인을 실행하며 결과를 ZIP 으로 out 에 스트리밍
+    public void run(BatchJob job, BatchSource source, OutputStream out) throws IOException {
+        FilterPlan plan = job.getPlan();
+
+        BlockingQueue<Item> read = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Item> decoded = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Item> filtered = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Item> encoded = new ArrayBlockingQueue<>(queueCapacity);
+        List<ExecutorService> pools = new ArrayList<>();
+
+        job.start();
+        boolean completed = false;
+        try {
+            pools.add(startReader(job, source, read));
+            pools.add(startStage(job, "decode", decodeThreads > 0 ? decodeThreads : 1, read, decoded, this::decode));
+            // 필터 작업자는 연산 풀에 제출하고 기다리기만 하므로 슬롯 수보다 많을 필요가 없음
+            pools.add(startStage(job, "filter", filterThreads > 0 ? filterThreads : slotCount, decoded, filtered, item -> compute(() -> {
+                RenderContext context = new RenderContext(item.image, plan.sharesLuma());
+                for (FilterPlan.Stage<?> stage : plan.getStages()) {
+                    context.prepare(stage);
+                    tiledExecutor.apply(stage, item.image);
+                }
+                context.finish();
+            })));
+            pools.add(startStage(job, "encode", encodeThreads > 0 ? encodeThreads : 1, filtered, encoded, item -> {
+                item.encoded = imageEncoder.encode(item.image);
+                item.release();
+            }));
+
+            writeZip(job, encoded, out);
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("배치 작업이 중단되었습니다.", e);
+        } finally {
+            // 클라이언트 연결이 끊긴 경우 남은 작업을 멈추고 큐에 남은 네이티브 메모리 해제
+            pools.forEach(ExecutorService::shutdownNow);
+            if (!completed) {
+                for (BlockingQueue<Item> queue : List.of(read, decoded, filtered, encoded)) {
+                    queue.forEach(Item::release);
+                    queue.clear();
+                }
+            }
+            job.finish(completed ? BatchJob.State.COMPLETED : BatchJob.State.CANCELLED);
+        }
+    }
+
+    private ExecutorService startReader(BatchJob job, BatchSource source, BlockingQueue<Item> out) {
+        BatchJob.StageStats stats = job.addStage("read", 1);
+        ExecutorService pool = newPool("read", 1);
+        pool.execute(() -> {
+            // 큐가 가득 차서 기다린 시간은 제외하고 읽기 시간만 기록
+            long[] last = {System.nanoTime()};
+            try {
+                source.read(input -> {
+                    stats.record(System.nanoTime() - last[0]);
+                    out.put(new Item(input));
+                    last[0] = System.nanoTime();
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                // 잘못된 ZIP 항목 이름(IllegalArgumentException) 등, 읽은 곳까지만 처리
+                job.recordAbort("입력 읽기", e);
+            } finally {
+                // 어떤 경우에도 종료 표시를 보내야 뒤 단계와 ZIP 쓰기가 끝남 (중단된 경우는 풀 종료로 정리)
+                if (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        out.put(END);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+        return pool;
+    }
+
+    // 단계별 전용 작업자 풀, 마지막 작업자가 끝나면 다음 단계에 종료 표시 전달
+    private ExecutorService startStage(BatchJob job, String name, int workers,
+                                       BlockingQueue<Item> in, BlockingQueue<Item> out, Consumer<Item> work) {
+        BatchJob.StageStats stats = job.addStage(name, workers);
+        AtomicInteger remaining = new AtomicInteger(workers);
+        ExecutorService pool = newPool(name, workers);
+        for (int i = 0; i < workers; i++) {
+            pool.execute(() -> {
+                boolean ended = false;
+                try {
+                    while (true) {
+                        Item item = in.take();
+                        if (item == END) {
+                            ended = true;
+                            if (remaining.decrementAndGet() == 0) {
+                                out.put(END);
+                            } else {
+                                // 같은 단계의 다른 작업자도 종료하도록 되돌려 놓음
+                                in.put(END);
+                            }
+                            return;
+                        }
+
+                        long start = System.nanoTime();
+                        try {
+                            work.accept(item);
+                        } catch (RuntimeException e) {
+                            // 이미지 하나의 실패는 기록만 하고 계속 진행
+                            job.recordFailure(item.name(), e);
+                            item.release();
+                            continue;
+                        }
+                        stats.record(System.nanoTime() - start);
+
+                        try {
+                            out.put(item);
+                        } catch (InterruptedException e) {
+                            item.release();
+                            throw e;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Error e) {
+                    // 작업자가 비정상 종료하면 남은 작업자 수에서 빼고, 마지막이면 종료 표시를 넘김
+                    job.recordAbort(name, e);
+                    if (!ended && remaining.decrementAndGet() == 0) {
+                        try {
+                            out.put(END);
+                        } catch (InterruptedException interrupted) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    throw e;
+                }
+            });
+        }
+        return pool;
+    }
+
+    // 공용 연산 풀에서 실행하고 끝날 때까지 기다림 (배치 전체가 computeSlots 개까지만 동시에 사용)
+    // 대화형 요청으로 대기열이 가득 차 거절되면 이미지를 실패시키지 않고 잠시 후 다시 제출
+    // 작업자가 중단돼도 연산이 끝날 때까지 기다려야 사용 중인 Mat 이 먼저 해제되지 않음 (join)
+    private void compute(Runnable work) {
+        computeSlots.acquireUninterruptibly();
+        try {
+            while (true) {
+                CompletableFuture<Void> future;
+                try {
+                    future = computeExecutor.submit(() -> {
+                        work.run();
+                        return null;
+                    });
+                } catch (ComputeRejectedException e) {
+                    try {
+                        Thread.sleep(retryMillis);
+                    } catch (InterruptedException interrupted) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("배치 작업이 중단되었습니다.", interrupted);
+                    }
+                    continue;
+                }
+                try {
+                    future.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+                return;
+            }
+        } finally {
+            computeSlots.release();
+        }
+    }
+
+    private void decode(Item item) {
+        BatchInput input = item.input;
+        Mat image;
+        if (input.data() != null) {
+            Mat buffer = new Mat(input.data());
+            image = imdecode(buffer, IMREAD_COLOR);
+            buffer.release();
+        } else if (input.path() != null && Files.isRegularFile(input.path())) {
+            image = imread(input.path().toString());
+        } else {
+            throw new RuntimeException("이미지를 찾을 수 없거나 너무 큽니다");
+        }
+
+        if (image == null || image.empty()) {
+            throw new RuntimeException("이미지를 읽을 수 없습니다");
+        }
+        item.image = image;
+    }
+
+    // 이미 압축된 이미지이므로 ZIP 항목은 다시 압축하지 않고 저장(STORED)
+    private void writeZip(BatchJob job, BlockingQueue<Item> in, OutputStream out) throws IOException, InterruptedException {
+        BatchJob.StageStats stats = job.addStage("write", 1);
+        ZipOutputStream zip = new ZipOutputStream(out);
+        Set<String> entryNames = new HashSet<>();
+        while (true) {
+            Item item = in.take();
+            if (item == END) {
+                break;
+            }
+
+            long start = System.nanoTime();
+            byte[] bytes = item.encoded;
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+
+            ZipEntry entry = new ZipEntry(entryName(item.name(), entryNames));
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(bytes.length);
+            entry.setCompressedSize(bytes.length);
+            entry.setCrc(crc.getValue());
+            zip.putNextEntry(entry);
+            zip.write(bytes);
+            zip.closeEntry();
+            // 버퍼에 모아두지 않고 바로 클라이언트로 보냄
+            zip.flush();
+            stats.record(System.nanoTime() - start);
+        }
+        zip.finish();
+    }
+
+    // 경로를 제거하고 인코딩 형식의 확장자로 바꾼 항목 이름 (중복 시 번호 추가)
+    private String entryName(String name, Set<String> used) {
+        String baseName = name.substring(Math.max(name.lastIndexOf('/'), name.lastIndexOf('\\')) + 1);
+        if (baseName.contains(".")) {
+            baseName = baseName.substring(0, baseName.lastIndexOf('.'));
+        }
+        String extension = imageEncoder.getFormat().getExtension();
+
+        String entryName = baseName + extension;
+        for (int i = 1; !used.add(entryName); i++) {
+            entryName = baseName + "_" + i + extension;
+        }
+        return entryName;
+    }
+
+    private static ExecutorService newPool(String stage, int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "batch-" + stage + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.test.service;
+
+// 연산 풀 대기열이 가득 차서 작업을 받을 수 없음 (503 으로 응답)
+public class ComputeRejectedException extends RuntimeException {
+
+    public ComputeRejectedException(String message) {
+        super(message);
+    }
+}
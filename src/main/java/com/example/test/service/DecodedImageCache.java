@@ -0,0 +1,227 @@
+package com.example.test.service;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// 디코딩된 원본 Mat 캐시 (네이티브 바이트 기준 LRU)
+// 디코딩은 락 밖에서 하므로, 디코딩 중에 invalidate/clear 된 키의 결과는 캐시에 넣지 않고 버림
+// 복사/축소도 락 밖에서 하고, 그동안 항목을 사용 중으로 표시해 제거되더라도 사용이 끝난 뒤 해제함
+@Component
+public class DecodedImageCache {
+
+    private static final class Entry {
+        private final Mat mat;
+        private final long size;
+        // 락 밖에서 읽고 있는 호출자 수
+        private int pins;
+        private boolean removed;
+
+        private Entry(Mat mat, long size) {
+            this.mat = mat;
+            this.size = size;
+        }
+    }
+
+    // 키별 진행 중인 로드 (로드가 끝날 때 세대가 바뀌었으면 그 사이 무효화된 것)
+    private static final class Loading {
+        private int loaders;
+        private long generation;
+    }
+
+    private final long maxBytes;
+    // accessOrder=true 로 LRU 순서 유지
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Loading> loading = new HashMap<>();
+    private long residentBytes = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public DecodedImageCache(@Value("${image.cache.decoded.max-bytes:536870912}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    // 캐시된 원본의 복사본 반환, 없으면 loader로 디코딩 후 캐시에 저장
+    // 반환된 Mat은 호출자가 소유하며 release 책임도 호출자에게 있음
+    public Mat getCopy(String key, Supplier<Mat> loader) {
+        return getDerived(key, loader, Mat::clone);
+    }
+
+    // 캐시된 원본에서 region 이 정한 영역만 복사해 반환 (영역 렌더용, 전체 복사를 피함)
+    // region 은 원본을 받아 잘라낼 영역을 계산 (원본 크기를 알아야 하므로), 반환된 Mat은 호출자가 소유
+    public Mat getRegionCopy(String key, Supplier<Mat> loader, Function<Mat, Rect> region) {
+        return getDerived(key, loader, source -> copyRegion(source, region));
+    }
+
+    // 캐시된 원본으로 만든 새 Mat 반환 (축소 프레임 등, 원본 전체를 복사하지 않음)
+    // derive 는 원본을 읽기만 하고 새 Mat을 반환해야 함 (락 밖에서 실행되며 여러 스레드가 같은 원본을 함께 읽을 수 있음)
+    // 디코딩에 실패하면 null
+    public Mat getDerived(String key, Supplier<Mat> loader, Function<Mat, Mat> derive) {
+        Entry cached;
+        Loading load = null;
+        long generation = 0;
+        synchronized (this) {
+            cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                cached.pins++;
+            } else {
+                load = loading.computeIfAbsent(key, k -> new Loading());
+                load.loaders++;
+                generation = load.generation;
+            }
+        }
+
+        if (cached != null) {
+            try {
+                return derive.apply(cached.mat);
+            } finally {
+                unpin(cached);
+            }
+        }
+
+        // 디코딩은 락 밖에서 수행 (다른 이미지 요청을 막지 않도록)
+        misses.incrementAndGet();
+        Mat decoded = null;
+        try {
+            decoded = loader.get();
+            if (decoded != null && decoded.empty()) {
+                decoded.release();
+                decoded = null;
+            }
+            return decoded != null ? derive.apply(decoded) : null;
+        } finally {
+            finishLoad(key, load, generation, decoded);
+        }
+    }
+
+    private synchronized void unpin(Entry entry) {
+        if (--entry.pins == 0 && entry.removed) {
+            entry.mat.release();
+        }
+    }
+
+    // 캐시에서 빠진 항목 해제 (사용 중이면 마지막 사용자가 해제)
+    private static void discard(Entry entry) {
+        entry.removed = true;
+        if (entry.pins == 0) {
+            entry.mat.release();
+        }
+    }
+
+    // 로드가 끝난 원본을 캐시에 넣음 (로드 중에 무효화됐으면 버림)
+    private synchronized void finishLoad(String key, Loading load, long generation, Mat decoded) {
+        if (--load.loaders == 0) {
+            loading.remove(key);
+        }
+        if (decoded == null) {
+            return;
+        }
+        if (load.generation != generation) {
+            decoded.release();
+            return;
+        }
+        put(key, decoded);
+    }
+
+    private static Mat copyRegion(Mat source, Function<Mat, Rect> region) {
+        Mat view = new Mat(source, region.apply(source));
+        try {
+            return view.clone();
+        } finally {
+            view.release();
+        }
+    }
+
+    // 이미 디코딩된 Mat을 캐시에 넣음 (소유권이 캐시로 넘어가므로 호출자는 release 하지 않음)
+    public synchronized void put(String key, Mat mat) {
+        long size = sizeOf(mat);
+        if (size > maxBytes || entries.containsKey(key)) {
+            // 예산보다 크거나 동시에 다른 스레드가 먼저 넣은 경우
+            mat.release();
+            return;
+        }
+
+        entries.put(key, new Entry(mat, size));
+        residentBytes += size;
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (residentBytes > maxBytes && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            residentBytes -= eldest.size;
+            discard(eldest);
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    public synchronized void invalidate(String key) {
+        Loading load = loading.get(key);
+        if (load != null) {
+            load.generation++;
+        }
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            residentBytes -= removed.size;
+            discard(removed);
+        }
+    }
+
+    public synchronized void clear() {
+        for (Loading load : loading.values()) {
+            load.generation++;
+        }
+        for (Entry entry : entries.values()) {
+            discard(entry);
+        }
+        entries.clear();
+        residentBytes = 0;
+    }
+
+    private static long sizeOf(Mat mat) {
+        return mat.total() * mat.elemSize();
+    }
+
+    // 캐시 크기 조정을 위한 통계
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.test.service;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 필터 체인 단계별 중간 결과 캐시
+// 단계 k의 키는 (원본, 0..k 단계 목록, 파라미터)의 누적 해시이므로
+// 키가 일치하면 그 단계까지의 결과를 그대로 재사용할 수 있음
+@Component
+public class FilterChainCache {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    public record Resume(Mat image, int nextStage) {}
+
+    private record StageEntry(long key, Mat output) {}
+
+    private final long maxBytes;
+    // 파일 단위 LRU
+    private final LinkedHashMap<String, List<StageEntry>> chains = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes = 0;
+
+    private final AtomicLong resumes = new AtomicLong();
+    private final AtomicLong skippedStages = new AtomicLong();
+
+    public FilterChainCache(@Value("${image.cache.stages.max-bytes:1073741824}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    // 원본 키 (파일명 기반)
+    public static long sourceKey(String fileName) {
+        return mix(FNV_OFFSET, fileName);
+    }
+
+    // 이전 단계 키에 현재 단계 해시(필터명 + 파라미터)를 누적
+    public static long stageKey(long previousKey, long stageHash) {
+        long hash = previousKey;
+        for (int shift = 0; shift < 64; shift += 8) {
+            hash ^= (stageHash >>> shift) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        // 구분자 역할
+        hash ^= 0xff;
+        hash *= FNV_PRIME;
+        return hash;
+    }
+
+    // 일치하는 가장 긴 접두 단계의 결과 복사본 반환, 없으면 null
+    public synchronized Resume resume(String fileName, long[] stageKeys) {
+        List<StageEntry> chain = chains.get(fileName);
+        if (chain == null) {
+            return null;
+        }
+
+        int matched = -1;
+        int limit = Math.min(chain.size(), stageKeys.length);
+        for (int i = 0; i < limit; i++) {
+            if (chain.get(i).key() != stageKeys[i]) {
+                break;
+            }
+            matched = i;
+        }
+        if (matched < 0) {
+            return null;
+        }
+
+        resumes.incrementAndGet();
+        skippedStages.addAndGet(matched + 1);
+        return new Resume(chain.get(matched).output().clone(), matched + 1);
+    }
+
+    // 단계 결과 저장 (복사본을 보관), 이후 단계는 무효화
+    public synchronized void store(String fileName, int stage, long key, Mat output) {
+        List<StageEntry> chain = chains.computeIfAbsent(fileName, k -> new ArrayList<>());
+        truncate(chain, stage);
+        if (chain.size() != stage) {
+            // 앞 단계가 없으면 접두 재사용이 불가능하므로 저장하지 않음
+            return;
+        }
+
+        Mat copy = output.clone();
+        chain.add(new StageEntry(key, copy));
+        residentBytes += sizeOf(copy);
+        evictIfNeeded(fileName);
+    }
+
+    private void truncate(List<StageEntry> chain, int fromStage) {
+        while (chain.size() > fromStage) {
+            StageEntry removed = chain.remove(chain.size() - 1);
+            residentBytes -= sizeOf(removed.output());
+            removed.output().release();
+        }
+    }
+
+    private void evictIfNeeded(String currentFile) {
+        // 오래된 파일부터 통째로 제거
+        Iterator<Map.Entry<String, List<StageEntry>>> it = chains.entrySet().iterator();
+        while (residentBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, List<StageEntry>> eldest = it.next();
+            if (eldest.getKey().equals(currentFile)) {
+                continue;
+            }
+            truncate(eldest.getValue(), 0);
+            it.remove();
+        }
+
+        // 현재 파일만으로도 예산 초과 시 뒤쪽 단계부터 제거
+        List<StageEntry> current = chains.get(currentFile);
+        if (current != null && residentBytes > maxBytes) {
+            while (residentBytes > maxBytes && !current.isEmpty()) {
+                truncate(current, current.size() - 1);
+            }
+        }
+    }
+
+    public synchronized void invalidate(String fileName) {
+        List<StageEntry> chain = chains.remove(fileName);
+        if (chain != null) {
+            truncate(chain, 0);
+        }
+    }
+
+    private static long sizeOf(Mat mat) {
+        return mat.total() * mat.elemSize();
+    }
+
+    public long getResumeCount() {
+        return resumes.get();
+    }
+
+    public long getSkippedStageCount() {
+        return skippedStages.get();
+    }
+
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+}
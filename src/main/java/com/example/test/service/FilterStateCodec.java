@@ -0,0 +1,116 @@
+package com.example.test.service;
+
+import com.example.test.filter.FilterRegistry;
+import com.example.test.filter.ImageFilter;
+import com.example.test.model.FilterState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// FilterState <-> 압축 바이너리 레시피 (세션 저장소용)
+// 형식 버전, 필터 수, 적용 순서대로 [이름, 플래그(활성/값 있음), 값 벡터 길이 + double 값들]
+// 필터 이름으로 기록하므로 필터 추가/순서 변경 후에도 읽을 수 있고, 모르는 필터(순서/활성/값)는 무시됨
+@Component
+public class FilterStateCodec {
+
+    private static final int FORMAT = 1;
+    private static final int ACTIVE = 1;
+    private static final int HAS_VALUE = 2;
+
+    private final FilterRegistry filterRegistry;
+
+    @Autowired
+    public FilterStateCodec(FilterRegistry filterRegistry) {
+        this.filterRegistry = filterRegistry;
+    }
+
+    public byte[] encode(FilterState snapshot) {
+        List<String> order = snapshot.getFilterOrder();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + order.size() * 24);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeByte(order.size());
+            for (String name : order) {
+                double[] vector = snapshot.getFilterValue(name);
+                out.writeUTF(name);
+                out.writeByte((snapshot.isFilterActive(name) ? ACTIVE : 0) | (vector != null ? HAS_VALUE : 0));
+                if (vector != null) {
+                    out.writeByte(vector.length);
+                    for (double value : vector) {
+                        out.writeDouble(value);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public FilterState decode(String fileName, byte[] recipe, long version) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(recipe))) {
+            int format = in.readUnsignedByte();
+            if (format != FORMAT) {
+                throw new IllegalArgumentException("지원하지 않는 레시피 형식: " + format);
+            }
+
+            int count = in.readUnsignedByte();
+            List<String> order = new ArrayList<>(count);
+            List<String> active = new ArrayList<>();
+            Map<String, double[]> values = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                int flags = in.readUnsignedByte();
+                double[] vector = null;
+                if ((flags & HAS_VALUE) != 0) {
+                    vector = new double[in.readUnsignedByte()];
+                    for (int v = 0; v < vector.length; v++) {
+                        vector[v] = in.readDouble();
+                    }
+                }
+                if (filterRegistry.get(name) == null) {
+                    continue;
+                }
+                order.add(name);
+                if ((flags & ACTIVE) != 0) {
+                    active.add(name);
+                }
+                if (vector != null && readable(name, vector)) {
+                    values.put(name, vector);
+                }
+            }
+
+            // 등록된 필터 순서로 만들어 슬롯 표를 다른 세션과 공유한 뒤 저장된 순서 적용
+            FilterState filterState = new FilterState(fileName, filterRegistry.names());
+            filterState.setFilterOrder(order);
+            active.forEach(name -> filterState.setFilterActive(name, true));
+            values.forEach(filterState::setFilterValue);
+            filterState.restoreVersion(version);
+            return filterState;
+        } catch (IOException e) {
+            throw new UncheckedIOException("레시피를 읽을 수 없습니다", e);
+        }
+    }
+
+    // 현재 필터 파라미터로 복원할 수 있는 벡터인지
+    private boolean readable(String name, double[] vector) {
+        ImageFilter<?> filter = filterRegistry.get(name);
+        try {
+            filter.fromVector(vector);
+            return true;
+        } catch (IllegalArgumentException e) {
+            // 파라미터 형식이 바뀐 필터는 기본값 사용
+            return false;
+        }
+    }
+}
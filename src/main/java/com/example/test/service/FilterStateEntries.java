@@ -0,0 +1,74 @@
+package com.example.test.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+// 저장소 항목의 바이너리 형식 (로그 레코드/공유 디렉토리 파일 공용)
+// fileName, sourceHash(없으면 빈 문자열), previewScale, version, recipe 길이 + recipe
+final class FilterStateEntries {
+
+    private FilterStateEntries() {
+    }
+
+    static byte[] encode(FilterStateRepository.Entry entry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entry.recipe().length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(entry.fileName());
+            out.writeUTF(entry.sourceHash() != null ? entry.sourceHash() : "");
+            out.writeDouble(entry.previewScale());
+            out.writeLong(entry.version());
+            out.writeInt(entry.recipe().length);
+            out.write(entry.recipe());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static FilterStateRepository.Entry decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            String fileName = in.readUTF();
+            String sourceHash = in.readUTF();
+            double previewScale = in.readDouble();
+            long version = in.readLong();
+            byte[] recipe = new byte[in.readInt()];
+            in.readFully(recipe);
+            return new FilterStateRepository.Entry(
+                fileName, sourceHash.isEmpty() ? null : sourceHash, previewScale, version, recipe);
+        } catch (IOException e) {
+            throw new UncheckedIOException("세션 항목을 읽을 수 없습니다", e);
+        }
+    }
+
+    static FilterStateRepository.Entry decode(ByteBuffer buffer) {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        return decode(data);
+    }
+
+    // 삭제 레코드용 (파일 이름만)
+    static byte[] encodeName(String fileName) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(fileName);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static String decodeName(ByteBuffer buffer) {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            return in.readUTF();
+        } catch (IOException e) {
+            throw new UncheckedIOException("세션 항목을 읽을 수 없습니다", e);
+        }
+    }
+}
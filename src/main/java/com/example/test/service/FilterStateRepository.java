@@ -0,0 +1,53 @@
+package com.example.test.service;
+
+import java.util.List;
+
+// 세션(필터 상태) 영속화 SPI
+// 재배포 후에도 편집 중인 상태를 복구하고, 공유 저장소 구현은 여러 노드가 같은 이미지를 처리할 수 있게 함
+// 구현체는 image.sessions.store 설정으로 선택 (SessionRepositoryConfig)
+public interface FilterStateRepository {
+
+    // recipe 는 FilterStateCodec 으로 인코딩한 필터 상태
+    record Entry(String fileName, String sourceHash, double previewScale, long version, byte[] recipe) {}
+
+    // 아무것도 저장하지 않는 저장소 (image.sessions.store=memory)
+    FilterStateRepository NONE = new FilterStateRepository() {
+        @Override
+        public void save(Entry entry) {
+        }
+
+        @Override
+        public void delete(String fileName) {
+        }
+
+        @Override
+        public Entry find(String fileName) {
+            return null;
+        }
+
+        @Override
+        public List<Entry> findAll() {
+            return List.of();
+        }
+    };
+
+    void save(Entry entry);
+
+    void delete(String fileName);
+
+    // 없으면 null
+    Entry find(String fileName);
+
+    // 시작 시 복구용
+    List<Entry> findAll();
+
+    // 다른 노드가 같은 항목을 바꿀 수 있는 저장소인지 (조회 때마다 revision 으로 최신 여부 확인)
+    default boolean isShared() {
+        return false;
+    }
+
+    // 저장된 항목의 변경 표시 (바뀌면 다른 값), 항목이 없으면 -1
+    default long revision(String fileName) {
+        return -1;
+    }
+}
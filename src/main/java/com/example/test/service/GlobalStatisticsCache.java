@@ -0,0 +1,65 @@
+package com.example.test.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 전체 통계 연산(히스토그램 평활화 등)의 이미지 전체 통계 캐시 (항목 수 기준 LRU)
+// 키는 통계를 모은 입력 단계의 누적 키라 앞 단계가 같으면 뒤 단계 파라미터가 바뀌어도 재사용됨
+// 영역 렌더는 요청 영역만 처리하므로 전체 통계를 여기서 얻음
+@Component
+public class GlobalStatisticsCache {
+
+    private final int maxEntries;
+    private final LinkedHashMap<Long, long[]> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public GlobalStatisticsCache(@Value("${image.cache.statistics.max-entries:256}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        // accessOrder=true 로 LRU 순서 유지
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+                return size() > GlobalStatisticsCache.this.maxEntries;
+            }
+        };
+    }
+
+    // 캐시된 통계 (호출자가 수정하지 않아야 함), 없으면 null
+    public synchronized long[] get(long key) {
+        long[] statistics = entries.get(key);
+        if (statistics != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return statistics;
+    }
+
+    public synchronized void put(long key, long[] statistics) {
+        if (maxEntries > 0) {
+            entries.put(key, statistics);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
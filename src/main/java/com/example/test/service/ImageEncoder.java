@@ -0,0 +1,156 @@
+package com.example.test.service;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.IntPointer;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.bytedeco.opencv.global.opencv_imgcodecs.*;
+
+// Mat -> 인코딩된 바이트 변환 (임시 파일 없이 메모리에서 처리)
+@Component
+public class ImageEncoder {
+
+    public enum Format {
+        JPEG(".jpg", "image/jpeg"),
+        PNG(".png", "image/png"),
+        WEBP(".webp", "image/webp");
+
+        private final String extension;
+        private final String contentType;
+
+        Format(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format of(String name) {
+            return switch (name.toLowerCase()) {
+                case "jpg", "jpeg" -> JPEG;
+                case "png" -> PNG;
+                case "webp" -> WEBP;
+                default -> throw new IllegalArgumentException("지원하지 않는 인코딩 형식: " + name);
+            };
+        }
+    }
+
+    // 네이티브 출력 버퍼 초기 크기 (부족하면 imencode가 늘려서 재할당)
+    private static final long INITIAL_BUFFER_BYTES = 1 << 20;
+
+    private final Format format;
+    private final int[] params;
+    private final int maxPooledBuffers;
+
+    // 재사용 가능한 네이티브 출력 버퍼 풀
+    private final ConcurrentLinkedDeque<BytePointer> bufferPool = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger pooledCount = new AtomicInteger();
+    private volatile IntPointer paramPointer;
+    // 품질별 파라미터 (1~100 범위라 개수가 제한됨)
+    private final Map<Integer, IntPointer> qualityPointers = new ConcurrentHashMap<>();
+
+    public ImageEncoder(
+        @Value("${image.encode.format:jpg}") String format,
+        @Value("${image.encode.jpeg-quality:95}") int jpegQuality,
+        @Value("${image.encode.png-compression:3}") int pngCompression,
+        @Value("${image.encode.webp-quality:90}") int webpQuality,
+        @Value("${image.encode.pool-size:16}") int maxPooledBuffers
+    ) {
+        this.format = Format.of(format);
+        this.params = switch (this.format) {
+            case JPEG -> new int[]{IMWRITE_JPEG_QUALITY, jpegQuality};
+            case PNG -> new int[]{IMWRITE_PNG_COMPRESSION, pngCompression};
+            case WEBP -> new int[]{IMWRITE_WEBP_QUALITY, webpQuality};
+        };
+        this.maxPooledBuffers = maxPooledBuffers;
+    }
+
+    public byte[] encode(Mat mat) {
+        return encode(mat, paramPointer());
+    }
+
+    // 품질을 지정해 인코딩 (JPEG/WebP, PNG 는 설정값 사용) - 느린 클라이언트용 스트림 프레임 등
+    public byte[] encode(Mat mat, int quality) {
+        if (format == Format.PNG) {
+            return encode(mat);
+        }
+        IntPointer pointer = qualityPointers.computeIfAbsent(Math.max(1, Math.min(100, quality)),
+                q -> new IntPointer(new int[]{params[0], q}));
+        return encode(mat, pointer);
+    }
+
+    private byte[] encode(Mat mat, IntPointer encodeParams) {
+        BytePointer buffer = acquireBuffer();
+        try {
+            // 버퍼 전체를 출력 벡터로 넘겨 용량이 충분하면 재할당 없이 기록되도록 함
+            buffer.position(0).limit(buffer.capacity());
+            if (!imencode(format.getExtension(), mat, buffer, encodeParams)) {
+                throw new RuntimeException("이미지 인코딩 실패: " + format);
+            }
+
+            byte[] bytes = new byte[(int) buffer.limit()];
+            buffer.position(0).get(bytes);
+            return bytes;
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    private IntPointer paramPointer() {
+        IntPointer pointer = paramPointer;
+        if (pointer == null) {
+            // 네이티브 할당은 첫 인코딩 시점까지 미룸
+            synchronized (this) {
+                if (paramPointer == null) {
+                    paramPointer = new IntPointer(params);
+                }
+                pointer = paramPointer;
+            }
+        }
+        return pointer;
+    }
+
+    private BytePointer acquireBuffer() {
+        BytePointer buffer = bufferPool.pollFirst();
+        if (buffer != null) {
+            pooledCount.decrementAndGet();
+            return buffer;
+        }
+        return new BytePointer(INITIAL_BUFFER_BYTES);
+    }
+
+    private void releaseBuffer(BytePointer buffer) {
+        if (pooledCount.incrementAndGet() <= maxPooledBuffers) {
+            bufferPool.offerFirst(buffer);
+        } else {
+            pooledCount.decrementAndGet();
+            buffer.close();
+        }
+    }
+
+    // 설정된 기본 품질 (PNG 는 압축 수준)
+    public int getQuality() {
+        return params[1];
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public String getContentType() {
+        return format.getContentType();
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.test.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// 파일 앞부분만으로 이미지 형식과 크기를 확인 (디코딩 없이 업로드 초기에 검증)
+// JPEG(SOFn), PNG(IHDR), BMP, WebP(VP8/VP8L/VP8X), TIFF(첫 IFD) 지원
+// TIFF 의 첫 IFD 가 앞부분(SNIFF_LIMIT) 밖에 있으면 크기를 모르는 헤더를 반환하고, 저장한 파일에서 readTiff 로 확인
+final class ImageHeaders {
+
+    // 형식/크기 확인을 위해 먼저 읽는 최대 크기 (JPEG 은 EXIF 등 앞쪽 세그먼트 뒤에 크기가 있음)
+    static final int SNIFF_LIMIT = 512 * 1024;
+    // 아직 확인하지 못한 너비/높이
+    static final int UNKNOWN_SIZE = -1;
+
+    record Header(String format, String extension, int width, int height) {
+        long pixels() {
+            return (long) width * height;
+        }
+
+        boolean sizeKnown() {
+            return width != UNKNOWN_SIZE;
+        }
+    }
+
+    private ImageHeaders() {
+    }
+
+    // length 바이트까지 읽은 내용으로 판단, 더 읽어야 하면 null
+    // 지원하지 않는 형식이거나 헤더가 잘못됐으면 UploadRejectedException
+    static Header sniff(byte[] data, int length) {
+        if (length < 12) {
+            return null;
+        }
+        Header header;
+        if (u8(data, 0) == 0xFF && u8(data, 1) == 0xD8) {
+            header = jpeg(data, length);
+        } else if (startsWith(data, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            header = png(data, length);
+        } else if (startsWith(data, 'B', 'M')) {
+            header = bmp(data, length);
+        } else if (startsWith(data, 'R', 'I', 'F', 'F') && data[8] == 'W' && data[9] == 'E' && data[10] == 'B' && data[11] == 'P') {
+            header = webp(data, length);
+        } else if (startsWith(data, 'I', 'I', 0x2A, 0x00) || startsWith(data, 'M', 'M', 0x00, 0x2A)) {
+            header = tiff(data, length);
+        } else {
+            throw new UploadRejectedException("지원하지 않는 이미지 형식입니다");
+        }
+
+        if (header != null && header.sizeKnown()) {
+            checkSize(header);
+        }
+        return header;
+    }
+
+    // 저장된 TIFF 파일의 첫 IFD 에서 크기 확인 (libtiff 는 첫 IFD 를 이미지 데이터 뒤에 씀)
+    static Header readTiff(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            byte[] head = read(channel, 0, 8);
+            boolean little = head[0] == 'I';
+            long offset = u32(head, 4, little);
+            int count = u16(read(channel, offset, 2), 0, little);
+            return checkSize(ifd(read(channel, offset + 2, count * 12), 0, count, little));
+        }
+    }
+
+    private static Header checkSize(Header header) {
+        if (header.width() <= 0 || header.height() <= 0) {
+            throw new UploadRejectedException("이미지 크기를 읽을 수 없습니다");
+        }
+        return header;
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new UploadRejectedException("손상된 TIFF 헤더입니다");
+            }
+        }
+        return buffer.array();
+    }
+
+    private static Header jpeg(byte[] data, int length) {
+        int i = 2;
+        while (true) {
+            if (i + 4 > length) {
+                return null;
+            }
+            if (u8(data, i) != 0xFF) {
+                throw new UploadRejectedException("손상된 JPEG 헤더입니다");
+            }
+            int marker = u8(data, i + 1);
+            if (marker == 0xFF) {
+                // 채움 바이트
+                i++;
+                continue;
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                // 길이 없는 마커
+                i += 2;
+                continue;
+            }
+            if (marker == 0xDA || marker == 0xD9) {
+                throw new UploadRejectedException("JPEG 프레임 헤더가 없습니다");
+            }
+
+            // SOF0~SOF15 (DHT/JPG/DAC 제외): [길이 2][정밀도 1][높이 2][너비 2]
+            if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+                if (i + 9 > length) {
+                    return null;
+                }
+                return new Header("jpeg", ".jpg", be16(data, i + 7), be16(data, i + 5));
+            }
+            i += 2 + be16(data, i + 2);
+        }
+    }
+
+    private static Header png(byte[] data, int length) {
+        if (length < 24) {
+            return null;
+        }
+        if (!(data[12] == 'I' && data[13] == 'H' && data[14] == 'D' && data[15] == 'R')) {
+            throw new UploadRejectedException("손상된 PNG 헤더입니다");
+        }
+        return new Header("png", ".png", be32(data, 16), be32(data, 20));
+    }
+
+    private static Header bmp(byte[] data, int length) {
+        if (length < 26) {
+            return null;
+        }
+        if (le32(data, 14) == 12) {
+            // BITMAPCOREHEADER
+            return new Header("bmp", ".bmp", le16(data, 18), le16(data, 20));
+        }
+        // 높이가 음수면 위에서 아래로 저장된 비트맵
+        return new Header("bmp", ".bmp", le32(data, 18), Math.abs(le32(data, 22)));
+    }
+
+    private static Header webp(byte[] data, int length) {
+        if (length < 30) {
+            return null;
+        }
+        if (matchesAt(data, 12, 'V', 'P', '8', ' ')) {
+            return new Header("webp", ".webp", le16(data, 26) & 0x3FFF, le16(data, 28) & 0x3FFF);
+        }
+        if (matchesAt(data, 12, 'V', 'P', '8', 'L')) {
+            int bits = le32(data, 21);
+            return new Header("webp", ".webp", (bits & 0x3FFF) + 1, ((bits >> 14) & 0x3FFF) + 1);
+        }
+        if (matchesAt(data, 12, 'V', 'P', '8', 'X')) {
+            return new Header("webp", ".webp", le24(data, 24) + 1, le24(data, 27) + 1);
+        }
+        throw new UploadRejectedException("손상된 WebP 헤더입니다");
+    }
+
+    // 첫 IFD 의 ImageWidth(256)/ImageLength(257) 태그
+    private static Header tiff(byte[] data, int length) {
+        boolean little = data[0] == 'I';
+        long offset = u32(data, 4, little);
+        if (offset < 8) {
+            throw new UploadRejectedException("손상된 TIFF 헤더입니다");
+        }
+        if (offset + 2 > length) {
+            return offset + 2 > SNIFF_LIMIT ? unknownTiff() : null;
+        }
+        int ifd = (int) offset;
+        int count = u16(data, ifd, little);
+        if (ifd + 2 + count * 12L > length) {
+            return ifd + 2 + count * 12L > SNIFF_LIMIT ? unknownTiff() : null;
+        }
+        return ifd(data, ifd + 2, count, little);
+    }
+
+    private static Header unknownTiff() {
+        return new Header("tiff", ".tif", UNKNOWN_SIZE, UNKNOWN_SIZE);
+    }
+
+    // start 부터 12바이트씩 count 개의 IFD 항목
+    private static Header ifd(byte[] data, int start, int count, boolean little) {
+        int width = 0;
+        int height = 0;
+        for (int entry = 0; entry < count; entry++) {
+            int at = start + entry * 12;
+            int tag = u16(data, at, little);
+            int type = u16(data, at + 2, little);
+            // SHORT 값은 값 필드의 앞 2바이트
+            int value = type == 3 ? u16(data, at + 8, little) : (int) u32(data, at + 8, little);
+            if (tag == 256) {
+                width = value;
+            } else if (tag == 257) {
+                height = value;
+            }
+        }
+        return new Header("tiff", ".tif", width, height);
+    }
+
+    private static boolean startsWith(byte[] data, int... prefix) {
+        return matchesAt(data, 0, prefix);
+    }
+
+    private static boolean matchesAt(byte[] data, int offset, int... prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (u8(data, offset + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int u8(byte[] data, int i) {
+        return data[i] & 0xFF;
+    }
+
+    private static int be16(byte[] data, int i) {
+        return (u8(data, i) << 8) | u8(data, i + 1);
+    }
+
+    private static int be32(byte[] data, int i) {
+        return (be16(data, i) << 16) | be16(data, i + 2);
+    }
+
+    private static int le16(byte[] data, int i) {
+        return u8(data, i) | (u8(data, i + 1) << 8);
+    }
+
+    private static int le24(byte[] data, int i) {
+        return le16(data, i) | (u8(data, i + 2) << 16);
+    }
+
+    private static int le32(byte[] data, int i) {
+        return le16(data, i) | (le16(data, i + 2) << 16);
+    }
+
+    private static int u16(byte[] data, int i, boolean little) {
+        return little ? le16(data, i) : be16(data, i);
+    }
+
+    private static long u32(byte[] data, int i, boolean little) {
+        return (little ? le32(data, i) : be32(data, i)) & 0xFFFFFFFFL;
+    }
+}
@@ -1,32 +1,149 @@
 package com.example.test.service;
 
+import com.example.test.filter.FilterPlan;
+import com.example.test.filter.FilterRegistry;
+import com.example.test.filter.GlobalOperation;
+import com.example.test.filter.ImageFilter;
+import com.example.test.filter.MatPool;
+import com.example.test.filter.PointBackend;
+import com.example.test.filter.RenderContext;
 import com.example.test.model.FilterState;
+import com.example.test.model.StableHash;
+import org.bytedeco.javacpp.BytePointer;
 import org.bytedeco.opencv.opencv_core.*;
 import org.bytedeco.opencv.global.opencv_imgproc;
 import org.bytedeco.opencv.global.opencv_imgcodecs;
 import static org.bytedeco.opencv.global.opencv_core.*;
 import static org.bytedeco.opencv.global.opencv_imgproc.*;
 import static org.bytedeco.opencv.global.opencv_imgcodecs.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 @Service
 public class ImageProcessingService {
     
-    private static final String UPLOAD_DIR = "uploads/";
-    private Map<String, FilterState> filterStates = new HashMap<>();
-    // 메모리에 저장된 처리된 이미지들
-    private Map<String, byte[]> processedImages = new HashMap<>();
+    static final String UPLOAD_DIR = "uploads/";
+    // 내용 해시 이름으로 한 번만 저장되는 원본 (세션 파일은 여기로의 하드 링크)
+    private static final String BLOB_DIR = UPLOAD_DIR + "blobs/";
+    // 캐시/저장소 키 접미사 (미리보기 원본, 지연된 원본 해상도 렌더 결과)
+    private static final String PREVIEW_SUFFIX = "#preview";
+    private static final String FULL_SUFFIX = "#full";
+    // 렌더 스트림의 축소 프레임 요청 키 (일반 렌더와 따로 합쳐짐)
+    private static final String FRAME_SUFFIX = "#frame";
+    // 영역 렌더 요청 키, 축소 디코딩한 원본의 캐시 키 접미사 (뒤에 축소 배수)
+    private static final String REGION_SUFFIX = "#region";
+    private static final String REDUCED_SUFFIX = "#reduced";
+    // 축소 디코딩 배수 (IMREAD_REDUCED_COLOR_*, 큰 배수부터 시도)
+    private static final int[] DECODE_REDUCTIONS = {8, 4, 2};
+    private static final String FULL_VARIANT = "full";
+    private static final int UPLOAD_CHUNK_BYTES = 64 * 1024;
+
+    // 시작 예열 필터 조합 (색 경로: 점 연산 합성 + 이웃 픽셀 필터, 휘도 경로: 흑백 계열 단계 공유)
+    private static final List<Map<String, Object>> WARMUP_RECIPES = List.of(
+        Map.of(
+            "brightness", warmupEntry(Map.of("alpha", 1.1, "beta", 5)),
+            "saturation", warmupEntry(1.2),
+            "noise", warmupEntry(5),
+            "invert", warmupEntry(0.1),
+            "sepia", warmupEntry(0.3),
+            "blur", warmupEntry(3),
+            "sharpen", warmupEntry(0.5)
+        ),
+        Map.of(
+            "grayscale", warmupEntry(1.0),
+            "histogram", warmupEntry(1.0),
+            "edges", warmupEntry(100),
+            "invert", warmupEntry(0.2)
+        )
+    );
+    
+    @Autowired
+    private ImageSessionStore sessionStore;
+    
+    @Autowired
+    private FilterRegistry filterRegistry;
+    
+    @Autowired
+    private DecodedImageCache decodedImageCache;
+    
+    @Autowired
+    private FilterChainCache filterChainCache;
+    
+    @Autowired
+    private ImageEncoder imageEncoder;
+    
+    @Autowired
+    private RenderScheduler renderScheduler;
+    
+    @Autowired
+    private ProcessedImageStore processedImageStore;
+    
+    @Autowired
+    private TiledExecutor tiledExecutor;
+    
+    @Autowired
+    private ComputeExecutor computeExecutor;
+    
+    @Autowired
+    private RenderResultCache renderResultCache;
+    
+    @Autowired
+    private GlobalStatisticsCache globalStatisticsCache;
+    
+    @Autowired
+    private RenderMetrics renderMetrics;
+
+    @Autowired
+    private StartupMetrics startupMetrics;
+    
+    // 원본 해시별 미리보기 배율 (같은 내용의 재업로드는 디코딩 없이 재사용)
+    private final ConcurrentHashMap<String, Double> previewScales = new ConcurrentHashMap<>();
+    // blob 생성/링크/삭제 사이의 경합 방지
+    private final Object blobLock = new Object();
+    
+    // 편집 중에는 긴 변이 이 크기 이하가 될 때까지 축소한 이미지로 렌더
+    @Value("${image.preview.enabled:true}")
+    private boolean previewEnabled;
+    
+    @Value("${image.preview.max-dimension:1280}")
+    private int previewMaxDimension;
+    
+    @Value("${image.upload.max-pixels:100000000}")
+    private long maxUploadPixels;
+    
+    @Value("${image.upload.max-bytes:10485760}")
+    private long maxUploadBytes;
+    
+    @Value("${image.region.max-pixels:16777216}")
+    private long maxRegionPixels;
     
     public ImageProcessingService() {
         // 업로드 디렉토리만 생성
@@ -36,35 +153,246 @@ public class ImageProcessingService {
     private void createDirectories() {
         try {
             Files.createDirectories(Paths.get(UPLOAD_DIR));
+            Files.createDirectories(Paths.get(BLOB_DIR));
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
     
     public String uploadImage(MultipartFile file) throws IOException {
-        // 한글 파일명 문제를 해결하기 위해 확장자만 추출
-        String originalFilename = file.getOriginalFilename();
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        try (InputStream in = file.getInputStream()) {
+            return uploadImage(in);
+        }
+    }
+    
+    // 업로드 스트림을 검증하며 저장하고 세션 생성
+    // 파일 이름 확장자는 클라이언트가 보낸 이름이 아닌 헤더에서 확인한 형식을 따름
+    public String uploadImage(InputStream in) throws IOException {
+        // 앞부분만 읽어 형식/크기를 확인하고, 너무 큰 이미지는 저장하기 전에 거절
+        byte[] head = new byte[16 * 1024];
+        int length = 0;
+        ImageHeaders.Header header = null;
+        while (header == null) {
+            if (length == head.length) {
+                if (head.length >= ImageHeaders.SNIFF_LIMIT) {
+                    throw new UploadRejectedException("헤더에서 이미지 크기를 확인할 수 없습니다");
+                }
+                head = Arrays.copyOf(head, head.length * 2);
+            }
+            int read = in.read(head, length, head.length - length);
+            if (read < 0) {
+                throw new UploadRejectedException(length == 0 ? "빈 파일입니다" : "이미지 헤더가 잘렸습니다");
+            }
+            length += read;
+            header = ImageHeaders.sniff(head, length);
+        }
+        if (header.sizeKnown()) {
+            checkPixels(header);
         }
         
         // 영문 파일명으로 생성
-        String fileName = UUID.randomUUID().toString() + extension;
+        String fileName = UUID.randomUUID().toString() + header.extension();
         Path filePath = Paths.get(UPLOAD_DIR + fileName);
-        Files.copy(file.getInputStream(), filePath);
+        String sourceHash = storeBlob(ByteBuffer.wrap(head, 0, length), in, filePath, header.sizeKnown());
+        
+        // 필터 상태 초기화 (등록된 필터 순서를 기본 순서로 사용)
+        ImageSessionStore.Session session = sessionStore.create(fileName, filterRegistry.names());
+        session.setSourceHash(sourceHash);
+        sessionStore.save(fileName);
         
-        // 필터 상태 초기화
-        filterStates.put(fileName, new FilterState(fileName));
+        // 디코딩/미리보기 생성은 응답을 기다리게 하지 않고 연산 풀에서 실행
+        // 그 전에 렌더 요청이 오면 렌더 스레드가 직접 실행하거나 끝날 때까지 기다림 (디코딩은 한 번만)
+        FutureTask<Void> preparation = new FutureTask<>(() -> {
+            prepareSource(fileName, session);
+            // 미리보기 배율까지 저장소에 반영 (재시작 후에도 같은 미리보기 사용)
+            sessionStore.save(fileName);
+            return null;
+        });
+        session.setPreparation(preparation);
+        try {
+            computeExecutor.execute(preparation);
+        } catch (ComputeRejectedException e) {
+            // 연산 풀이 바쁘면 첫 렌더 때 준비
+        }
         
         return fileName;
     }
     
+    private void checkPixels(ImageHeaders.Header header) {
+        if (header.pixels() > maxUploadPixels) {
+            throw new UploadRejectedException(String.format("이미지가 너무 큽니다 (%dx%d, 최대 %d 픽셀)",
+                    header.width(), header.height(), maxUploadPixels));
+        }
+    }
+    
+    // 업로드 내용을 해시하며 FileChannel 로 저장하고, 같은 내용은 blob 하나를 하드 링크로 공유
+    // 앞부분에서 크기를 확인하지 못했으면 (첫 IFD 가 뒤에 있는 TIFF) 임시 파일에서 확인한 뒤에 blob 으로 옮김
+    private String storeBlob(ByteBuffer head, InputStream rest, Path filePath, boolean sizeChecked) throws IOException {
+        Path blobDir = Paths.get(BLOB_DIR);
+        Path tempFile = Files.createTempFile(blobDir, "upload_", ".tmp");
+        try {
+            MessageDigest digest = RenderResultCache.newDigest();
+            try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE);
+                 ReadableByteChannel source = Channels.newChannel(rest)) {
+                long size = writeChunk(out, digest, head);
+                ByteBuffer buffer = ByteBuffer.allocateDirect(UPLOAD_CHUNK_BYTES);
+                while (source.read(buffer) != -1) {
+                    buffer.flip();
+                    size += writeChunk(out, digest, buffer);
+                    buffer.clear();
+                    if (size > maxUploadBytes) {
+                        throw new UploadRejectedException("파일이 너무 큽니다 (최대 " + maxUploadBytes + " 바이트)");
+                    }
+                }
+            }
+            if (!sizeChecked) {
+                checkPixels(ImageHeaders.readTiff(tempFile));
+            }
+            String sourceHash = HexFormat.of().formatHex(digest.digest());
+            Path blob = blobDir.resolve(sourceHash);
+            
+            synchronized (blobLock) {
+                if (!Files.exists(blob)) {
+                    Files.move(tempFile, blob);
+                }
+                try {
+                    Files.createLink(filePath, blob);
+                } catch (UnsupportedOperationException | IOException e) {
+                    // 하드 링크를 지원하지 않는 파일 시스템이면 복사
+                    Files.copy(blob, filePath);
+                }
+            }
+            return sourceHash;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+    
+    private static int writeChunk(FileChannel out, MessageDigest digest, ByteBuffer chunk) throws IOException {
+        int size = chunk.remaining();
+        digest.update(chunk.duplicate());
+        while (chunk.hasRemaining()) {
+            out.write(chunk);
+        }
+        return size;
+    }
+    
+    // 같은 내용을 가리키는 세션 파일이 더 없으면 blob 과 내용 기반 캐시 정리
+    private void releaseBlob(String sourceHash) throws IOException {
+        synchronized (blobLock) {
+            Path blob = Paths.get(BLOB_DIR).resolve(sourceHash);
+            if (!Files.exists(blob) || linkCount(blob) > 1) {
+                return;
+            }
+            Files.deleteIfExists(blob);
+        }
+        decodedImageCache.invalidate(sourceHash);
+        decodedImageCache.invalidate(sourceHash + PREVIEW_SUFFIX);
+        filterChainCache.invalidate(sourceHash);
+        filterChainCache.invalidate(sourceHash + PREVIEW_SUFFIX);
+        for (int reduction : DECODE_REDUCTIONS) {
+            decodedImageCache.invalidate(sourceHash + REDUCED_SUFFIX + reduction);
+            filterChainCache.invalidate(sourceHash + REDUCED_SUFFIX + reduction);
+        }
+        previewScales.remove(sourceHash);
+    }
+    
+    private static int linkCount(Path path) {
+        try {
+            return (Integer) Files.getAttribute(path, "unix:nlink");
+        } catch (UnsupportedOperationException | IllegalArgumentException | IOException e) {
+            // 링크 수를 알 수 없으면 다른 세션이 쓰고 있을 수 있으므로 유지
+            return Integer.MAX_VALUE;
+        }
+    }
+    
+    // 업로드 직후 원본을 디코딩해 캐시에 올리고 미리보기용 피라미드 단계를 만들어 둠
+    // 같은 내용이 이미 디코딩돼 있으면 다시 디코딩하지 않음
+    private void prepareSource(String fileName, ImageSessionStore.Session session) {
+        String sourceKey = sourceKey(fileName, session);
+        Double knownScale = previewScales.get(sourceKey);
+        if (knownScale != null && decodedImageCache.contains(knownScale < 1.0 ? sourceKey + PREVIEW_SUFFIX : sourceKey)) {
+            session.setPreviewScale(knownScale);
+            return;
+        }
+        
+        Mat source = decode(UPLOAD_DIR + fileName);
+        if (source == null || source.empty()) {
+            // 디코딩할 수 없는 파일은 렌더 시점에 오류로 처리
+            return;
+        }
+        
+        Mat preview = previewEnabled ? buildPreview(source) : null;
+        double scale = preview != null ? (double) preview.cols() / source.cols() : 1.0;
+        previewScales.put(sourceKey, scale);
+        session.setPreviewScale(scale);
+        if (preview != null) {
+            decodedImageCache.put(sourceKey + PREVIEW_SUFFIX, preview);
+        }
+        // 소유권은 캐시로 넘어감
+        decodedImageCache.put(sourceKey, source);
+    }
+    
+    // 디코딩/단계 캐시 키 (같은 내용의 원본은 세션과 무관하게 같은 키)
+    private static String sourceKey(String fileName, ImageSessionStore.Session session) {
+        String sourceHash = session.getSourceHash();
+        return sourceHash != null ? sourceHash : fileName;
+    }
+    
+    private static String sourceTag(String fileName, ImageSessionStore.Session session) {
+        return "src-" + sourceKey(fileName, session);
+    }
+    
+    // pyrDown 으로 긴 변이 기준 이하가 될 때까지 반씩 축소 (축소가 필요 없으면 null)
+    private Mat buildPreview(Mat source) {
+        Mat current = source;
+        while (Math.max(current.cols(), current.rows()) > previewMaxDimension) {
+            Mat next = new Mat();
+            pyrDown(current, next);
+            if (current != source) {
+                current.release();
+            }
+            current = next;
+        }
+        return current != source ? current : null;
+    }
+    
+    // 미리보기 원본 로드 (캐시에서 제거됐으면 원본에서 다시 축소)
+    private Mat loadPreviewSource(String fileName, String sourceKey) {
+        Mat source = loadSource(fileName, sourceKey);
+        try {
+            Mat preview = buildPreview(source);
+            return preview != null ? preview : source.clone();
+        } finally {
+            source.release();
+        }
+    }
+    
+    private Mat loadSource(String fileName, String sourceKey) {
+        String originalPath = UPLOAD_DIR + fileName;
+        Mat source = decodedImageCache.getCopy(sourceKey, () -> decode(originalPath));
+        if (source == null || source.empty()) {
+            throw new RuntimeException("원본 이미지를 읽을 수 없습니다: " + originalPath);
+        }
+        return source;
+    }
+    
+    private Mat decode(String path) {
+        return decode(path, IMREAD_COLOR);
+    }
+    
+    private Mat decode(String path, int flags) {
+        long start = System.nanoTime();
+        Mat image = imread(path, flags);
+        renderMetrics.recordDecode(System.nanoTime() - start);
+        return image;
+    }
+    
     // 개별 필터 메소드들은 제거 - applyAllFilters에서 통합 처리
     
     public byte[] getImageBytes(String fileName) throws IOException {
         // 메모리에서 처리된 이미지가 있으면 반환
-        byte[] processedImage = processedImages.get(fileName);
+        byte[] processedImage = getProcessedImageBytes(fileName);
         if (processedImage != null) {
             return processedImage;
         }
@@ -78,306 +406,852 @@ public class ImageProcessingService {
         return Files.readAllBytes(filePath);
     }
     
+    // 원본 파일 경로 (힙에 올리지 않고 파일에서 바로 응답할 때 사용, 없으면 null)
+    public Path getUploadedImagePath(String fileName) {
+        Path uploadDir = Paths.get(UPLOAD_DIR).toAbsolutePath().normalize();
+        Path filePath = uploadDir.resolve(fileName).normalize();
+        if (!uploadDir.equals(filePath.getParent()) || !Files.isRegularFile(filePath)) {
+            return null;
+        }
+        return filePath;
+    }
+    
+    // 처리된 이미지의 Content-Type (인코딩 형식 기준)
+    public String getProcessedContentType() {
+        return imageEncoder.getContentType();
+    }
+    
     public void deleteImage(String fileName) {
         try {
             Files.deleteIfExists(Paths.get(UPLOAD_DIR + fileName));
-            filterStates.remove(fileName);
-            processedImages.remove(fileName); // 메모리에서도 제거
+            ImageSessionStore.Session session = sessionStore.remove(fileName);
+            processedImageStore.remove(fileName); // 메모리에서도 제거
+            processedImageStore.remove(fileName + FULL_SUFFIX);
+            if (session != null && session.getSourceHash() != null) {
+                releaseBlob(session.getSourceHash());
+            }
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
     
-    // 활성화된 모든 필터를 순서대로 누적 적용 (메모리에서만 처리)
-    public byte[] applyAllFilters(String fileName) {
-        FilterState filterState = filterStates.get(fileName);
-        if (filterState == null || filterState.isEmpty()) {
-            // 필터가 없으면 원본 이미지를 바이트 배열로 반환
-            try {
-                return getUploadedImageBytes(fileName);
-            } catch (IOException e) {
-                throw new RuntimeException("원본 이미지 읽기 실패: " + e.getMessage());
+    // 최신 상태로 렌더 요청 (같은 이미지의 연속 요청은 하나로 합쳐짐)
+    // 미리보기가 있으면 축소 이미지로 렌더하고, 원본 해상도 렌더는 다운로드/확정 시점으로 미룸
+    public CompletableFuture<RenderResult> requestRender(String fileName) {
+        if (sessionStore.get(fileName) == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("이미지 상태 없음"));
+        }
+        return renderScheduler.submit(fileName, () -> render(fileName, false));
+    }
+    
+    // 현재 상태를 원본 해상도로 렌더 요청 (미리보기가 없으면 일반 렌더와 같음)
+    public CompletableFuture<RenderResult> requestFullRender(String fileName) {
+        ImageSessionStore.Session session = sessionStore.get(fileName);
+        if (session == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("이미지 상태 없음"));
+        }
+        // 미리보기 여부는 업로드 후 준비가 끝나야 정해지므로 렌더 시점에 판단 (미리보기가 없으면 일반 결과로 저장됨)
+        return renderScheduler.submit(fileName + FULL_SUFFIX, () -> render(fileName, true));
+    }
+    
+    // 확대/이동된 뷰포트용 영역 렌더 요청 (x, y, width, height 는 원본 해상도 좌표, scale 은 출력 배율)
+    // 요청 영역과 이웃 픽셀 필터에 필요한 halo 만 처리하고 잘라낸 영역만 인코딩
+    // 같은 원본 + 레시피 + 영역 결과는 렌더 결과 캐시에서 재사용
+    // 같은 이미지의 연속 요청은 가장 최근 영역 하나로 합쳐짐 (합쳐진 요청도 최근 영역의 결과를 받으며, 영역은 결과의 region 에 기록됨)
+    public CompletableFuture<RenderResult> requestRegionRender(String fileName, int x, int y, int width, int height, double scale) {
+        if (sessionStore.get(fileName) == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("이미지 상태 없음"));
+        }
+        if (x < 0 || y < 0 || width <= 0 || height <= 0 || !(scale > 0 && scale <= 1.0)) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "잘못된 영역입니다: " + x + "," + y + " " + width + "x" + height + " @" + scale));
+        }
+        if ((double) width * height * scale * scale > maxRegionPixels) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "영역이 너무 큽니다. 출력 픽셀 수는 " + maxRegionPixels + " 이하여야 합니다."));
+        }
+        return renderScheduler.submit(fileName + REGION_SUFFIX, () -> renderRegion(fileName, new Rect(x, y, width, height), scale));
+    }
+    
+    // 렌더 스트림의 축소 프레임 요청 (느린 클라이언트용, 같은 이미지의 연속 요청은 하나로 합쳐짐)
+    // 렌더 결과를 다시 디코딩하지 않고, 미리보기(없으면 원본)를 프레임 크기로 줄인 뒤 필터를 적용해 낮은 품질로 인코딩
+    public CompletableFuture<RenderResult> requestFrameRender(String fileName, int maxDimension, int quality) {
+        if (sessionStore.get(fileName) == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("이미지 상태 없음"));
+        }
+        return renderScheduler.submit(fileName + FRAME_SUFFIX, () -> renderFrame(fileName, maxDimension, quality));
+    }
+
+    // 시작 예열: 합성 이미지를 내장 필터 조합으로 렌더/인코딩한 뒤 다시 디코딩/축소 (세션/캐시/렌더 지표에는 남기지 않음)
+    // 첫 요청 전에 네이티브 라이브러리 초기화, 인코더/디코더 초기화, 렌더 경로의 JIT 컴파일이 끝나도록 함
+    // 플러그인 필터는 값 형식을 알 수 없으므로 포함하지 않음
+    public void warmUp(int size, int iterations) {
+        Mat source = warmupImage(size);
+        try {
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                for (Map<String, Object> recipe : WARMUP_RECIPES) {
+                    warmUpRecipe(source, recipe);
+                    startupMetrics.recordRender(true);
+                }
             }
+        } finally {
+            source.release();
         }
+    }
 
-        // 원본 이미지 로드
-        String originalPath = UPLOAD_DIR + fileName;
-        Mat source = imread(originalPath);
-        if (source.empty()) {
-            throw new RuntimeException("원본 이미지를 읽을 수 없습니다: " + originalPath);
+    private void warmUpRecipe(Mat source, Map<String, Object> recipe) {
+        FilterState state = new FilterState("warmup", filterRegistry.names());
+        filterRegistry.applyRecipe(state, recipe);
+        FilterPlan plan = filterRegistry.compile(state.snapshot());
+
+        Mat image = source.clone();
+        byte[] encoded;
+        try {
+            RenderContext context = new RenderContext(image, plan.sharesLuma());
+            for (FilterPlan.Stage<?> stage : plan.getStages()) {
+                context.prepare(stage);
+                tiledExecutor.apply(stage, image);
+            }
+            context.finish();
+            encoded = matToBytes(image);
+        } finally {
+            image.release();
         }
 
-        Mat result = source.clone();
-
-        // 사용자 정의 순서로 필터 적용
-        List<String> activeFiltersInOrder = filterState.getActiveFiltersInOrder();
-        for (String filter : activeFiltersInOrder) {
-            switch (filter) {
-                case "grayscale":
-                    applyGrayscaleFilter(result, filterState);
-                    break;
-                case "blur":
-                    applyBlurFilter(result, filterState);
-                    break;
-                case "edges":
-                    applyEdgesFilter(result, filterState);
-                    break;
-                case "brightness":
-                    applyBrightnessFilter(result, filterState);
-                    break;
-                case "histogram":
-                    applyHistogramFilter(result, filterState);
-                    break;
-                case "sepia":
-                    applySepiaFilter(result, filterState);
-                    break;
-                case "sharpen":
-                    applySharpenFilter(result, filterState);
-                    break;
-                case "saturation":
-                    applySaturationFilter(result, filterState);
-                    break;
-                case "noise":
-                    applyNoiseFilter(result, filterState);
-                    break;
-                case "invert":
-                    applyInvertFilter(result, filterState);
-                    break;
+        // 업로드 준비(디코딩 -> 미리보기 축소) 경로
+        BytePointer data = new BytePointer(encoded);
+        Mat buffer = new Mat(data);
+        Mat decoded = imdecode(buffer, IMREAD_COLOR);
+        Mat resized = new Mat();
+        try {
+            if (decoded == null || decoded.empty()) {
+                throw new RuntimeException("예열 렌더 결과를 읽을 수 없습니다");
             }
+            resize(decoded, resized, new Size(decoded.cols() / 2, decoded.rows() / 2), 0, 0, INTER_AREA);
+        } finally {
+            resized.release();
+            if (decoded != null) {
+                decoded.release();
+            }
+            buffer.release();
+            data.close();
         }
+    }
 
-        // 결과를 바이트 배열로 변환
-        byte[] imageBytes = matToBytes(result);
-        
-        // 메모리에 저장
-        processedImages.put(fileName, imageBytes);
+    // 노이즈를 블러 처리한 사진 같은 BGR 이미지
+    private static Mat warmupImage(int size) {
+        Mat image = new Mat(size, size, CV_8UC3);
+        Mat low = new Mat(1, 1, CV_64FC1, new Scalar(0.0));
+        Mat high = new Mat(1, 1, CV_64FC1, new Scalar(255.0));
+        randu(image, low, high);
+        GaussianBlur(image, image, new Size(7, 7), 0);
+        low.release();
+        high.release();
+        return image;
+    }
 
-        source.release();
-        result.release();
+    private static Map<String, Object> warmupEntry(Object value) {
+        return Map.of("enabled", true, "value", value);
+    }
 
-        return imageBytes;
+    // 스트림 프레임의 기본 품질 (재인코딩이 필요 없는 기준)
+    public int getFrameQuality() {
+        return imageEncoder.getQuality();
     }
-    
-    // Mat을 바이트 배열로 변환
-    private byte[] matToBytes(Mat mat) {
-        // 시스템 임시 폴더 사용
+
+    // 활성화된 모든 필터를 원본 해상도로 순서대로 누적 적용 (동기 호출, 필터가 없으면 원본 반환)
+    public byte[] applyAllFilters(String fileName) {
+        byte[] imageBytes = render(fileName, true).imageBytes();
+        if (imageBytes != null) {
+            return imageBytes;
+        }
+        // 필터가 없으면 원본 이미지를 바이트 배열로 반환
         try {
-            Path tempDir = Paths.get(System.getProperty("java.io.tmpdir"));
-            String tempFileName = "opencv_temp_" + System.currentTimeMillis() + ".jpg";
-            Path tempFile = tempDir.resolve(tempFileName);
-            
-            imwrite(tempFile.toString(), mat);
-            byte[] bytes = Files.readAllBytes(tempFile);
-            Files.deleteIfExists(tempFile); // 임시 파일 삭제
-            return bytes;
+            return getUploadedImageBytes(fileName);
         } catch (IOException e) {
-            throw new RuntimeException("이미지 변환 실패: " + e.getMessage());
+            throw new RuntimeException("원본 이미지 읽기 실패: " + e.getMessage());
         }
     }
     
-    // 메모리에서 처리된 이미지 가져오기
-    public byte[] getProcessedImageBytes(String fileName) {
-        return processedImages.get(fileName);
+    // 현재 상태의 스냅샷으로 렌더하고 결과를 세션에 반영
+    private RenderResult render(String fileName, boolean fullResolution) {
+        // 요청 도중 상태가 바뀌어도 일관된 결과가 나오도록 불변 스냅샷으로 렌더링
+        FilterState filterState = sessionStore.snapshot(fileName);
+        ImageSessionStore.Session session = sessionStore.get(fileName);
+        if (filterState == null || session == null) {
+            return new RenderResult(-1, null);
+        }
+        // 업로드 후 준비(디코딩/미리보기)가 끝나야 미리보기 배율과 캐시된 원본을 사용할 수 있음
+        session.awaitPreparation();
+
+        // 상태가 바뀐 경우에만 실행 계획을 다시 컴파일
+        boolean preview = !fullResolution && session.hasPreview();
+        String sourceKey = sourceKey(fileName, session);
+        double scale = session.getPreviewScale();
+        FilterPlan plan = preview
+                ? session.previewPlan(filterState, snapshot -> filterRegistry.compile(snapshot, scale))
+                : session.plan(filterState, filterRegistry::compile);
+
+        String tag;
+        byte[] imageBytes = null;
+        ByteBuffer buffer = null;
+        RenderTimings timings = new RenderTimings();
+        if (plan.isEmpty()) {
+            tag = sourceTag(fileName, session);
+        } else {
+            // 같은 원본 + 같은 레시피 결과가 이미 있으면 (다른 세션의 결과라도) OpenCV 없이 재사용
+            tag = renderTag(sourceKey, preview ? previewVariant(scale) : FULL_VARIANT, filterState);
+            buffer = renderResultCache.get(tag);
+            if (buffer != null) {
+                imageBytes = new byte[buffer.remaining()];
+                buffer.duplicate().get(imageBytes);
+            } else {
+                String previewKey = sourceKey + PREVIEW_SUFFIX;
+                imageBytes = preview
+                        ? renderPlan(previewKey, plan, () -> decodedImageCache.getCopy(previewKey, () -> loadPreviewSource(fileName, sourceKey)), timings)
+                        : renderPlan(sourceKey, plan, () -> loadSource(fileName, sourceKey), timings);
+                buffer = renderResultCache.put(tag, imageBytes);
+            }
+        }
+
+        // 힙 밖 저장소에 보관 (더 최신 결과가 이미 있으면 무시됨, 내용 기반 캐시와 버퍼 공유)
+        // 미리보기가 있는 이미지의 원본 해상도 결과는 별도 키로 보관
+        String storeKey = fullResolution && session.hasPreview() ? fileName + FULL_SUFFIX : fileName;
+        processedImageStore.publish(storeKey, filterState.getVersion(), buffer, tag);
+        startupMetrics.recordRender(false);
+        return new RenderResult(filterState.getVersion(), imageBytes, tag, timings);
     }
     
-    // 처리된 이미지 다운로드용 파일명 생성
-    public String getDownloadFileName(String fileName) {
-        FilterState filterState = filterStates.get(fileName);
-        if (filterState == null) return fileName;
-        
-        StringBuilder downloadName = new StringBuilder("processed_");
-        
-        // 활성화된 필터들을 파일명에 포함
-        boolean hasActiveFilters = false;
-        if (filterState.isFilterActive("grayscale")) {
-            downloadName.append("grayscale_");
-            hasActiveFilters = true;
+    // 현재 상태의 스냅샷으로 영역만 렌더 (세션의 처리 결과에는 반영하지 않음)
+    private RenderResult renderRegion(String fileName, Rect region, double scale) {
+        FilterState filterState = sessionStore.snapshot(fileName);
+        ImageSessionStore.Session session = sessionStore.get(fileName);
+        if (filterState == null || session == null) {
+            throw new RuntimeException("이미지 상태 없음");
         }
-        if (filterState.isFilterActive("blur")) {
-            downloadName.append("blur_");
-            hasActiveFilters = true;
+        session.awaitPreparation();
+
+        // 출력 배율이 미리보기 배율 이하이면 미리보기 해상도로 충분
+        boolean preview = session.hasPreview() && scale <= session.getPreviewScale();
+        String sourceKey = sourceKey(fileName, session);
+        // 원본이 캐시에 없으면 전체를 디코딩하지 않고 출력 배율에 맞게 축소 디코딩 (JPEG 은 디코딩 단계에서 줄어듦)
+        // OpenCV 는 영역만 디코딩할 수 없으므로 출력 배율이 1/2 보다 크면 원본 전체를 디코딩해 캐시에 둠
+        int reduction = preview || decodedImageCache.contains(sourceKey) ? 1 : decodeReduction(scale);
+        double levelScale = preview ? session.getPreviewScale() : 1.0 / reduction;
+        FilterPlan plan;
+        if (preview) {
+            plan = session.previewPlan(filterState, snapshot -> filterRegistry.compile(snapshot, levelScale));
+        } else if (reduction > 1) {
+            plan = session.scaledPlan(filterState, levelScale, filterRegistry::compile);
+        } else {
+            plan = session.plan(filterState, filterRegistry::compile);
         }
-        if (filterState.isFilterActive("edges")) {
-            downloadName.append("edges_");
-            hasActiveFilters = true;
+
+        String regionName = region.x() + "," + region.y() + "," + region.width() + "x" + region.height() + "@" + scale;
+        String level = preview ? previewVariant(levelScale) : reduction > 1 ? "reduced@" + reduction : FULL_VARIANT;
+        String tag = renderTag(sourceKey, level + "|region@" + regionName, filterState);
+        ByteBuffer cached = renderResultCache.get(tag);
+        if (cached != null) {
+            byte[] imageBytes = new byte[cached.remaining()];
+            cached.duplicate().get(imageBytes);
+            return new RenderResult(filterState.getVersion(), imageBytes, tag, new RenderTimings(), regionName);
         }
-        if (filterState.isFilterActive("brightness")) {
-            downloadName.append("brightness_");
-            hasActiveFilters = true;
+
+        RenderTimings timings = new RenderTimings();
+        byte[] imageBytes;
+        if (preview) {
+            imageBytes = renderRegionPlan(sourceKey + PREVIEW_SUFFIX, plan, () -> loadPreviewSource(fileName, sourceKey), region, levelScale, scale, timings);
+        } else if (reduction > 1) {
+            int flags = reduction == 8 ? IMREAD_REDUCED_COLOR_8 : reduction == 4 ? IMREAD_REDUCED_COLOR_4 : IMREAD_REDUCED_COLOR_2;
+            imageBytes = renderRegionPlan(sourceKey + REDUCED_SUFFIX + reduction, plan, () -> decode(UPLOAD_DIR + fileName, flags), region, levelScale, scale, timings);
+        } else {
+            imageBytes = renderRegionPlan(sourceKey, plan, () -> decode(UPLOAD_DIR + fileName), region, levelScale, scale, timings);
         }
-        if (filterState.isFilterActive("histogram")) {
-            downloadName.append("histogram_");
-            hasActiveFilters = true;
+        renderResultCache.put(tag, imageBytes);
+        return new RenderResult(filterState.getVersion(), imageBytes, tag, timings, regionName);
+    }
+    
+    // 출력 배율을 유지하는 가장 큰 축소 디코딩 배수 (없으면 1)
+    private static int decodeReduction(double scale) {
+        for (int reduction : DECODE_REDUCTIONS) {
+            if (scale <= 1.0 / reduction) {
+                return reduction;
+            }
         }
-        if (filterState.isFilterActive("sepia")) {
-            downloadName.append("sepia_");
-            hasActiveFilters = true;
+        return 1;
+    }
+    
+    // 현재 상태의 스냅샷으로 축소 프레임 렌더 (세션의 처리 결과에는 반영하지 않음)
+    // 이웃 픽셀 필터 반경 등은 프레임 배율에 맞춰 컴파일하고, 단계 캐시는 사용하지 않음 (프레임 크기가 자주 바뀜)
+    private RenderResult renderFrame(String fileName, int maxDimension, int quality) {
+        FilterState filterState = sessionStore.snapshot(fileName);
+        ImageSessionStore.Session session = sessionStore.get(fileName);
+        if (filterState == null || session == null) {
+            return new RenderResult(-1, null);
         }
-        if (filterState.isFilterActive("sharpen")) {
-            downloadName.append("sharpen_");
-            hasActiveFilters = true;
+        session.awaitPreparation();
+        if (session.plan(filterState, filterRegistry::compile).isEmpty()) {
+            return new RenderResult(filterState.getVersion(), null, sourceTag(fileName, session));
         }
-        if (filterState.isFilterActive("saturation")) {
-            downloadName.append("saturation_");
-            hasActiveFilters = true;
+
+        boolean preview = session.hasPreview();
+        String sourceKey = sourceKey(fileName, session);
+        double levelScale = preview ? session.getPreviewScale() : 1.0;
+        String variant = (preview ? previewVariant(levelScale) : FULL_VARIANT) + "|frame@" + maxDimension + "q" + quality;
+        String tag = renderTag(sourceKey, variant, filterState);
+        ByteBuffer cached = renderResultCache.get(tag);
+        if (cached != null) {
+            byte[] imageBytes = new byte[cached.remaining()];
+            cached.duplicate().get(imageBytes);
+            return new RenderResult(filterState.getVersion(), imageBytes, tag);
         }
-        if (filterState.isFilterActive("noise")) {
-            downloadName.append("noise_");
-            hasActiveFilters = true;
+
+        RenderTimings timings = new RenderTimings();
+        long start = System.nanoTime();
+        double[] frameScale = {1.0};
+        Function<Mat, Mat> shrink = source -> {
+            frameScale[0] = Math.min(1.0, (double) maxDimension / Math.max(source.cols(), source.rows()));
+            if (frameScale[0] >= 1.0) {
+                return source.clone();
+            }
+            Mat resized = new Mat();
+            resize(source, resized, new Size(
+                    Math.max(1, (int) Math.round(source.cols() * frameScale[0])),
+                    Math.max(1, (int) Math.round(source.rows() * frameScale[0]))), 0, 0, INTER_AREA);
+            return resized;
+        };
+        Mat image = preview
+                ? decodedImageCache.getDerived(sourceKey + PREVIEW_SUFFIX, () -> loadPreviewSource(fileName, sourceKey), shrink)
+                : decodedImageCache.getDerived(sourceKey, () -> decode(UPLOAD_DIR + fileName), shrink);
+        if (image == null || image.empty()) {
+            throw new RuntimeException("원본 이미지를 읽을 수 없습니다: " + sourceKey);
         }
-        if (filterState.isFilterActive("invert")) {
-            downloadName.append("invert_");
-            hasActiveFilters = true;
+        timings.record("source", System.nanoTime() - start);
+
+        try {
+            FilterPlan plan = session.scaledPlan(filterState, levelScale * frameScale[0], filterRegistry::compile);
+            RenderContext context = new RenderContext(image, plan.sharesLuma());
+            for (FilterPlan.Stage<?> stage : plan.getStages()) {
+                long stageStart = System.nanoTime();
+                context.prepare(stage);
+                tiledExecutor.apply(stage, image);
+                timings.record(stage.getFilter().name(), System.nanoTime() - stageStart);
+            }
+            context.finish();
+
+            long encodeStart = System.nanoTime();
+            byte[] imageBytes = imageEncoder.encode(image, quality);
+            long encodeNanos = System.nanoTime() - encodeStart;
+            renderMetrics.recordEncode(encodeNanos);
+            timings.record("encode", encodeNanos);
+            renderResultCache.put(tag, imageBytes);
+            return new RenderResult(filterState.getVersion(), imageBytes, tag, timings);
+        } finally {
+            image.release();
         }
-        
-        if (!hasActiveFilters) {
-            downloadName.append("original_");
+    }
+    
+    private static String previewVariant(double scale) {
+        return "preview@" + scale;
+    }
+    
+    // 결과 식별값 = SHA-256(원본 해시, 해상도, 레시피 해시)
+    private String renderTag(String sourceKey, String variant, FilterState snapshot) {
+        return RenderResultCache.key(sourceKey, variant + "|" + imageEncoder.getFormat(), Long.toHexString(filterRegistry.recipeHash(snapshot)));
+    }
+    
+    // /download 응답의 ETag 값 (현재 상태의 원본 해상도 결과 기준, 렌더하지 않고 계산)
+    public String getDownloadTag(String fileName) {
+        ImageSessionStore.Session session = sessionStore.get(fileName);
+        if (session == null) {
+            return null;
         }
-        
-        downloadName.append(fileName);
-        return downloadName.toString();
+        FilterState snapshot = session.getFilterState().snapshot();
+        if (snapshot.isEmpty()) {
+            return sourceTag(fileName, session);
+        }
+        return renderTag(sourceKey(fileName, session), FULL_VARIANT, snapshot);
     }
     
-    // 개별 필터 적용 메소드들
-    private void applyGrayscaleFilter(Mat result, FilterState filterState) {
-        Object intensity = filterState.getFilterValue("grayscale");
-        double intensityValue = intensity != null ? (Double) intensity : 1.0;
-        
-        cvtColor(result, result, COLOR_BGR2GRAY);
-        cvtColor(result, result, COLOR_GRAY2BGR);
-        result.convertTo(result, -1, intensityValue, 0);
+    // cacheKey 는 원본/미리보기 구분 키 (단계 캐시도 따로 유지)
+    // 단계별 시간은 지표와 timings 에 함께 기록
+    private byte[] renderPlan(String cacheKey, FilterPlan plan, Supplier<Mat> sourceLoader, RenderTimings timings) {
+        List<FilterPlan.Stage<?>> stages = plan.getStages();
+        long[] stageKeys = computeStageKeys(cacheKey, stages);
+
+        // 변경되지 않은 앞 단계는 캐시된 중간 결과에서 이어서 처리
+        Mat result;
+        int startStage;
+        long start = System.nanoTime();
+        FilterChainCache.Resume resume = filterChainCache.resume(cacheKey, stageKeys);
+        if (resume != null) {
+            result = resume.image();
+            startStage = resume.nextStage();
+            timings.record("resume", System.nanoTime() - start);
+        } else {
+            // 원본 이미지 로드 (디코딩 캐시 사용, 결과는 복사본)
+            result = sourceLoader.get();
+            if (result == null || result.empty()) {
+                throw new RuntimeException("원본 이미지를 읽을 수 없습니다: " + cacheKey);
+            }
+            startStage = 0;
+            timings.record("source", System.nanoTime() - start);
+        }
+
+        try {
+            // 흑백 계열 단계 사이에서는 1채널 휘도를 공유 (중간 결과 캐시에도 1채널로 저장됨)
+            RenderContext context = new RenderContext(result, plan.sharesLuma());
+            for (int stage = startStage; stage < stages.size(); stage++) {
+                // 큰 이미지는 타일로 나눠 여러 코어에서 처리
+                FilterPlan.Stage<?> current = stages.get(stage);
+                long stageStart = System.nanoTime();
+                context.prepare(current);
+                applyStage(cacheKey, stageKeys, stage, current, result);
+                long stageNanos = System.nanoTime() - stageStart;
+                renderMetrics.recordStage(current.getFilter().name(), stageNanos);
+                timings.record(current.getFilter().name(), stageNanos);
+                filterChainCache.store(cacheKey, stage, stageKeys[stage], result);
+            }
+
+            context.finish();
+
+            // 결과를 바이트 배열로 변환
+            long encodeStart = System.nanoTime();
+            byte[] encoded = matToBytes(result);
+            long encodeNanos = System.nanoTime() - encodeStart;
+            renderMetrics.recordEncode(encodeNanos);
+            timings.record("encode", encodeNanos);
+            return encoded;
+        } finally {
+            result.release();
+        }
     }
     
-    private void applyBlurFilter(Mat result, FilterState filterState) {
-        Object kernelSize = filterState.getFilterValue("blur");
-        int blurValue = kernelSize != null ? (Integer) kernelSize : 5;
-        GaussianBlur(result, result, new Size(blurValue, blurValue), 0);
+    // 영역 렌더: 요청 영역에 halo 를 붙여 잘라낸 작업 이미지로 처리한 뒤 요청 영역만 인코딩
+    // - 이웃 픽셀 필터(블러/샤픈/엣지)는 뒤따르는 단계의 halo 합만큼 영역 밖을 함께 처리하므로 안쪽 결과가 전체 렌더와 같음
+    // - 전체 통계 연산(히스토그램)은 캐시된 이미지 전체 통계로 적용 (영역만의 통계를 쓰지 않음)
+    // - 영역으로 나눌 수 없는 단계(halo 를 정할 수 없는 플러그인)까지는 전체 이미지로 처리 (단계 캐시 사용)
+    // sourceLoader 는 캐시에 없을 때 원본(또는 미리보기)을 새로 만들어 반환
+    private byte[] renderRegionPlan(String cacheKey, FilterPlan plan, Supplier<Mat> sourceLoader,
+                                    Rect region, double levelScale, double scale, RenderTimings timings) {
+        Mat output = renderRegionImage(cacheKey, plan, sourceLoader, region, levelScale, scale, timings);
+        try {
+            long encodeStart = System.nanoTime();
+            byte[] encoded = matToBytes(output);
+            long encodeNanos = System.nanoTime() - encodeStart;
+            renderMetrics.recordEncode(encodeNanos);
+            timings.record("encode", encodeNanos);
+            return encoded;
+        } finally {
+            output.release();
+        }
+    }
+
+    // 영역 렌더 결과 (요청 영역만 출력 배율로 축소), 반환된 Mat은 호출자가 소유
+    Mat renderRegionImage(String cacheKey, FilterPlan plan, Supplier<Mat> sourceLoader,
+                          Rect region, double levelScale, double scale, RenderTimings timings) {
+        List<FilterPlan.Stage<?>> stages = plan.getStages();
+        long[] stageKeys = computeStageKeys(cacheKey, stages);
+
+        // 마지막으로 영역에서 실행할 수 없는 단계 다음부터 영역에서 실행
+        int regionStart = 0;
+        int haloSum = 0;
+        for (int stage = 0; stage < stages.size(); stage++) {
+            int radius = regionHalo(stages.get(stage));
+            if (radius == ImageFilter.WHOLE_IMAGE) {
+                regionStart = stage + 1;
+                haloSum = 0;
+            } else {
+                haloSum += radius;
+            }
+        }
+        int halo = haloSum;
+
+        long start = System.nanoTime();
+        RegionWindow[] window = new RegionWindow[1];
+        Mat image;
+        if (regionStart == 0) {
+            // 원본 전체를 복사하지 않고 필요한 영역만 복사
+            image = decodedImageCache.getRegionCopy(cacheKey, sourceLoader, source -> {
+                window[0] = RegionWindow.of(source.cols(), source.rows(), region, levelScale, halo);
+                return window[0].outer();
+            });
+            if (image == null || image.empty()) {
+                throw new RuntimeException("원본 이미지를 읽을 수 없습니다: " + cacheKey);
+            }
+        } else {
+            Mat full = renderFullFrame(cacheKey, plan, stageKeys, regionStart, sourceLoader);
+            try {
+                window[0] = RegionWindow.of(full.cols(), full.rows(), region, levelScale, halo);
+                Mat view = new Mat(full, window[0].outer());
+                image = view.clone();
+                view.release();
+            } finally {
+                full.release();
+            }
+        }
+        timings.record("source", System.nanoTime() - start);
+
+        Mat inner = null;
+        try {
+            RenderContext context = new RenderContext(image, plan.sharesLuma());
+            for (int stage = regionStart; stage < stages.size(); stage++) {
+                FilterPlan.Stage<?> current = stages.get(stage);
+                long stageStart = System.nanoTime();
+                context.prepare(current);
+                applyRegionStage(cacheKey, plan, stageKeys, stage, current, image, sourceLoader);
+                timings.record(current.getFilter().name(), System.nanoTime() - stageStart);
+            }
+            context.finish();
+
+            // halo 를 버리고 요청 영역만 출력 배율로 축소
+            inner = new Mat(image, window[0].inner());
+            double outputScale = scale / levelScale;
+            if (outputScale < 1.0) {
+                Size size = new Size(
+                        Math.max(1, (int) Math.round(inner.cols() * outputScale)),
+                        Math.max(1, (int) Math.round(inner.rows() * outputScale)));
+                Mat resized = new Mat();
+                resize(inner, resized, size, 0, 0, INTER_AREA);
+                inner.release();
+                inner = null;
+                return resized;
+            }
+            // 축소하지 않으면 작업 이미지를 공유하는 안쪽 영역을 그대로 반환 (작업 이미지 헤더만 해제)
+            Mat output = inner;
+            inner = null;
+            return output;
+        } finally {
+            if (inner != null) {
+                inner.release();
+            }
+            image.release();
+        }
     }
     
-    private void applyEdgesFilter(Mat result, FilterState filterState) {
-        Object threshold = filterState.getFilterValue("edges");
-        int edgeThreshold = threshold != null ? (Integer) threshold : 100;
-        
-        Mat gray = new Mat();
-        Mat edges = new Mat();
-        cvtColor(result, gray, COLOR_BGR2GRAY);
-        Canny(gray, edges, edgeThreshold, edgeThreshold * 1.5);
-        cvtColor(edges, result, COLOR_GRAY2BGR);
-        gray.release();
-        edges.release();
-    }
-    
-    private void applyBrightnessFilter(Mat result, FilterState filterState) {
-        Object alpha = filterState.getFilterValue("brightness_alpha");
-        Object beta = filterState.getFilterValue("brightness_beta");
-        
-        double alphaValue = alpha != null ? (Double) alpha : 1.0;
-        double betaValue = beta != null ? (Double) beta : 0.0;
-        
-        result.convertTo(result, -1, alphaValue, betaValue);
+    // 영역 렌더에서 단계가 요청 영역 밖에서 읽는 픽셀 반경 (전체 통계 연산은 통계만 있으면 픽셀 단위)
+    private static <P> int regionHalo(FilterPlan.Stage<P> stage) {
+        if (stage.getFilter() instanceof GlobalOperation<P>) {
+            return 0;
+        }
+        return stage.getFilter().regionHaloRadius(stage.getParams());
     }
     
-    private void applyHistogramFilter(Mat result, FilterState filterState) {
-        Object intensity = filterState.getFilterValue("histogram");
-        double intensityValue = intensity != null ? (Double) intensity : 1.0;
-        
-        Mat gray = new Mat();
-        Mat equalized = new Mat();
-        cvtColor(result, gray, COLOR_BGR2GRAY);
-        equalizeHist(gray, equalized);
-        cvtColor(equalized, result, COLOR_GRAY2BGR);
-        result.convertTo(result, -1, intensityValue, 0);
-        gray.release();
-        equalized.release();
-    }
-    
-    private void applySepiaFilter(Mat result, FilterState filterState) {
-        Object intensity = filterState.getFilterValue("sepia");
-        double intensityValue = intensity != null ? (Double) intensity : 1.0;
-        
-        Mat gray = new Mat();
-        cvtColor(result, gray, COLOR_BGR2GRAY);
-        cvtColor(gray, result, COLOR_GRAY2BGR);
-        result.convertTo(result, -1, intensityValue, 30);
-        gray.release();
+    private <P> void applyRegionStage(String cacheKey, FilterPlan plan, long[] stageKeys, int index,
+                                      FilterPlan.Stage<P> stage, Mat image, Supplier<Mat> sourceLoader) {
+        if (stage.getFilter() instanceof GlobalOperation<P> global) {
+            long[] statistics = imageStatistics(cacheKey, plan, stageKeys, index, global, stage.getParams(), sourceLoader);
+            global.applyWithStatistics(image, stage.getParams(), statistics);
+        } else {
+            tiledExecutor.apply(stage, image);
+        }
     }
     
-    private void applySharpenFilter(Mat result, FilterState filterState) {
-        Object intensity = filterState.getFilterValue("sharpen");
-        double intensityValue = intensity != null ? (Double) intensity : 1.0;
-        
-        Mat kernel = new Mat(3, 3, CV_32F);
-        kernel.ptr(0).putFloat(0.0f);
-        kernel.ptr(0).putFloat(-1.0f);
-        kernel.ptr(0).putFloat(0.0f);
-        kernel.ptr(1).putFloat(-1.0f);
-        kernel.ptr(1).putFloat(5.0f);
-        kernel.ptr(1).putFloat(-1.0f);
-        kernel.ptr(2).putFloat(0.0f);
-        kernel.ptr(2).putFloat(-1.0f);
-        kernel.ptr(2).putFloat(0.0f);
-        
-        Mat sharpened = new Mat();
-        filter2D(result, sharpened, -1, kernel);
-        addWeighted(result, 1.0 - intensityValue, sharpened, intensityValue, 0.0, result);
-        
-        kernel.release();
-        sharpened.release();
+    // 전체 통계 연산의 이미지 전체 통계
+    // 캐시에 없으면 그 단계 입력까지 전체 이미지로 렌더해 수집 (단계 캐시에서 이어서 처리)
+    private <P> long[] imageStatistics(String cacheKey, FilterPlan plan, long[] stageKeys, int index,
+                                       GlobalOperation<P> filter, P params, Supplier<Mat> sourceLoader) {
+        long key = statisticsKey(cacheKey, stageKeys, index, filter);
+        long[] statistics = globalStatisticsCache.get(key);
+        if (statistics != null) {
+            return statistics;
+        }
+
+        Mat input = renderFullFrame(cacheKey, plan, stageKeys, index, sourceLoader);
+        try {
+            // 단계를 실행할 때와 같은 형태(휘도/BGR)에서 수집
+            new RenderContext(input, plan.sharesLuma()).prepare(plan.getStages().get(index));
+            statistics = tiledExecutor.collect(filter, params, input);
+        } finally {
+            input.release();
+        }
+        globalStatisticsCache.put(key, statistics);
+        return statistics;
     }
     
-    private void applySaturationFilter(Mat result, FilterState filterState) {
-        Object intensity = filterState.getFilterValue("saturation");
-        double intensityValue = intensity != null ? (Double) intensity : 1.0;
-        
-        // 간단한 채도 조정: 그레이스케일 변환 후 원본과 블렌딩
-        Mat gray = new Mat();
-        cvtColor(result, gray, COLOR_BGR2GRAY);
-        cvtColor(gray, gray, COLOR_GRAY2BGR);
-        
-        addWeighted(result, intensityValue, gray, 1.0 - intensityValue, 0.0, result);
-        
-        gray.release();
+    // 단계 end 직전까지 전체 이미지로 렌더한 작업 이미지 (단계 캐시에서 이어서 처리하고 결과도 저장)
+    // 휘도를 공유 중이면 1채널일 수 있음, 반환된 Mat은 호출자가 소유
+    private Mat renderFullFrame(String cacheKey, FilterPlan plan, long[] stageKeys, int end, Supplier<Mat> sourceLoader) {
+        List<FilterPlan.Stage<?>> stages = plan.getStages();
+        FilterChainCache.Resume resume = end > 0 ? filterChainCache.resume(cacheKey, Arrays.copyOf(stageKeys, end)) : null;
+        Mat image;
+        int startStage;
+        if (resume != null) {
+            image = resume.image();
+            startStage = resume.nextStage();
+        } else {
+            image = decodedImageCache.getCopy(cacheKey, sourceLoader);
+            if (image == null || image.empty()) {
+                throw new RuntimeException("원본 이미지를 읽을 수 없습니다: " + cacheKey);
+            }
+            startStage = 0;
+        }
+
+        try {
+            RenderContext context = new RenderContext(image, plan.sharesLuma());
+            for (int stage = startStage; stage < end; stage++) {
+                FilterPlan.Stage<?> current = stages.get(stage);
+                long stageStart = System.nanoTime();
+                context.prepare(current);
+                applyStage(cacheKey, stageKeys, stage, current, image);
+                renderMetrics.recordStage(current.getFilter().name(), System.nanoTime() - stageStart);
+                filterChainCache.store(cacheKey, stage, stageKeys[stage], image);
+            }
+            return image;
+        } catch (RuntimeException e) {
+            image.release();
+            throw e;
+        }
     }
     
-    private void applyNoiseFilter(Mat result, FilterState filterState) {
-        Object intensity = filterState.getFilterValue("noise");
-        int noiseValue = intensity != null ? (Integer) intensity : 10;
-        
-        // 간단한 노이즈 효과: 밝기 조정으로 시뮬레이션
-        result.convertTo(result, -1, 1.0, noiseValue);
-        
-        // 값 범위 제한
-        result.convertTo(result, -1, 1.0, 0);
+    // 단계 하나를 전체 이미지에 적용 (큰 이미지는 타일로 나눠 여러 코어에서 처리)
+    // 타일로 모은 전체 통계는 캐시해 같은 입력의 영역 렌더가 다시 모으지 않도록 함
+    private <P> void applyStage(String cacheKey, long[] stageKeys, int index, FilterPlan.Stage<P> stage, Mat image) {
+        if (stage.getFilter() instanceof GlobalOperation<P> global && tiledExecutor.shouldTile(image)) {
+            long key = statisticsKey(cacheKey, stageKeys, index, global);
+            long[] statistics = globalStatisticsCache.get(key);
+            if (statistics == null) {
+                statistics = tiledExecutor.collect(global, stage.getParams(), image);
+                globalStatisticsCache.put(key, statistics);
+            }
+            tiledExecutor.applyWithStatistics(global, stage.getParams(), image, statistics);
+        } else {
+            tiledExecutor.apply(stage, image);
+        }
+    }
+    
+    // 전체 통계 캐시 키 = 단계 입력의 누적 키 + 필터 이름 (통계는 파라미터와 무관)
+    private static long statisticsKey(String cacheKey, long[] stageKeys, int index, ImageFilter<?> filter) {
+        long inputKey = index == 0 ? FilterChainCache.sourceKey(cacheKey) : stageKeys[index - 1];
+        return FilterChainCache.stageKey(inputKey, StableHash.of(filter.name()));
+    }
+    
+    // 영역 렌더의 처리 범위 (작업 이미지 해상도 기준)
+    // outer 는 halo 를 포함해 잘라낼 영역, inner 는 그 안에서 요청 영역의 위치
+    private record RegionWindow(Rect outer, Rect inner) {
+
+        static RegionWindow of(int cols, int rows, Rect region, double levelScale, int halo) {
+            int x0 = (int) Math.floor(region.x() * levelScale);
+            int y0 = (int) Math.floor(region.y() * levelScale);
+            if (x0 >= cols || y0 >= rows) {
+                throw new IllegalArgumentException("영역이 이미지 밖입니다: " + region.x() + "," + region.y());
+            }
+            int x1 = Math.min(cols, (int) Math.ceil((region.x() + (double) region.width()) * levelScale));
+            int y1 = Math.min(rows, (int) Math.ceil((region.y() + (double) region.height()) * levelScale));
+
+            // 이미지 가장자리에서는 halo 가 잘리므로 전체 이미지 처리와 같은 테두리 처리가 적용됨
+            int outerX0 = Math.max(0, x0 - halo);
+            int outerY0 = Math.max(0, y0 - halo);
+            int outerX1 = Math.min(cols, x1 + halo);
+            int outerY1 = Math.min(rows, y1 + halo);
+            return new RegionWindow(
+                    new Rect(outerX0, outerY0, outerX1 - outerX0, outerY1 - outerY0),
+                    new Rect(x0 - outerX0, y0 - outerY0, x1 - x0, y1 - y0));
+        }
+    }
+    
+    // 단계별 누적 키 계산 (원본 + 단계 목록 + 파라미터)
+    private long[] computeStageKeys(String fileName, List<FilterPlan.Stage<?>> stages) {
+        long[] keys = new long[stages.size()];
+        long key = FilterChainCache.sourceKey(fileName);
+        for (int i = 0; i < stages.size(); i++) {
+            key = FilterChainCache.stageKey(key, stages.get(i).getHash());
+            keys[i] = key;
+        }
+        return keys;
+    }
+    
+    // Mat을 바이트 배열로 변환 (임시 파일 없이 메모리에서 인코딩)
+    private byte[] matToBytes(Mat mat) {
+        return imageEncoder.encode(mat);
+    }
+    
+    // 메모리에서 처리된 이미지 가져오기
+    // 저장소에서 제거됐지만 적용할 필터가 있으면 FilterState로부터 다시 렌더
+    public byte[] getProcessedImageBytes(String fileName) {
+        byte[] imageBytes = processedImageStore.get(fileName);
+        if (imageBytes != null) {
+            return imageBytes;
+        }
+
+        FilterState filterState = sessionStore.snapshot(fileName);
+        if (filterState == null || filterState.isEmpty()) {
+            return null;
+        }
+        processedImageStore.recordRebuild();
+        return await(requestRender(fileName)).imageBytes();
     }
     
-    private void applyInvertFilter(Mat result, FilterState filterState) {
-        Object intensity = filterState.getFilterValue("invert");
-        double intensityValue = intensity != null ? (Double) intensity : 1.0;
+    // 처리된 이미지를 힙 밖 버퍼 그대로 반환 (필터가 없으면 null)
+    public ByteBuffer getProcessedImageBuffer(String fileName) {
+        ByteBuffer buffer = processedImageStore.getBuffer(fileName);
+        if (buffer != null) {
+            return buffer;
+        }
+        // 저장소에서 제거된 경우 다시 렌더 (렌더 결과는 이미 힙에 있으므로 그대로 감쌈)
+        byte[] imageBytes = getProcessedImageBytes(fileName);
+        return imageBytes != null ? ByteBuffer.wrap(imageBytes) : null;
+    }
+    
+    // /processed, /image 응답용: 마지막으로 완료된 렌더의 버전/식별값/이미지 (렌더를 기다리지 않음, 세션이 없으면 null)
+    // 아직 반영된 결과가 없으면 원본의 식별값을 사용하고, 적용할 필터가 있으면 제거된 것과 같이 다시 렌더하도록 표시
+    public ProcessedImageStore.Published getProcessedImage(String fileName) {
+        ImageSessionStore.Session session = sessionStore.get(fileName);
+        if (session == null) {
+            return null;
+        }
+        ProcessedImageStore.Published published = processedImageStore.getPublished(fileName);
+        if (published.tag() != null) {
+            return published;
+        }
+        boolean unrendered = published.version() < 0 && !session.getFilterState().snapshot().isEmpty();
+        return new ProcessedImageStore.Published(published.version(), sourceTag(fileName, session), published.buffer(),
+                published.evicted() || unrendered);
+    }
+    
+    // 저장소에서 제거된(또는 아직 렌더 전인) 결과를 다시 렌더 (렌더 결과의 버전/식별값과 함께 반환)
+    public ProcessedImageStore.Published rebuildProcessedImage(String fileName) {
+        processedImageStore.recordRebuild();
+        RenderResult result = await(requestRender(fileName));
+        if (result.imageBytes() == null) {
+            return getProcessedImage(fileName);
+        }
+        return new ProcessedImageStore.Published(result.version(), result.tag(), ByteBuffer.wrap(result.imageBytes()), false);
+    }
+    
+    // 다운로드용 원본 해상도 결과 (필터가 없으면 null)
+    // 편집 중에는 미리보기만 렌더하므로 현재 상태의 원본 해상도 결과가 없으면 여기서 렌더
+    public ByteBuffer getFullResolutionImageBuffer(String fileName) {
+        ImageSessionStore.Session session = sessionStore.get(fileName);
+        if (session == null || !session.hasPreview()) {
+            return getProcessedImageBuffer(fileName);
+        }
+
+        FilterState filterState = sessionStore.snapshot(fileName);
+        if (filterState == null || filterState.isEmpty()) {
+            return null;
+        }
+        String fullKey = fileName + FULL_SUFFIX;
+        if (processedImageStore.getVersion(fullKey) == filterState.getVersion()) {
+            ByteBuffer buffer = processedImageStore.getBuffer(fullKey);
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        byte[] imageBytes = await(requestFullRender(fileName)).imageBytes();
+        return imageBytes != null ? ByteBuffer.wrap(imageBytes) : null;
+    }
+    
+    // 동기 호출용 대기: 렌더 실패 원인(ComputeRejectedException 등)을 CompletionException 으로 감싸지 않고 그대로 던짐
+    // (컨트롤러의 예외 처리기가 원인별 상태 코드로 응답할 수 있도록)
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    // 처리된 이미지 다운로드용 파일명 생성
+    public String getDownloadFileName(String fileName) {
+        FilterState filterState = sessionStore.snapshot(fileName);
+        if (filterState == null) return fileName;
         
-        Mat inverted = new Mat();
-        bitwise_not(result, inverted);
+        StringBuilder downloadName = new StringBuilder("processed_");
         
-        addWeighted(result, 1.0 - intensityValue, inverted, intensityValue, 0.0, result);
+        // 활성화된 필터들을 파일명에 포함 (등록된 필터의 기본 순서)
+        boolean hasActiveFilters = false;
+        for (String filter : filterRegistry.names()) {
+            if (filterState.isFilterActive(filter)) {
+                downloadName.append(filter).append("_");
+                hasActiveFilters = true;
+            }
+        }
         
-        inverted.release();
+        if (!hasActiveFilters) {
+            downloadName.append("original_");
+        }
+        
+        downloadName.append(fileName);
+        return downloadName.toString();
     }
     
     // 필터 활성화 상태 설정 메소드 (새로운 구조용)
     public void setFilterActive(String fileName, String filterName, boolean active) {
-        FilterState filterState = filterStates.get(fileName);
-        if (filterState != null) {
-            filterState.setFilterActive(filterName, active);
+        if (filterRegistry.get(filterName) == null) {
+            throw new IllegalArgumentException("알 수 없는 필터: " + filterName);
         }
+        sessionStore.update(fileName, state -> state.setFilterActive(filterName, active));
     }
     
     public void resetFilters(String fileName) {
-        FilterState filterState = filterStates.get(fileName);
-        if (filterState != null) {
-            filterState.clear();
+        sessionStore.update(fileName, FilterState::clear);
+    }
+    
+    // 요청 JSON ({필터명: {enabled, value}}) 을 한 번에 반영
+    public void updateFilters(String fileName, Map<String, Object> filterData) {
+        updateFilterState(fileName, filterState -> filterRegistry.applyRecipe(filterState, filterData));
+    }
+    
+    // 적용 순서 변경 (요청 값은 등록된 필터 이름인지 먼저 검증)
+    public void updateFilterOrder(String fileName, Object order) {
+        List<String> newOrder = filterRegistry.checkOrder(order);
+        updateFilterState(fileName, filterState -> filterState.setFilterOrder(newOrder));
+    }
+    
+    // 여러 필터 값을 한 번에 변경 (이미지 단위 락 안에서 실행)
+    public void updateFilterState(String fileName, Consumer<FilterState> mutation) {
+        if (!sessionStore.update(fileName, mutation)) {
+            throw new RuntimeException("이미지 상태 없음");
         }
     }
     
     public FilterState getFilterState(String fileName) {
-        return filterStates.get(fileName);
+        ImageSessionStore.Session session = sessionStore.get(fileName);
+        return session != null ? session.getFilterState() : null;
+    }
+    
+    // 디코딩/단계 캐시 통계 (캐시 크기 조정용)
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hits", decodedImageCache.getHitCount());
+        stats.put("misses", decodedImageCache.getMissCount());
+        stats.put("evictions", decodedImageCache.getEvictionCount());
+        stats.put("entries", decodedImageCache.size());
+        stats.put("residentBytes", decodedImageCache.getResidentBytes());
+        stats.put("maxBytes", decodedImageCache.getMaxBytes());
+        stats.put("stageResumes", filterChainCache.getResumeCount());
+        stats.put("stagesSkipped", filterChainCache.getSkippedStageCount());
+        stats.put("stageResidentBytes", filterChainCache.getResidentBytes());
+        stats.put("renderRequests", renderScheduler.getSubmittedCount());
+        stats.put("rendersExecuted", renderScheduler.getExecutedCount());
+        stats.put("processedEntries", processedImageStore.size());
+        stats.put("processedResidentBytes", processedImageStore.getResidentBytes());
+        stats.put("processedEvictions", processedImageStore.getEvictionCount());
+        stats.put("processedExpirations", processedImageStore.getExpirationCount());
+        stats.put("processedRebuilds", processedImageStore.getRebuildCount());
+        stats.put("tiledStages", tiledExecutor.getTiledStageCount());
+        stats.put("statisticsHits", globalStatisticsCache.getHitCount());
+        stats.put("statisticsMisses", globalStatisticsCache.getMissCount());
+        stats.put("resultHits", renderResultCache.getHitCount());
+        stats.put("resultMisses", renderResultCache.getMissCount());
+        stats.put("resultEvictions", renderResultCache.getEvictionCount());
+        stats.put("resultResidentBytes", renderResultCache.getResidentBytes());
+        stats.put("computeActive", computeExecutor.getActiveCount());
+        stats.put("computeQueued", computeExecutor.getQueuedCount());
+        stats.put("computeRejected", computeExecutor.getRejectedCount());
+        MatPool matPool = MatPool.shared();
+        stats.put("scratchLeases", matPool.getLeaseCount());
+        stats.put("scratchAllocations", matPool.getAllocationCount());
+        stats.put("scratchOutstanding", matPool.getOutstandingCount());
+        stats.put("scratchIdleBytes", matPool.getIdleBytes());
+        stats.put("pointKernelsVector", PointBackend.getVectorApplicationCount());
+        stats.put("pointKernelsOpenCv", PointBackend.getOpenCvApplicationCount());
+        stats.put("startupFirstRenderMillis", startupMetrics.getFirstRenderMillis());
+        stats.put("startupFirstRequestRenderMillis", startupMetrics.getFirstRequestRenderMillis());
+        return stats;
     }
 } 
\ No newline at end of file
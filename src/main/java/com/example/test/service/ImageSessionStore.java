@@ -0,0 +1,295 @@
+package com.example.test.service;
+
+import com.example.test.filter.FilterPlan;
+import com.example.test.model.FilterState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// 이미지별 세션 상태 저장소
+// 조회는 ConcurrentHashMap으로 락 없이 처리하고, 상태 변경은 이미지별 FilterState 모니터로만 보호하므로
+// 서로 다른 이미지에 대한 요청은 경합하지 않음
+// 생성/변경/삭제는 FilterStateRepository 에 함께 기록되어 재시작 후 복구되고,
+// 공유 저장소를 쓰면 check-interval 마다 한 번씩 다른 노드의 변경을 확인해 다시 읽음
+@Component
+public class ImageSessionStore {
+
+    // 배율을 지정해 컴파일 (FilterRegistry::compile)
+    public interface ScaledCompiler {
+        FilterPlan compile(FilterState snapshot, double scale);
+    }
+
+    // 배율별 실행 계획의 배율 단위 (1/1024 로 맞춰 컴파일하고 같은 단위끼리 공유)
+    private static final int SCALE_STEPS = 1024;
+    // 세션별로 보관하는 배율별 실행 계획 수 (넘으면 비우고 다시 채움)
+    private static final int MAX_SCALED_PLANS = 8;
+
+    public static final class Session {
+        private final FilterState filterState;
+        // 마지막으로 컴파일된 실행 계획 (상태가 바뀔 때만 다시 컴파일)
+        private FilterPlan plan;
+        private FilterPlan previewPlan;
+        // 축소 프레임/축소 디코딩 영역 렌더용 배율별 실행 계획 (모두 scaledVersion 상태 기준)
+        // (배율 단위 수 -> 계획, 작은 배열을 순서대로 찾음)
+        private final int[] scaledSteps = new int[MAX_SCALED_PLANS];
+        private final FilterPlan[] scaledPlans = new FilterPlan[MAX_SCALED_PLANS];
+        private int scaledCount;
+        private long scaledVersion = -1;
+        // 원본 대비 미리보기 이미지 배율 (1.0 이면 미리보기 없이 원본 해상도로 편집)
+        private volatile double previewScale = 1.0;
+        // 원본 내용 해시 (같은 파일을 올린 세션끼리 디코딩/렌더 결과를 공유하는 키)
+        private volatile String sourceHash;
+        // 공유 저장소에서 마지막으로 읽거나 쓴 항목의 revision
+        private volatile long revision = -1;
+        // revision 을 마지막으로 확인한 시각 (System.nanoTime)
+        private volatile long checkedNanos;
+        // 업로드 직후의 원본 디코딩/미리보기 준비 작업 (끝나면 null)
+        private volatile FutureTask<?> preparation;
+
+        private Session(FilterState filterState) {
+            this.filterState = filterState;
+        }
+
+        public FilterState getFilterState() {
+            return filterState;
+        }
+
+        public synchronized FilterPlan plan(FilterState snapshot, Function<FilterState, FilterPlan> compiler) {
+            if (plan == null || plan.getVersion() != snapshot.getVersion()) {
+                plan = compiler.apply(snapshot);
+            }
+            return plan;
+        }
+
+        // 미리보기 배율에 맞게 파라미터를 조정한 실행 계획
+        public synchronized FilterPlan previewPlan(FilterState snapshot, Function<FilterState, FilterPlan> compiler) {
+            if (previewPlan == null || previewPlan.getVersion() != snapshot.getVersion()) {
+                previewPlan = compiler.apply(snapshot);
+            }
+            return previewPlan;
+        }
+
+        // 임의 배율의 실행 계획 (배율은 1/1024 단위로 맞춰 컴파일, 요청마다 다시 컴파일하지 않도록 상태 버전 + 배율 기준으로 보관)
+        public synchronized FilterPlan scaledPlan(FilterState snapshot, double scale, ScaledCompiler compiler) {
+            if (scaledVersion != snapshot.getVersion()) {
+                scaledCount = 0;
+                scaledVersion = snapshot.getVersion();
+            }
+            int steps = Math.max(1, (int) Math.round(Math.min(scale, 1.0) * SCALE_STEPS));
+            for (int i = 0; i < scaledCount; i++) {
+                if (scaledSteps[i] == steps) {
+                    return scaledPlans[i];
+                }
+            }
+            if (scaledCount == MAX_SCALED_PLANS) {
+                scaledCount = 0;
+            }
+            FilterPlan compiled = compiler.compile(snapshot, (double) steps / SCALE_STEPS);
+            scaledSteps[scaledCount] = steps;
+            scaledPlans[scaledCount++] = compiled;
+            return compiled;
+        }
+
+        public double getPreviewScale() {
+            return previewScale;
+        }
+
+        public void setPreviewScale(double previewScale) {
+            this.previewScale = previewScale;
+        }
+
+        public boolean hasPreview() {
+            return previewScale < 1.0;
+        }
+
+        public String getSourceHash() {
+            return sourceHash;
+        }
+
+        public void setSourceHash(String sourceHash) {
+            this.sourceHash = sourceHash;
+        }
+
+        public void setPreparation(FutureTask<?> preparation) {
+            this.preparation = preparation;
+        }
+
+        // 준비 작업이 아직 시작되지 않았으면 현재 스레드에서 실행하고, 실행 중이면 끝날 때까지 대기
+        // (연산 풀 대기열에 남은 작업을 같은 풀의 스레드가 기다리며 멈추지 않도록)
+        public void awaitPreparation() {
+            FutureTask<?> task = preparation;
+            if (task == null) {
+                return;
+            }
+            task.run();
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // 준비에 실패해도 렌더 경로에서 다시 디코딩함
+            }
+            preparation = null;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final FilterStateRepository repository;
+    private final FilterStateCodec codec;
+    // 공유 저장소 변경 확인 간격 (이 시간 안의 조회는 공유 파일 시스템에 접근하지 않음)
+    private final long checkIntervalNanos;
+
+    // 저장하지 않는 메모리 전용 저장소
+    public ImageSessionStore() {
+        this(FilterStateRepository.NONE, null, 0);
+    }
+
+    @Autowired
+    public ImageSessionStore(
+        FilterStateRepository repository,
+        FilterStateCodec codec,
+        @Value("${image.sessions.shared.check-interval-millis:200}") long checkIntervalMillis
+    ) {
+        this.repository = repository;
+        this.codec = codec;
+        this.checkIntervalNanos = checkIntervalMillis * 1_000_000;
+        // 공유 저장소는 처음 조회할 때 읽음
+        if (codec != null && !repository.isShared()) {
+            recover();
+        }
+    }
+
+    private void recover() {
+        long start = System.nanoTime();
+        for (FilterStateRepository.Entry entry : repository.findAll()) {
+            try {
+                sessions.put(entry.fileName(), restore(entry));
+            } catch (RuntimeException e) {
+                System.err.println("세션 복구 실패 (" + entry.fileName() + "): " + e.getMessage());
+            }
+        }
+        if (!sessions.isEmpty()) {
+            System.out.println("세션 " + sessions.size() + "개 복구 (" + (System.nanoTime() - start) / 1_000_000 + "ms)");
+        }
+    }
+
+    private Session restore(FilterStateRepository.Entry entry) {
+        Session session = new Session(codec.decode(entry.fileName(), entry.recipe(), entry.version()));
+        session.setSourceHash(entry.sourceHash());
+        session.setPreviewScale(entry.previewScale());
+        return session;
+    }
+
+    public Session create(String fileName) {
+        return put(fileName, new FilterState(fileName));
+    }
+
+    public Session create(String fileName, List<String> defaultOrder) {
+        return put(fileName, new FilterState(fileName, defaultOrder));
+    }
+
+    private Session put(String fileName, FilterState filterState) {
+        Session session = new Session(filterState);
+        sessions.put(fileName, session);
+        save(fileName, session);
+        return session;
+    }
+
+    public Session get(String fileName) {
+        Session session = sessions.get(fileName);
+        if (codec == null || !repository.isShared()) {
+            return session;
+        }
+
+        // 최근에 확인했으면 그대로 사용 (다른 노드의 변경은 최대 check-interval 늦게 보임)
+        long now = System.nanoTime();
+        if (session != null && now - session.checkedNanos < checkIntervalNanos) {
+            return session;
+        }
+
+        // 다른 노드가 바꿨거나 삭제했으면 다시 읽음
+        long revision = repository.revision(fileName);
+        if (revision == -1) {
+            if (session != null) {
+                sessions.remove(fileName, session);
+            }
+            return null;
+        }
+        if (session != null && session.revision == revision) {
+            session.checkedNanos = now;
+            return session;
+        }
+        FilterStateRepository.Entry entry = repository.find(fileName);
+        if (entry == null) {
+            return null;
+        }
+        Session loaded = restore(entry);
+        loaded.revision = revision;
+        loaded.checkedNanos = now;
+        sessions.put(fileName, loaded);
+        return loaded;
+    }
+
+    public Session remove(String fileName) {
+        Session session = sessions.remove(fileName);
+        repository.delete(fileName);
+        return session;
+    }
+
+    // 세션 필드(원본 해시, 미리보기 배율)를 바꾼 뒤 저장소에 반영
+    public void save(String fileName) {
+        Session session = sessions.get(fileName);
+        if (session != null) {
+            FilterState filterState = session.getFilterState();
+            synchronized (filterState) {
+                save(fileName, session);
+            }
+        }
+    }
+
+    private void save(String fileName, Session session) {
+        if (codec == null) {
+            return;
+        }
+        FilterState snapshot = session.getFilterState().snapshot();
+        repository.save(new FilterStateRepository.Entry(
+            fileName, session.getSourceHash(), session.getPreviewScale(), snapshot.getVersion(), codec.encode(snapshot)));
+        if (repository.isShared()) {
+            session.revision = repository.revision(fileName);
+            session.checkedNanos = System.nanoTime();
+        }
+    }
+
+    // 이미지 락을 잡은 상태에서 여러 필드를 원자적으로 변경
+    // 변경 내용은 같은 락 안에서 저장소에 기록 (같은 이미지의 기록 순서가 변경 순서와 같도록)
+    public boolean update(String fileName, Consumer<FilterState> mutation) {
+        Session session = get(fileName);
+        if (session == null) {
+            return false;
+        }
+        FilterState filterState = session.getFilterState();
+        synchronized (filterState) {
+            mutation.accept(filterState);
+            save(fileName, session);
+        }
+        return true;
+    }
+
+    // 렌더링용 불변 스냅샷 (세션이 없으면 null)
+    public FilterState snapshot(String fileName) {
+        Session session = get(fileName);
+        return session != null ? session.getFilterState().snapshot() : null;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+}
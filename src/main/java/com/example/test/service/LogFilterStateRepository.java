@@ -0,0 +1,277 @@
+package com.example.test.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+// 내장 append-only 로그 세션 저장소 (기본 구현)
+// - 파일을 메모리 매핑해 레코드를 덧붙임 (쓰기 한 번이 시스템 콜 없이 페이지 캐시에 반영되어 프로세스가 죽어도 유지됨)
+// - 레코드: [본문 길이 int][CRC32C int][종류 byte + 본문], 길이를 마지막에 기록해 완성된 레코드만 보이게 함
+// - 시작 시 처음부터 읽어 최신 상태를 복구하고, 잘린/손상된 꼬리(쓰는 도중 종료)는 버림
+// - 주기적으로 force 로 디스크에 내려쓰고, 죽은 레코드가 절반을 넘으면 살아있는 항목만 새 파일로 압축
+public class LogFilterStateRepository implements FilterStateRepository, AutoCloseable {
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER_BYTES = 8;
+    private static final int INITIAL_CAPACITY = 1 << 20;
+
+    private final Path path;
+    private final long compactMinBytes;
+    private final ScheduledExecutorService maintenance;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    // 다음 레코드를 쓸 위치 (= 유효한 로그 길이)
+    private int position;
+
+    // 최신 항목과 그 레코드 크기 (압축 시점 판단용)
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, Integer> recordSizes = new HashMap<>();
+    private long liveBytes;
+
+    private long recoveryNanos;
+    private long appends;
+    private long compactions;
+
+    public LogFilterStateRepository(Path path, long compactMinBytes, long syncIntervalMillis) throws IOException {
+        this.path = path;
+        this.compactMinBytes = compactMinBytes;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        long start = System.nanoTime();
+        open();
+        recover();
+        recoveryNanos = System.nanoTime() - start;
+
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (syncIntervalMillis > 0) {
+            maintenance.scheduleWithFixedDelay(this::maintain, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        map((int) Math.max(INITIAL_CAPACITY, size));
+    }
+
+    private void map(int capacity) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    // 유효한 레코드를 끝까지 재생, 첫 번째 잘못된 레코드에서 멈춤
+    private void recover() {
+        position = 0;
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            ByteBuffer body = buffer.slice(position + HEADER_BYTES, length);
+            if (crc(body) != buffer.getInt(position + 4)) {
+                break;
+            }
+
+            byte type = body.get(0);
+            ByteBuffer payload = body.slice(1, length - 1);
+            int recordSize = HEADER_BYTES + length;
+            if (type == PUT) {
+                Entry entry = FilterStateEntries.decode(payload);
+                track(entry.fileName(), entry, recordSize);
+            } else if (type == DELETE) {
+                untrack(FilterStateEntries.decodeName(payload));
+            } else {
+                break;
+            }
+            position += recordSize;
+        }
+        // 버려진 꼬리가 다음 레코드 뒤에서 유효하게 읽히지 않도록 끝 표시
+        markEnd();
+    }
+
+    @Override
+    public synchronized void save(Entry entry) {
+        int recordSize = append(PUT, FilterStateEntries.encode(entry));
+        track(entry.fileName(), entry, recordSize);
+    }
+
+    @Override
+    public synchronized void delete(String fileName) {
+        if (entries.containsKey(fileName)) {
+            append(DELETE, FilterStateEntries.encodeName(fileName));
+            untrack(fileName);
+        }
+    }
+
+    @Override
+    public synchronized Entry find(String fileName) {
+        return entries.get(fileName);
+    }
+
+    @Override
+    public synchronized List<Entry> findAll() {
+        return new ArrayList<>(entries.values());
+    }
+
+    private int append(byte type, byte[] payload) {
+        int length = 1 + payload.length;
+        int recordSize = HEADER_BYTES + length;
+        ensureCapacity(position + recordSize + 4);
+
+        buffer.put(position + HEADER_BYTES, type);
+        buffer.put(position + HEADER_BYTES + 1, payload);
+        buffer.putInt(position + 4, crc(buffer.slice(position + HEADER_BYTES, length)));
+        buffer.putInt(position + recordSize, 0);
+        // 길이를 마지막에 기록 (중간에 종료되면 이 레코드는 없는 것으로 읽힘)
+        buffer.putInt(position, length);
+        position += recordSize;
+        appends++;
+        return recordSize;
+    }
+
+    private void track(String fileName, Entry entry, int recordSize) {
+        entries.put(fileName, entry);
+        Integer previous = recordSizes.put(fileName, recordSize);
+        liveBytes += recordSize - (previous != null ? previous : 0);
+    }
+
+    private void untrack(String fileName) {
+        entries.remove(fileName);
+        Integer previous = recordSizes.remove(fileName);
+        if (previous != null) {
+            liveBytes -= previous;
+        }
+    }
+
+    private void markEnd() {
+        if (position + 4 <= buffer.capacity()) {
+            buffer.putInt(position, 0);
+        }
+    }
+
+    private void ensureCapacity(long required) {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        long capacity = buffer.capacity();
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("세션 로그가 너무 큽니다: " + path);
+        }
+        try {
+            buffer.force();
+            map((int) capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("세션 로그 확장 실패: " + path, e);
+        }
+    }
+
+    private static int crc(ByteBuffer data) {
+        CRC32C crc = new CRC32C();
+        crc.update(data.duplicate());
+        return (int) crc.getValue();
+    }
+
+    private void maintain() {
+        try {
+            synchronized (this) {
+                buffer.force();
+                if (position >= compactMinBytes && liveBytes * 2 < position) {
+                    compact();
+                }
+            }
+        } catch (RuntimeException | IOException e) {
+            System.err.println("세션 로그 유지 작업 실패: " + e.getMessage());
+        }
+    }
+
+    // 살아있는 항목만 새 파일에 기록한 뒤 원자적으로 교체
+    synchronized void compact() throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        List<Entry> live = new ArrayList<>(entries.values());
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (Entry entry : live) {
+                byte[] payload = FilterStateEntries.encode(entry);
+                ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + 1 + payload.length);
+                record.putInt(1 + payload.length).putInt(0).put(PUT).put(payload);
+                record.putInt(4, crc(record.slice(HEADER_BYTES, 1 + payload.length)));
+                record.flip();
+                while (record.hasRemaining()) {
+                    out.write(record);
+                }
+            }
+            out.force(true);
+        }
+
+        buffer.force();
+        channel.close();
+        Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        entries.clear();
+        recordSizes.clear();
+        liveBytes = 0;
+        open();
+        recover();
+        compactions++;
+    }
+
+    // 압축 대상이 될 만큼 쌓였는지와 무관하게 즉시 디스크에 반영
+    public synchronized void sync() {
+        buffer.force();
+    }
+
+    public long getRecoveryMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(recoveryNanos);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getLogBytes() {
+        return position;
+    }
+
+    public synchronized long getLiveBytes() {
+        return liveBytes;
+    }
+
+    public synchronized long getAppendCount() {
+        return appends;
+    }
+
+    public synchronized long getCompactionCount() {
+        return compactions;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        maintenance.shutdownNow();
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.test.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 처리된 이미지 저장소 (힙 밖 direct 버퍼에 인코딩 결과 보관)
+// 전체 바이트 예산과 유휴 시간(TTL) 기준으로 제거하며,
+// 제거된 이미지는 호출자가 FilterState로부터 다시 렌더해서 채움
+@Component
+public class ProcessedImageStore {
+
+    // 마지막으로 반영된 결과 (버전, 식별값, 이미지를 한 번에 읽어 응답 헤더와 본문이 어긋나지 않도록 함)
+    // buffer 가 null 이면 필터가 없는 상태(원본)이거나, evicted 이면 예산/유휴 시간으로 이미지만 제거된 상태
+    public record Published(long version, String tag, ByteBuffer buffer, boolean evicted) {}
+
+    private static final class Entry {
+        private final ByteBuffer buffer;
+        private long lastAccessNanos;
+
+        private Entry(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.lastAccessNanos = System.nanoTime();
+        }
+    }
+
+    private final long maxBytes;
+    private final long idleTtlNanos;
+
+    // accessOrder=true 로 LRU 순서 유지
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // 마지막으로 반영된 렌더 버전 (이미지가 제거돼도 유지해서 늦게 끝난 이전 렌더를 걸러냄)
+    private final ConcurrentHashMap<String, Long> publishedVersions = new ConcurrentHashMap<>();
+    // 마지막으로 반영된 결과의 내용 식별값 (ETag 용, 제거돼도 유지)
+    private final ConcurrentHashMap<String, String> publishedTags = new ConcurrentHashMap<>();
+    // 마지막으로 반영된 결과에 이미지가 있었던 이름 (제거됐는지 원본 상태인지 구분)
+    private final Set<String> publishedImages = ConcurrentHashMap.newKeySet();
+    private long residentBytes = 0;
+
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    public ProcessedImageStore(
+        @Value("${image.processed.max-bytes:268435456}") long maxBytes,
+        @Value("${image.processed.idle-ttl:PT10M}") Duration idleTtl
+    ) {
+        this.maxBytes = maxBytes;
+        this.idleTtlNanos = idleTtl.toNanos();
+    }
+
+    // 렌더 결과 반영, 이미 더 최신 버전이 반영됐으면 무시
+    // null 이미지는 필터가 없는 상태(원본)를 의미
+    public boolean publish(String fileName, long version, byte[] imageBytes) {
+        ByteBuffer buffer = null;
+        if (imageBytes != null) {
+            buffer = ByteBuffer.allocateDirect(imageBytes.length);
+            buffer.put(imageBytes).flip();
+        }
+        return publish(fileName, version, buffer, null);
+    }
+
+    // 이미 힙 밖에 있는 버퍼를 복사 없이 반영 (내용 기반 캐시와 같은 버퍼를 공유)
+    public synchronized boolean publish(String fileName, long version, ByteBuffer buffer, String tag) {
+        Long published = publishedVersions.get(fileName);
+        if (published != null && version < published) {
+            return false;
+        }
+        publishedVersions.put(fileName, version);
+        if (tag != null) {
+            publishedTags.put(fileName, tag);
+        } else {
+            publishedTags.remove(fileName);
+        }
+
+        if (buffer != null) {
+            publishedImages.add(fileName);
+        } else {
+            publishedImages.remove(fileName);
+        }
+
+        removeEntry(fileName);
+        if (buffer != null && buffer.remaining() <= maxBytes) {
+            entries.put(fileName, new Entry(buffer.asReadOnlyBuffer()));
+            residentBytes += buffer.remaining();
+        }
+        evictIfNeeded();
+        return true;
+    }
+
+    // 저장된 이미지 (없거나 제거됐으면 null)
+    public byte[] get(String fileName) {
+        ByteBuffer buffer = getBuffer(fileName);
+        if (buffer == null) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    // 힙으로 복사하지 않고 저장된 버퍼를 그대로 반환 (읽기 전용 복제본)
+    // 그 사이 제거되더라도 반환된 버퍼는 참조가 남아 있는 동안 유효함
+    public synchronized ByteBuffer getBuffer(String fileName) {
+        expireIdle();
+        Entry entry = entries.get(fileName);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastAccessNanos = System.nanoTime();
+        return entry.buffer.asReadOnlyBuffer();
+    }
+
+    public synchronized Published getPublished(String fileName) {
+        ByteBuffer buffer = getBuffer(fileName);
+        return new Published(getVersion(fileName), getTag(fileName), buffer,
+                buffer == null && publishedImages.contains(fileName));
+    }
+
+    // 마지막으로 반영된 렌더 버전 (-1 이면 아직 렌더 전)
+    public long getVersion(String fileName) {
+        return publishedVersions.getOrDefault(fileName, -1L);
+    }
+
+    // 마지막으로 반영된 결과의 식별값 (없으면 null)
+    public String getTag(String fileName) {
+        return publishedTags.get(fileName);
+    }
+
+    public synchronized void remove(String fileName) {
+        removeEntry(fileName);
+        publishedVersions.remove(fileName);
+        publishedTags.remove(fileName);
+        publishedImages.remove(fileName);
+    }
+
+    public void recordRebuild() {
+        rebuilds.incrementAndGet();
+    }
+
+    private void removeEntry(String fileName) {
+        Entry removed = entries.remove(fileName);
+        if (removed != null) {
+            residentBytes -= removed.buffer.remaining();
+        }
+    }
+
+    private void evictIfNeeded() {
+        expireIdle();
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (residentBytes > maxBytes && it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            it.remove();
+            residentBytes -= eldest.buffer.remaining();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void expireIdle() {
+        // LRU 순서이므로 앞쪽부터 확인하다 유효한 항목을 만나면 중단
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Entry eldest = it.next().getValue();
+            if (now - eldest.lastAccessNanos < idleTtlNanos) {
+                break;
+            }
+            it.remove();
+            residentBytes -= eldest.buffer.remaining();
+            expirations.incrementAndGet();
+        }
+    }
+
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    public long getRebuildCount() {
+        return rebuilds.get();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.test.service;
+
+import com.example.test.filter.MatPool;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bytedeco.javacpp.Pointer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// 렌더 단계별 시간과 네이티브 메모리 사용량을 Micrometer 로 노출 (/actuator/metrics)
+// - image.render.stage{filter}: 필터 단계별 적용 시간
+// - image.decode / image.encode: 원본 디코딩(imread) / 결과 인코딩(matToBytes)
+// - image.native.*: JavaCPP 가 추적하는 네이티브 메모리 (Mat 데이터 포함, JVM 힙 지표에는 보이지 않음)
+@Component
+public class RenderMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer decodeTimer;
+    private final Timer encodeTimer;
+    private final ConcurrentHashMap<String, Timer> stageTimers = new ConcurrentHashMap<>();
+
+    public RenderMetrics(
+        MeterRegistry registry,
+        ImageSessionStore sessionStore,
+        ProcessedImageStore processedImageStore,
+        DecodedImageCache decodedImageCache,
+        RenderResultCache renderResultCache
+    ) {
+        this.registry = registry;
+        this.decodeTimer = Timer.builder("image.decode")
+                .description("원본 이미지 디코딩 시간")
+                .register(registry);
+        this.encodeTimer = Timer.builder("image.encode")
+                .description("렌더 결과 인코딩 시간")
+                .register(registry);
+
+        // 네이티브 메모리 (totalCount 는 해제되지 않은 네이티브 할당 수, 대부분 Mat)
+        Gauge.builder("image.native.bytes", Pointer::totalBytes)
+                .description("JavaCPP 가 할당한 네이티브 메모리")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("image.native.physical", Pointer::physicalBytes)
+                .description("프로세스 물리 메모리 사용량")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("image.native.pointers", Pointer::totalCount)
+                .description("해제되지 않은 네이티브 할당 수")
+                .register(registry);
+
+        // 저장소/캐시 크기
+        Gauge.builder("image.sessions", sessionStore, ImageSessionStore::size)
+                .description("필터 상태가 있는 이미지 수")
+                .register(registry);
+        Gauge.builder("image.processed.images", processedImageStore, ProcessedImageStore::size)
+                .description("보관 중인 렌더 결과 수")
+                .register(registry);
+        Gauge.builder("image.processed.bytes", processedImageStore, ProcessedImageStore::getResidentBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("image.cache.decoded.bytes", decodedImageCache, DecodedImageCache::getResidentBytes)
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("image.cache.results.bytes", renderResultCache, RenderResultCache::getResidentBytes)
+                .baseUnit("bytes")
+                .register(registry);
+
+        // 필터 임시 Mat 풀 (빌려 간 뒤 반환되지 않은 수가 계속 늘면 누수)
+        MatPool matPool = MatPool.shared();
+        Gauge.builder("image.scratch.outstanding", matPool, MatPool::getOutstandingCount)
+                .description("반환되지 않은 임시 Mat 수")
+                .register(registry);
+        Gauge.builder("image.scratch.idle.bytes", matPool, MatPool::getIdleBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public void recordDecode(long nanos) {
+        decodeTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordEncode(long nanos) {
+        encodeTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordStage(String filterName, long nanos) {
+        stageTimers.computeIfAbsent(filterName, name -> Timer.builder("image.render.stage")
+                .description("필터 단계 적용 시간")
+                .tag("filter", name)
+                .register(registry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
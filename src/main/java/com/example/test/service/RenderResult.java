@@ -0,0 +1,21 @@
+package com.example.test.service;
+
+// 렌더 결과 (어떤 상태 버전을 반영했는지 포함)
+// imageBytes 가 null 이면 적용된 필터가 없어 원본을 그대로 사용함
+// tag 는 결과 내용을 식별하는 값 (ETag 용, 원본 해시 + 레시피 해시)
+// timings 는 이번 렌더의 단계별 소요 시간 (렌더하지 않았으면 비어 있음)
+// region 은 영역 렌더가 실제로 그린 영역 ("x,y,widthxheight@scale", 영역 렌더가 아니면 null)
+public record RenderResult(long version, byte[] imageBytes, String tag, RenderTimings timings, String region) {
+
+    public RenderResult(long version, byte[] imageBytes, String tag, RenderTimings timings) {
+        this(version, imageBytes, tag, timings, null);
+    }
+
+    public RenderResult(long version, byte[] imageBytes) {
+        this(version, imageBytes, null, new RenderTimings());
+    }
+
+    public RenderResult(long version, byte[] imageBytes, String tag) {
+        this(version, imageBytes, tag, new RenderTimings());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.test.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 내용 기반 렌더 결과 캐시 (원본 해시 + 정규화된 레시피 -> 인코딩 결과)
+// 같은 원본에 같은 레시피를 적용한 결과는 세션과 무관하게 한 번만 렌더됨
+@Component
+public class RenderResultCache {
+
+    private final long maxBytes;
+    // accessOrder=true 로 LRU 순서 유지
+    private final LinkedHashMap<String, ByteBuffer> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public RenderResultCache(@Value("${image.cache.results.max-bytes:268435456}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    // 결과 키 (SHA-256 16진수 문자열, 그대로 강한 ETag 로 사용)
+    public static String key(String sourceHash, String variant, String recipe) {
+        return sha256(sourceHash + "|" + variant + "|" + recipe);
+    }
+
+    public static String sha256(String value) {
+        return HexFormat.of().formatHex(newDigest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다", e);
+        }
+    }
+
+    // 캐시된 결과 (읽기 전용 복제본, 없으면 null)
+    public synchronized ByteBuffer get(String key) {
+        ByteBuffer buffer = entries.get(key);
+        if (buffer == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    // 결과 저장 후 저장된 버퍼 반환 (다른 스레드가 먼저 저장했으면 그 버퍼)
+    public synchronized ByteBuffer put(String key, byte[] imageBytes) {
+        ByteBuffer existing = entries.get(key);
+        if (existing != null) {
+            return existing.asReadOnlyBuffer();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(imageBytes.length);
+        buffer.put(imageBytes).flip();
+        if (imageBytes.length <= maxBytes) {
+            entries.put(key, buffer);
+            residentBytes += imageBytes.length;
+            evictIfNeeded();
+        }
+        return buffer.asReadOnlyBuffer();
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, ByteBuffer>> it = entries.entrySet().iterator();
+        while (residentBytes > maxBytes && it.hasNext()) {
+            ByteBuffer eldest = it.next().getValue();
+            it.remove();
+            residentBytes -= eldest.remaining();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+}
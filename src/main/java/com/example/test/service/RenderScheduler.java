@@ -0,0 +1,111 @@
+package com.example.test.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// 이미지별 렌더 스케줄러 (최신 요청 우선)
+// 이미지마다 실행 중인 렌더는 최대 1개, 대기 중인 렌더도 최대 1개로 합쳐짐
+// 대기 중에 들어온 요청들은 모두 다음 렌더 한 번의 결과를 함께 받음
+@Component
+public class RenderScheduler {
+
+    private static final class Slot {
+        private boolean running;
+        private boolean retired; // 맵에서 제거된 슬롯
+        private Supplier<RenderResult> pendingTask;
+        private List<CompletableFuture<RenderResult>> pendingWaiters = new ArrayList<>();
+    }
+
+    private final ConcurrentHashMap<String, Slot> slots = new ConcurrentHashMap<>();
+    private final ComputeExecutor computeExecutor;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong executed = new AtomicLong();
+
+    public RenderScheduler(ComputeExecutor computeExecutor) {
+        this.computeExecutor = computeExecutor;
+    }
+
+    // 렌더 요청, task는 실행 시점의 최신 상태를 읽어 렌더해야 함
+    public CompletableFuture<RenderResult> submit(String fileName, Supplier<RenderResult> task) {
+        submitted.incrementAndGet();
+        CompletableFuture<RenderResult> future = new CompletableFuture<>();
+        while (true) {
+            Slot slot = slots.computeIfAbsent(fileName, k -> new Slot());
+            synchronized (slot) {
+                if (slot.retired) {
+                    // 방금 제거된 슬롯이면 새 슬롯으로 다시 시도
+                    continue;
+                }
+                // 실행 중이든 아니든 대기 렌더 하나로 합침
+                slot.pendingTask = task;
+                slot.pendingWaiters.add(future);
+                if (!slot.running) {
+                    slot.running = true;
+                    schedule(fileName, slot);
+                }
+                return future;
+            }
+        }
+    }
+
+    private void drain(String fileName, Slot slot) {
+        Supplier<RenderResult> task;
+        List<CompletableFuture<RenderResult>> waiters;
+        synchronized (slot) {
+            task = slot.pendingTask;
+            waiters = slot.pendingWaiters;
+            slot.pendingTask = null;
+            slot.pendingWaiters = new ArrayList<>();
+        }
+
+        try {
+            executed.incrementAndGet();
+            RenderResult result = task.get();
+            waiters.forEach(waiter -> waiter.complete(result));
+        } catch (Throwable e) {
+            waiters.forEach(waiter -> waiter.completeExceptionally(e));
+        }
+
+        synchronized (slot) {
+            if (slot.pendingTask != null) {
+                // 실행 중에 들어온 요청들을 한 번에 처리
+                schedule(fileName, slot);
+            } else {
+                slot.running = false;
+                slot.retired = true;
+                slots.remove(fileName, slot);
+            }
+        }
+    }
+
+    // slot 락을 잡은 상태에서 호출
+    private void schedule(String fileName, Slot slot) {
+        try {
+            computeExecutor.execute(() -> drain(fileName, slot));
+        } catch (ComputeRejectedException e) {
+            // 연산 풀이 포화 상태면 대기 중인 요청을 모두 실패 처리하고 슬롯 정리
+            slot.pendingWaiters.forEach(waiter -> waiter.completeExceptionally(e));
+            slot.pendingTask = null;
+            slot.pendingWaiters = new ArrayList<>();
+            slot.running = false;
+            slot.retired = true;
+            slots.remove(fileName, slot);
+        }
+    }
+
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    // 실제로 실행된 렌더 수 (submitted - executed = 합쳐져서 생략된 렌더 수)
+    public long getExecutedCount() {
+        return executed.get();
+    }
+}
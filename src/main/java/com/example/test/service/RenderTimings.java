@@ -0,0 +1,36 @@
+package com.example.test.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// 렌더 요청 하나의 단계별 소요 시간 (Server-Timing 디버그 헤더용)
+// 렌더는 연산 풀의 한 스레드에서만 기록하고, 완료 후에만 읽음
+public final class RenderTimings {
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Long> durations = new ArrayList<>();
+
+    void record(String name, long nanos) {
+        names.add(name);
+        durations.add(nanos);
+    }
+
+    public boolean isEmpty() {
+        return names.isEmpty();
+    }
+
+    // 예: "decode;dur=41.2, blur;dur=12.9, encode;dur=8.3" (밀리초)
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                header.append(", ");
+            }
+            header.append(names.get(i))
+                  .append(";dur=")
+                  .append(String.format(Locale.ROOT, "%.1f", durations.get(i) / 1e6));
+        }
+        return header.toString();
+    }
+}
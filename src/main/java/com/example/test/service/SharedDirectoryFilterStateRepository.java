@@ -0,0 +1,140 @@
+package com.example.test.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 여러 노드가 함께 마운트한 디렉토리(NFS 등)에 이미지별 파일로 저장하는 세션 저장소
+// - 임시 파일에 쓰고 force 후 원자적으로 이름을 바꾸므로 다른 노드는 이전/새 내용 중 하나만 봄
+// - 같은 이미지를 여러 노드가 동시에 바꾸면 마지막에 쓴 쪽이 남음
+// - 파일 앞 8바이트는 쓸 때마다 새로 정하는 revision (노드 식별값 + 노드별 증가 번호)
+//   수정 시각/크기나 inode 는 같은 크기의 연속 저장, 시각 해상도, inode 재사용으로 같아질 수 있어 쓰지 않음
+//   헤더 읽기는 파일을 여는 것이라 NFS 의 close-to-open 일관성으로 다른 노드의 최신 파일을 봄
+// 원본 이미지(uploads/)도 모든 노드가 같은 공유 저장소를 사용해야 함
+public class SharedDirectoryFilterStateRepository implements FilterStateRepository {
+
+    private static final String SUFFIX = ".state";
+    private static final int HEADER_BYTES = Long.BYTES;
+
+    private final Path directory;
+    // 상위 31비트는 이 저장소 인스턴스(노드) 식별값, 하위 32비트는 저장 순번 (항상 0 이상이라 -1 과 겹치지 않음)
+    private final long writerId = (ThreadLocalRandom.current().nextLong() & 0x7fffffffL) << 32;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public SharedDirectoryFilterStateRepository(Path directory) throws IOException {
+        this.directory = directory.toAbsolutePath().normalize();
+        Files.createDirectories(this.directory);
+    }
+
+    @Override
+    public void save(Entry entry) {
+        Path file = file(entry.fileName());
+        try {
+            Path temp = Files.createTempFile(directory, ".session_", ".tmp");
+            try {
+                try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    byte[] encoded = FilterStateEntries.encode(entry);
+                    ByteBuffer data = ByteBuffer.allocate(HEADER_BYTES + encoded.length);
+                    data.putLong(nextRevision()).put(encoded).flip();
+                    while (data.hasRemaining()) {
+                        out.write(data);
+                    }
+                    out.force(true);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("세션 저장 실패: " + entry.fileName(), e);
+        }
+    }
+
+    @Override
+    public void delete(String fileName) {
+        try {
+            Files.deleteIfExists(file(fileName));
+        } catch (IOException e) {
+            throw new UncheckedIOException("세션 삭제 실패: " + fileName, e);
+        }
+    }
+
+    @Override
+    public Entry find(String fileName) {
+        try {
+            return decode(Files.readAllBytes(file(fileName)));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("세션 읽기 실패: " + fileName, e);
+        }
+    }
+
+    @Override
+    public List<Entry> findAll() {
+        List<Entry> entries = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    entries.add(decode(Files.readAllBytes(file)));
+                } catch (NoSuchFileException e) {
+                    // 목록 조회 후 다른 노드가 삭제함
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("세션 목록 읽기 실패: " + directory, e);
+        }
+        return entries;
+    }
+
+    @Override
+    public boolean isShared() {
+        return true;
+    }
+
+    // 파일 헤더의 revision 만 읽음 (항목 내용은 읽지 않고 변경 여부만 판단)
+    @Override
+    public long revision(String fileName) {
+        try (FileChannel in = FileChannel.open(file(fileName), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (in.read(header) < 0) {
+                    throw new IOException("세션 파일 헤더가 잘렸습니다");
+                }
+            }
+            return header.flip().getLong();
+        } catch (NoSuchFileException e) {
+            return -1;
+        } catch (IOException e) {
+            throw new UncheckedIOException("세션 상태 확인 실패: " + fileName, e);
+        }
+    }
+
+    private long nextRevision() {
+        return writerId | (sequence.incrementAndGet() & 0xffffffffL);
+    }
+
+    private static Entry decode(byte[] data) {
+        return FilterStateEntries.decode(ByteBuffer.wrap(data, HEADER_BYTES, data.length - HEADER_BYTES));
+    }
+
+    // 경로 조작 방지 (저장 디렉토리 밖을 가리키는 이름 거부)
+    private Path file(String fileName) {
+        Path file = directory.resolve(fileName + SUFFIX).normalize();
+        if (!directory.equals(file.getParent())) {
+            throw new IllegalArgumentException("잘못된 파일 이름: " + fileName);
+        }
+        return file;
+    }
+}
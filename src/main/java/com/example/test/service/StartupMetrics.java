@@ -0,0 +1,74 @@
+package com.example.test.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 시작 지표 (/actuator/metrics, 아직 일어나지 않은 항목은 NaN)
+// - image.startup.native-load: OpenCV 네이티브 라이브러리 추출/로드 시간
+// - image.startup.warmup: 준비 완료 전 예열 렌더 시간
+// - image.startup.first-render: JVM 시작부터 첫 렌더(예열 포함)가 끝날 때까지
+// - image.startup.first-request-render: JVM 시작부터 첫 사용자 요청 렌더가 끝날 때까지
+@Component
+public class StartupMetrics {
+
+    private final AtomicLong nativeLoadNanos = new AtomicLong(-1);
+    private final AtomicLong warmupNanos = new AtomicLong(-1);
+    // JVM 시작 기준 경과 시간 (ms)
+    private final AtomicLong firstRenderMillis = new AtomicLong(-1);
+    private final AtomicLong firstRequestRenderMillis = new AtomicLong(-1);
+
+    public StartupMetrics(MeterRegistry registry) {
+        TimeGauge.builder("image.startup.native-load", nativeLoadNanos, TimeUnit.NANOSECONDS, StartupMetrics::value)
+                .description("OpenCV 네이티브 라이브러리 로드 시간")
+                .register(registry);
+        TimeGauge.builder("image.startup.warmup", warmupNanos, TimeUnit.NANOSECONDS, StartupMetrics::value)
+                .description("시작 예열 렌더 시간")
+                .register(registry);
+        TimeGauge.builder("image.startup.first-render", firstRenderMillis, TimeUnit.MILLISECONDS, StartupMetrics::value)
+                .description("JVM 시작부터 첫 렌더 완료까지")
+                .register(registry);
+        TimeGauge.builder("image.startup.first-request-render", firstRequestRenderMillis, TimeUnit.MILLISECONDS, StartupMetrics::value)
+                .description("JVM 시작부터 첫 요청 렌더 완료까지")
+                .register(registry);
+    }
+
+    public void recordNativeLoad(long nanos) {
+        nativeLoadNanos.set(nanos);
+    }
+
+    public void recordWarmup(long nanos) {
+        warmupNanos.set(nanos);
+    }
+
+    // 렌더가 끝날 때마다 호출 (처음 한 번만 기록, 이후에는 비교 한 번)
+    public void recordRender(boolean warmup) {
+        if (firstRenderMillis.get() < 0) {
+            firstRenderMillis.compareAndSet(-1, uptimeMillis());
+        }
+        if (!warmup && firstRequestRenderMillis.get() < 0) {
+            firstRequestRenderMillis.compareAndSet(-1, uptimeMillis());
+        }
+    }
+
+    public long getFirstRenderMillis() {
+        return firstRenderMillis.get();
+    }
+
+    public long getFirstRequestRenderMillis() {
+        return firstRequestRenderMillis.get();
+    }
+
+    private static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    private static double value(AtomicLong recorded) {
+        long value = recorded.get();
+        return value < 0 ? Double.NaN : value;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.test.service;
+
+import com.example.test.filter.FilterPlan;
+import com.example.test.filter.GlobalOperation;
+import com.example.test.filter.ImageFilter;
+import com.example.test.filter.MatPool;
+import jakarta.annotation.PreDestroy;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// 큰 이미지의 필터 단계를 타일로 나눠 여러 코어에서 실행
+// - 점 연산(halo 0): 타일 영역에 제자리 적용
+// - 커널 연산: 커널 반지름만큼 halo를 붙여 잘라낸 뒤 처리하고 안쪽만 결과에 복사 (출력/타일 복사본은 MatPool 에서 빌림)
+// - 전체 통계 연산: 타일별 통계 수집 -> 합산 -> 타일별 적용의 2단계
+// - 그 외(halo 를 정할 수 없는 필터): 전체 이미지에 그대로 적용
+@Component
+public class TiledExecutor {
+
+    private final long minPixels;
+    private final int tileSize;
+    private final ForkJoinPool pool;
+
+    private final AtomicLong tiledStages = new AtomicLong();
+
+    public TiledExecutor(
+        @Value("${image.tiling.min-pixels:16000000}") long minPixels,
+        @Value("${image.tiling.tile-size:1024}") int tileSize,
+        @Value("${image.tiling.parallelism:0}") int parallelism
+    ) {
+        this.minPixels = minPixels;
+        this.tileSize = tileSize;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // 픽셀 수가 기준 이상이면 타일로 나눠 실행
+    public boolean shouldTile(Mat image) {
+        return minPixels > 0 && image.total() >= minPixels;
+    }
+
+    // 단계 하나를 이미지에 제자리 적용
+    public <P> void apply(FilterPlan.Stage<P> stage, Mat image) {
+        ImageFilter<P> filter = stage.getFilter();
+        P params = stage.getParams();
+        if (!shouldTile(image)) {
+            stage.apply(image);
+            return;
+        }
+
+        if (filter instanceof GlobalOperation<P> global) {
+            applyWithStatistics(global, params, image, collect(global, params, image));
+            return;
+        }
+        int halo = filter.haloRadius(params);
+        if (halo == ImageFilter.WHOLE_IMAGE) {
+            stage.apply(image);
+            return;
+        }
+        if (halo == 0) {
+            forEachTile(image, tile -> filter.apply(tile, params));
+        } else {
+            applyWithHalo(filter, params, halo, image);
+        }
+        tiledStages.incrementAndGet();
+    }
+
+    // 전체 통계 연산 1단계: 이미지 전체 통계 (큰 이미지는 타일별 부분 통계를 합침)
+    // 통계를 캐시해 두면 2단계만 따로 실행할 수 있음 (영역 렌더)
+    public <P> long[] collect(GlobalOperation<P> filter, P params, Mat image) {
+        if (!shouldTile(image)) {
+            return filter.collect(image, params);
+        }
+
+        List<Rect> tiles = tiles(image);
+        List<ForkJoinTask<long[]>> partials = new ArrayList<>(tiles.size());
+        for (Rect rect : tiles) {
+            partials.add(pool.submit(() -> {
+                Mat tile = new Mat(image, rect);
+                try {
+                    return filter.collect(tile, params);
+                } finally {
+                    tile.release();
+                }
+            }));
+        }
+
+        long[] statistics = null;
+        for (ForkJoinTask<long[]> partial : partials) {
+            long[] values = partial.join();
+            if (statistics == null) {
+                statistics = values.clone();
+            } else {
+                for (int i = 0; i < statistics.length; i++) {
+                    statistics[i] += values[i];
+                }
+            }
+        }
+        return statistics;
+    }
+
+    // 전체 통계 연산 2단계: 주어진 전체 통계로 제자리 적용 (큰 이미지는 타일별로)
+    public <P> void applyWithStatistics(GlobalOperation<P> filter, P params, Mat image, long[] statistics) {
+        if (!shouldTile(image)) {
+            filter.applyWithStatistics(image, params, statistics);
+            return;
+        }
+        forEachTile(image, tile -> filter.applyWithStatistics(tile, params, statistics));
+        tiledStages.incrementAndGet();
+    }
+
+    private <P> void applyWithHalo(ImageFilter<P> filter, P params, int halo, Mat image) {
+        // 이웃 타일이 읽는 원본을 덮어쓰지 않도록 별도 출력에 기록
+        MatPool matPool = MatPool.shared();
+        try (MatPool.Lease output = matPool.lease(image.rows(), image.cols(), image.type())) {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (Rect rect : tiles(image)) {
+                tasks.add(pool.submit(() -> {
+                    int x0 = Math.max(0, rect.x() - halo);
+                    int y0 = Math.max(0, rect.y() - halo);
+                    int x1 = Math.min(image.cols(), rect.x() + rect.width() + halo);
+                    int y1 = Math.min(image.rows(), rect.y() + rect.height() + halo);
+
+                    // 이미지 가장자리에서는 halo 가 잘리므로 전체 이미지 처리와 같은 테두리 처리가 적용됨
+                    Mat source = new Mat(image, new Rect(x0, y0, x1 - x0, y1 - y0));
+                    MatPool.Lease region = matPool.lease(y1 - y0, x1 - x0, image.type());
+                    Mat inner = new Mat(region.mat(), new Rect(rect.x() - x0, rect.y() - y0, rect.width(), rect.height()));
+                    Mat target = new Mat(output.mat(), rect);
+                    try {
+                        source.copyTo(region.mat());
+                        filter.apply(region.mat(), params);
+                        inner.copyTo(target);
+                    } finally {
+                        target.release();
+                        inner.release();
+                        region.close();
+                        source.release();
+                    }
+                }));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+            output.mat().copyTo(image);
+        }
+    }
+
+    // 타일 영역(원본 데이터를 공유하는 ROI)에 병렬로 제자리 적용
+    private void forEachTile(Mat image, Consumer<Mat> action) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (Rect rect : tiles(image)) {
+            tasks.add(pool.submit(() -> {
+                Mat tile = new Mat(image, rect);
+                try {
+                    action.accept(tile);
+                } finally {
+                    tile.release();
+                }
+            }));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    private List<Rect> tiles(Mat image) {
+        List<Rect> tiles = new ArrayList<>();
+        for (int y = 0; y < image.rows(); y += tileSize) {
+            for (int x = 0; x < image.cols(); x += tileSize) {
+                tiles.add(new Rect(x, y, Math.min(tileSize, image.cols() - x), Math.min(tileSize, image.rows() - y)));
+            }
+        }
+        return tiles;
+    }
+
+    public long getTiledStageCount() {
+        return tiledStages.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
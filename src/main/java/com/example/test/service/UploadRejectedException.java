@@ -0,0 +1,9 @@
+package com.example.test.service;
+
+// 업로드를 저장하기 전에 거절 (지원하지 않는 형식, 너무 큰 이미지/파일)
+public class UploadRejectedException extends RuntimeException {
+
+    public UploadRejectedException(String message) {
+        super(message);
+    }
+}
@@ -12,6 +12,10 @@
 // Global variables
 let currentFileName = null;
 let processedFileName = null;
+let latestRenderVersion = -1; // 마지막으로 표시한 렌더 버전
+let renderSocket = null; // 현재 이미지의 렌더 스트림 (/ws/render)
+let renderFrameUrl = null; // 결과 영역에 표시 중인 프레임 Blob URL
+let lastSentFilters = {}; // 렌더 스트림으로 마지막에 보낸 필터 값 (바뀐 필터만 보내기 위함)
 
 // Filter definitions with metadata
 const filterDefinitions = [
@@ -359,6 +363,8 @@ function updateFilterOrder() {
     
     console.log('🔄 Updating filter order:', newOrder);
     
+    if (sendRenderMessage({ type: 'order', order: newOrder })) return;
+    
     fetch(`/filter/order?fileName=${currentFileName}`, {
         method: 'POST',
         headers: {
@@ -520,8 +526,12 @@ function uploadImage(file) {
         if (data.success === 'true') {
             currentFileName = data.fileName;
             processedFileName = null;
+            latestRenderVersion = -1;
             showNotification(data.message, 'success');
             
+            // 필터 변경과 렌더 결과를 한 연결로 주고받음
+            openRenderStream(data.fileName);
+            
             // Show original image
             showOriginalImage(data.fileName);
             
@@ -568,6 +578,99 @@ function resetResultArea() {
     resultContainer.classList.remove('has-image');
 }
 
+/**
+ * Accept a render response only if it is not older than the one already shown
+ */
+function acceptRenderVersion(data) {
+    const version = Number(data.version);
+    if (Number.isNaN(version)) return true;
+    if (version < latestRenderVersion) return false;
+    latestRenderVersion = version;
+    return true;
+}
+
+/**
+ * Open the per-image render stream; falls back to HTTP requests while it is not open
+ */
+function openRenderStream(fileName) {
+    closeRenderStream();
+    lastSentFilters = {};
+    if (!('WebSocket' in window)) return;
+
+    const protocol = location.protocol === 'https:' ? 'wss:' : 'ws:';
+    const socket = new WebSocket(`${protocol}//${location.host}/ws/render?fileName=${encodeURIComponent(fileName)}`);
+    socket.binaryType = 'arraybuffer';
+
+    socket.onmessage = event => {
+        if (socket !== renderSocket) return;
+        if (event.data instanceof ArrayBuffer) {
+            // [렌더 버전 8바이트][인코딩된 이미지]
+            const version = new DataView(event.data).getBigInt64(0);
+            // 받은 즉시 ack (서버는 ack 까지의 시간으로 프레임 품질을 조절하고 다음 프레임을 보냄)
+            socket.send(JSON.stringify({ type: 'ack', version: Number(version) }));
+            if (acceptRenderVersion({ version: Number(version) })) {
+                showFrame(new Blob([event.data.slice(8)], { type: 'image/jpeg' }));
+            }
+            return;
+        }
+        const message = JSON.parse(event.data);
+        if (message.type === 'original') {
+            if (acceptRenderVersion(message)) {
+                showResult(fileName);
+            }
+        } else if (message.type === 'error') {
+            showNotification(message.message, 'error');
+        }
+    };
+    socket.onclose = () => {
+        if (socket === renderSocket) {
+            renderSocket = null;
+            console.log('🔌 Render stream closed');
+        }
+    };
+    renderSocket = socket;
+}
+
+function closeRenderStream() {
+    if (renderSocket) {
+        const socket = renderSocket;
+        renderSocket = null;
+        socket.close();
+    }
+}
+
+/**
+ * Send a message over the render stream; returns false if the caller should use HTTP instead
+ */
+function sendRenderMessage(message) {
+    if (!renderSocket || renderSocket.readyState !== WebSocket.OPEN) return false;
+    renderSocket.send(JSON.stringify(message));
+    return true;
+}
+
+/**
+ * Show a frame received from the render stream
+ */
+function showFrame(blob) {
+    const resultContainer = document.getElementById('resultImageContainer');
+    const previousUrl = renderFrameUrl;
+    renderFrameUrl = URL.createObjectURL(blob);
+    let image = resultContainer.querySelector('img.result-image');
+    if (!image) {
+        resultContainer.innerHTML = `
+            <img alt="처리된 이미지" class="result-image">
+            <div class="loading" id="loading">
+                <div class="spinner"></div>
+                <p style="margin-top: 10px;">처리 중...</p>
+            </div>
+        `;
+        image = resultContainer.querySelector('img.result-image');
+    }
+    image.src = renderFrameUrl;
+    resultContainer.classList.add('has-image');
+    if (previousUrl) URL.revokeObjectURL(previousUrl);
+}
+
 /**
  * Show processed result with caching prevention
  */
@@ -643,6 +746,22 @@ function updateFilters() {
 
     console.log('🎛️ Updating filters:', activeFilters);
 
+    // 렌더 스트림에는 마지막으로 보낸 뒤 바뀐 필터만 보냄 (결과는 스트림으로 도착)
+    const changed = {};
+    Object.keys(filterData).forEach(name => {
+        const serialized = JSON.stringify(filterData[name]);
+        if (lastSentFilters[name] !== serialized) {
+            changed[name] = filterData[name];
+        }
+    });
+    if (renderSocket && renderSocket.readyState === WebSocket.OPEN) {
+        if (Object.keys(changed).length > 0) {
+            sendRenderMessage({ type: 'update', filters: changed });
+            Object.keys(changed).forEach(name => lastSentFilters[name] = JSON.stringify(changed[name]));
+        }
+        return;
+    }
+
     fetch('/filter/update?fileName=' + currentFileName, {
         method: 'POST',
         headers: {
@@ -653,7 +772,10 @@ function updateFilters() {
     .then(response => response.json())
     .then(data => {
         if (data.success === 'true') {
-            showResult(currentFileName);
+            // 늦게 도착한 이전 렌더 응답은 무시
+            if (acceptRenderVersion(data)) {
+                showResult(currentFileName);
+            }
             console.log('✅ Filters applied successfully');
         } else {
             showNotification(data.message, 'error');
@@ -742,6 +864,12 @@ function resetFilters() {
         }, index * 50);
     });
 
+    if (sendRenderMessage({ type: 'reset' })) {
+        lastSentFilters = {};
+        showNotification('모든 필터가 초기화되었습니다.', 'success');
+        return;
+    }
+
     showLoading(true);
 
     const formData = new FormData();
@@ -0,0 +1,66 @@
+package com.example.test.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 전송 시간에 따라 품질 -> 크기 순으로 낮추고, 여유가 생기면 크기 -> 품질 순으로 되돌리는지 검증
+public class FrameQualityTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void slowClientLowersQualityBeforeDimension() {
+        FrameQuality quality = new FrameQuality(85, 40, 1280, 320, 150);
+        assertFalse(quality.isReduced());
+
+        // 100KB 를 1초에 전송 (목표 150ms 초과)
+        for (int i = 0; i < 5; i++) {
+            quality.record(100_000, 1000 * MILLIS);
+        }
+        assertEquals(40, quality.getQuality());
+        assertEquals(1280, quality.getDimension());
+        assertTrue(quality.isReduced());
+
+        quality.record(100_000, 1000 * MILLIS);
+        assertEquals(960, quality.getDimension());
+
+        for (int i = 0; i < 20; i++) {
+            quality.record(100_000, 1000 * MILLIS);
+        }
+        assertEquals(320, quality.getDimension());
+    }
+
+    @Test
+    void fastClientRestoresDimensionBeforeQuality() {
+        FrameQuality quality = new FrameQuality(85, 40, 1280, 320, 150);
+        for (int i = 0; i < 8; i++) {
+            quality.record(100_000, 1000 * MILLIS);
+        }
+        assertTrue(quality.getDimension() < 1280);
+
+        // 100KB 를 1ms 에 전송 (목표의 1/3 미만)
+        int dimension = quality.getDimension();
+        quality.record(100_000, MILLIS);
+        assertTrue(quality.getDimension() > dimension);
+        assertEquals(40, quality.getQuality());
+
+        for (int i = 0; i < 30; i++) {
+            quality.record(100_000, MILLIS);
+        }
+        assertEquals(1280, quality.getDimension());
+        assertEquals(85, quality.getQuality());
+        assertFalse(quality.isReduced());
+    }
+
+    @Test
+    void frameWithinTargetKeepsSettings() {
+        FrameQuality quality = new FrameQuality(85, 40, 1280, 320, 150);
+        // 100KB 를 100ms 에 전송 (목표의 1/3 ~ 1 사이)
+        for (int i = 0; i < 10; i++) {
+            quality.record(100_000, 100 * MILLIS);
+        }
+        assertEquals(85, quality.getQuality());
+        assertEquals(1280, quality.getDimension());
+    }
+}
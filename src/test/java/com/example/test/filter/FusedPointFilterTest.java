@@ -0,0 +1,88 @@
+package com.example.test.filter;
+
+import com.example.test.model.FilterState;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// 점 연산 병합 결과가 필터를 하나씩 적용한 결과와 같은지 검증
+// (중간 결과가 포화되는 채널 간 연산 묶음은 합치지 않아야 함)
+public class FusedPointFilterTest {
+
+    private static final List<ImageFilter<?>> FILTERS = List.of(
+        new BrightnessFilter(), new SaturationFilter(), new NoiseFilter(), new InvertFilter()
+    );
+
+    @Test
+    void clampingChannelMixIsSplitAndMatchesSequential() {
+        // 밝기 2배 뒤의 중간 값은 255 를 넘으므로 채도 단계 앞에서 나뉘어야 함
+        Map<String, Object> recipe = Map.of(
+            "brightness", enabled(Map.of("alpha", 2.0, "beta", 0)),
+            "saturation", enabled(1.5)
+        );
+        FilterPlan fused = compile(recipe, true);
+        assertEquals(2, fused.size());
+        assertArrayEquals(render(compile(recipe, false)), render(fused));
+    }
+
+    @Test
+    void inRangeChannelMixIsFusedWithinRounding() {
+        // 밝기 결과가 [20, 147.5] 이므로 합성 행렬로 합치고, 차이는 단계별 반올림(밝기 결과, 채도의 휘도 평면)뿐
+        Map<String, Object> recipe = Map.of(
+            "brightness", enabled(Map.of("alpha", 0.5, "beta", 20)),
+            "saturation", enabled(1.5)
+        );
+        FilterPlan fused = compile(recipe, true);
+        assertEquals(1, fused.size());
+
+        byte[] expected = render(compile(recipe, false));
+        byte[] actual = render(fused);
+        for (int i = 0; i < expected.length; i++) {
+            assertTrue(Math.abs((expected[i] & 0xff) - (actual[i] & 0xff)) <= 2, "위치 " + i);
+        }
+    }
+
+    @Test
+    void staysInRangeUsesIntervalBounds() {
+        assertTrue(FusedPointFilter.staysInRange(PointOperation.diagonal(0.5, 20)));
+        assertFalse(FusedPointFilter.staysInRange(PointOperation.diagonal(2.0, 0)));
+        assertFalse(FusedPointFilter.staysInRange(PointOperation.diagonal(1.0, -1)));
+        // 반전(-v + 255)은 경계에 정확히 맞음
+        assertTrue(FusedPointFilter.staysInRange(PointOperation.diagonal(-1.0, 255)));
+    }
+
+    private static FilterPlan compile(Map<String, Object> recipe, boolean fuse) {
+        FilterRegistry registry = new FilterRegistry(FILTERS, fuse, false);
+        FilterState state = new FilterState("a.jpg", registry.names());
+        registry.applyRecipe(state, recipe);
+        return registry.compile(state.snapshot());
+    }
+
+    private static byte[] render(FilterPlan plan) {
+        byte[] pixels = new byte[64 * 96 * 3];
+        new Random(7).nextBytes(pixels);
+        Mat image = new Mat(64, 96, CV_8UC3);
+        try {
+            image.data().put(pixels);
+            for (FilterPlan.Stage<?> stage : plan.getStages()) {
+                stage.apply(image);
+            }
+            image.data().get(pixels);
+        } finally {
+            image.release();
+        }
+        // 병합 단계와 필터가 빌린 임시 Mat 이 모두 반환됐는지
+        MatPool.shared().assertNoLeaks();
+        return pixels;
+    }
+
+    private static Map<String, Object> enabled(Object value) {
+        return Map.of("enabled", true, "value", value);
+    }
+}
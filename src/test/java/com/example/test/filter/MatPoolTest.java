@@ -0,0 +1,84 @@
+package com.example.test.filter;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Scalar;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// 임시 Mat 풀의 재사용/누수 검출과, 모든 필터가 빌린 Mat 을 반환하는지 검증
+public class MatPoolTest {
+
+    @Test
+    void returnedMatsAreReusedBySizeAndType() {
+        MatPool pool = new MatPool(64L * 1024 * 1024, 4);
+        Mat first;
+        try (MatPool.Lease lease = pool.lease(32, 32, CV_8UC1)) {
+            first = lease.mat();
+        }
+        try (MatPool.Lease same = pool.lease(32, 32, CV_8UC1);
+             MatPool.Lease other = pool.lease(32, 32, CV_8UC3)) {
+            assertSame(first, same.mat());
+            assertNotSame(first, other.mat());
+        }
+        assertEquals(2, pool.getAllocationCount());
+        pool.assertNoLeaks();
+        pool.clear();
+    }
+
+    @Test
+    void unreturnedLeaseIsReportedWithItsOrigin() {
+        MatPool pool = new MatPool(64L * 1024 * 1024, 4);
+        pool.setLeakTracking(true);
+        MatPool.Lease leaked = pool.lease(8, 8, CV_8UC1);
+
+        IllegalStateException leak = assertThrows(IllegalStateException.class, pool::assertNoLeaks);
+        assertEquals(1, leak.getSuppressed().length);
+
+        leaked.close();
+        leaked.close();
+        pool.assertNoLeaks();
+        assertEquals(0, pool.getOutstandingCount());
+        pool.clear();
+    }
+
+    @Test
+    void everyFilterReturnsItsScratchMats() {
+        MatPool pool = MatPool.shared();
+        pool.setLeakTracking(true);
+        try {
+            List<ImageFilter<?>> filters = List.of(
+                new GrayscaleFilter(), new BlurFilter(), new EdgesFilter(), new BrightnessFilter(),
+                new HistogramFilter(), new SepiaFilter(), new SharpenFilter(), new SaturationFilter(),
+                new NoiseFilter(), new InvertFilter()
+            );
+            for (ImageFilter<?> filter : filters) {
+                Mat image = new Mat(48, 64, CV_8UC3, new Scalar(40, 120, 200, 0));
+                applyDefault(filter, image);
+                image.release();
+            }
+            pool.assertNoLeaks();
+        } finally {
+            pool.setLeakTracking(false);
+        }
+    }
+
+    @Test
+    void sharpenKeepsUniformImageUnchanged() {
+        // 커널 합이 1 이므로 균일한 이미지는 그대로여야 함
+        Mat image = new Mat(16, 16, CV_8UC3, new Scalar(100, 100, 100, 0));
+        new SharpenFilter().apply(image, new SharpenFilter.Params(1.0));
+        for (long i = 0; i < image.total() * image.channels(); i++) {
+            assertEquals(100, image.data().get(i) & 0xff);
+        }
+        image.release();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <P> void applyDefault(ImageFilter<P> filter, Mat image) {
+        filter.apply(image, filter.defaultParams());
+    }
+}
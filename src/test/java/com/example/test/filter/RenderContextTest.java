@@ -0,0 +1,100 @@
+package com.example.test.filter;
+
+import com.example.test.model.FilterState;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.bytedeco.opencv.global.opencv_core.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// 휘도 공유 렌더가 필터별 변환 경로와 같은 결과를 내고, 변환/확장을 한 번씩만 하는지 검증
+public class RenderContextTest {
+
+    private static final List<ImageFilter<?>> FILTERS = List.of(
+        new GrayscaleFilter(), new BlurFilter(), new EdgesFilter(), new BrightnessFilter(),
+        new HistogramFilter(), new SepiaFilter(), new SharpenFilter(), new SaturationFilter(),
+        new NoiseFilter(), new InvertFilter()
+    );
+
+    @Test
+    void sharedLumaMatchesPerFilterConversions() {
+        Map<String, Object> recipe = Map.of(
+            "grayscale", enabled(0.9),
+            "blur", enabled(3),
+            "histogram", enabled(1.0),
+            "sharpen", enabled(0.8),
+            "saturation", enabled(1.3),
+            "sepia", enabled(0.6)
+        );
+        byte[] shared = render(recipe, true, 1, 1);
+        byte[] separate = render(recipe, false, 0, 0);
+        assertArrayEquals(separate, shared);
+    }
+
+    @Test
+    void lumaChainExpandsOnlyAtTheEnd() {
+        // 등록 순서대로 엣지 -> 세피아 -> 반전, 엣지 앞에서 한 번 변환하고 끝에서 한 번 확장
+        Map<String, Object> recipe = Map.of(
+            "sepia", enabled(1.0),
+            "invert", enabled(0.3),
+            "edges", enabled(80)
+        );
+        assertArrayEquals(render(recipe, false, 0, 0), render(recipe, true, 1, 1));
+    }
+
+    @Test
+    void colorOnlyChainStaysBgr() {
+        Map<String, Object> recipe = Map.of(
+            "brightness", enabled(Map.of("alpha", 1.1, "beta", 5)),
+            "blur", enabled(5)
+        );
+        assertArrayEquals(render(recipe, false, 0, 0), render(recipe, true, 0, 0));
+    }
+
+    private static byte[] render(Map<String, Object> recipe, boolean shareLuma, int conversions, int expansions) {
+        // 점 연산 병합은 반올림 순서가 달라질 수 있으므로 끄고 비교
+        FilterRegistry registry = new FilterRegistry(FILTERS, false, shareLuma);
+        FilterState state = new FilterState("a.jpg", registry.names());
+        registry.applyRecipe(state, recipe);
+        FilterPlan plan = registry.compile(state.snapshot());
+
+        Mat image = randomImage(96, 128);
+        byte[] pixels;
+        try {
+            RenderContext context = new RenderContext(image, plan.sharesLuma());
+            for (FilterPlan.Stage<?> stage : plan.getStages()) {
+                context.prepare(stage);
+                stage.apply(image);
+            }
+            context.finish();
+
+            assertEquals(conversions, context.getLumaConversions());
+            assertEquals(expansions, context.getExpansions());
+            assertEquals(3, image.channels());
+
+            pixels = new byte[(int) (image.total() * image.channels())];
+            image.data().get(pixels);
+        } finally {
+            image.release();
+        }
+        // 변환/확장과 필터가 빌린 임시 Mat 이 모두 반환됐는지
+        MatPool.shared().assertNoLeaks();
+        return pixels;
+    }
+
+    private static Mat randomImage(int rows, int cols) {
+        byte[] pixels = new byte[rows * cols * 3];
+        new Random(42).nextBytes(pixels);
+        Mat image = new Mat(rows, cols, CV_8UC3);
+        image.data().put(pixels);
+        return image;
+    }
+
+    private static Map<String, Object> enabled(Object value) {
+        return Map.of("enabled", true, "value", value);
+    }
+}
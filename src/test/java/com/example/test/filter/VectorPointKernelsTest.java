@@ -0,0 +1,196 @@
+package com.example.test.filter;
+
+import com.example.test.model.FilterState;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.foreign.MemorySegment;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC1;
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Vector 점 연산 커널이 스칼라 계산, OpenCV 경로와 같은 값을 내는지 검증
+// (벡터 길이의 배수가 아닌 길이, 색 변환 블록 경계를 넘는 길이 포함)
+// OpenCV 경로와의 차이: 합성 LUT 는 같은 float 계산이라 0, 개별 필터의 OpenCV 연산과 색 변환(transform)은
+// 내부 계산 순서/FMA 가 달라 반올림 경계 값에서 ±1
+// jdk.incubator.vector 모듈 없이 실행하거나 SIMD 폭이 좁으면 건너뜀
+public class VectorPointKernelsTest {
+
+    @BeforeAll
+    static void requireVector() {
+        assumeTrue(PointBackend.isVectorAvailable(), "Vector 백엔드를 사용할 수 없는 환경");
+    }
+
+    @Test
+    void affineMatchesScalarForEachChannelLayout() {
+        float[][] scales = {{1.2f, 0.8f, 1.5f}, {-1f, -1f, -1f}};
+        float[][] offsets = {{10f, -20f, 3.5f}, {255f, 255f, 255f}};
+        float[][] lumaScales = {{1.2f}, {-1f}};
+        float[][] lumaOffsets = {{10f}, {255f}};
+
+        for (int length : new int[]{1, 7, 64, 303, 3002}) {
+            byte[] pixels = random(length * 3, length);
+            byte[] expected = pixels.clone();
+            scalarAffine(expected, 3, scales, offsets);
+            VectorPointKernels.affine(MemorySegment.ofArray(pixels), 3, scales, offsets);
+            assertArrayEquals(expected, pixels, "3채널 픽셀 " + length);
+
+            byte[] luma = random(length, length + 1);
+            byte[] expectedLuma = luma.clone();
+            scalarAffine(expectedLuma, 1, lumaScales, lumaOffsets);
+            VectorPointKernels.affine(MemorySegment.ofArray(luma), 1, lumaScales, lumaOffsets);
+            assertArrayEquals(expectedLuma, luma, "1채널 길이 " + length);
+        }
+    }
+
+    @Test
+    void transformMatchesScalarAcrossBlocks() {
+        // 채도 조절과 비슷한 채널 간 혼합 + 밝기 오프셋
+        float[] matrix = {
+            1.25f, -0.2f, -0.05f, 4f,
+            -0.1f, 1.15f, -0.05f, -3f,
+            -0.1f, -0.2f, 1.3f, 0.5f
+        };
+        for (int pixelCount : new int[]{1, 5, 4096, 4096 * 3 + 17}) {
+            byte[] pixels = random(pixelCount * 3, pixelCount);
+            byte[] expected = scalarTransform(pixels, matrix);
+            VectorPointKernels.transform(MemorySegment.ofArray(pixels), matrix);
+            assertArrayEquals(expected, pixels, "픽셀 " + pixelCount);
+        }
+    }
+
+    @Test
+    void kernelFromColorMatricesKeepsStageOrder() {
+        double[] contrast = PointOperation.diagonal(2.0, 0);
+        double[] halve = PointOperation.diagonal(0.5, 0);
+        PointKernel kernel = PointKernel.of(new double[][]{contrast, halve}, null, true);
+
+        assertFalse(kernel.isCrossChannel());
+        assertEquals(2, kernel.stageCount());
+        assertTrue(kernel.acceptsLuma());
+
+        // 단계마다 포화하므로 200 -> 400 (포화 255) -> 127.5 (반올림 128), 합성식 v 라면 200 이 됨
+        byte[] pixels = {(byte) 200, (byte) 200, (byte) 200, 50, 50, 50};
+        VectorPointKernels.affine(MemorySegment.ofArray(pixels), 3, kernel.scales, kernel.offsets);
+        assertArrayEquals(new byte[]{(byte) 128, (byte) 128, (byte) 128, 50, 50, 50}, pixels);
+    }
+
+    @Test
+    void fusedLutMatchesOpenCvExactly() {
+        // 채널별 연산만 있는 합성 단계 (3채널 LUT, 1채널 휘도 LUT)
+        Map<String, Object> recipe = Map.of(
+            "brightness", enabled(Map.of("alpha", 1.1, "beta", 5)),
+            "noise", enabled(10),
+            "invert", enabled(0.2)
+        );
+        FilterPlan plan = compile(recipe);
+        assertEquals(1, plan.size());
+        assertEquals(0, maxDifference(plan, CV_8UC3));
+        assertEquals(0, maxDifference(plan, CV_8UC1));
+    }
+
+    @Test
+    void singleFiltersAndColorTransformStayWithinOne() {
+        List<Map<String, Object>> recipes = List.of(
+            Map.of("brightness", enabled(Map.of("alpha", 1.2, "beta", 10))),
+            Map.of("invert", enabled(0.3)),
+            Map.of("saturation", enabled(1.3)),
+            Map.of("noise", enabled(15)),
+            // 합성 색 변환 (밝기 결과가 [5, 234.5] 라 채도 단계와 합쳐짐)
+            Map.of(
+                "brightness", enabled(Map.of("alpha", 0.9, "beta", 5)),
+                "saturation", enabled(1.3)
+            )
+        );
+        for (Map<String, Object> recipe : recipes) {
+            FilterPlan plan = compile(recipe);
+            assertEquals(1, plan.size(), recipe.toString());
+            assertTrue(maxDifference(plan, CV_8UC3) <= 1, recipe.toString());
+        }
+    }
+
+    private static FilterPlan compile(Map<String, Object> recipe) {
+        FilterRegistry registry = new FilterRegistry(
+            List.of(new BrightnessFilter(), new SaturationFilter(), new NoiseFilter(), new InvertFilter()), true, false);
+        FilterState state = new FilterState("a.jpg", registry.names());
+        registry.applyRecipe(state, recipe);
+        return registry.compile(state.snapshot());
+    }
+
+    // 같은 입력에 백엔드를 고정해 적용한 결과의 최대 차이
+    private static int maxDifference(FilterPlan plan, int type) {
+        int channels = type == CV_8UC3 ? 3 : 1;
+        byte[] input = random(48 * 80 * channels, type);
+        byte[] opencv = applyWith(PointBackend.Mode.OPENCV, plan, type, input);
+        byte[] vector = applyWith(PointBackend.Mode.VECTOR, plan, type, input);
+        int max = 0;
+        for (int i = 0; i < input.length; i++) {
+            max = Math.max(max, Math.abs((opencv[i] & 0xff) - (vector[i] & 0xff)));
+        }
+        return max;
+    }
+
+    private static byte[] applyWith(PointBackend.Mode mode, FilterPlan plan, int type, byte[] input) {
+        PointBackend.Mode previous = PointBackend.getMode();
+        Mat image = new Mat(48, 80, type);
+        try {
+            PointBackend.setMode(mode);
+            image.data().put(input);
+            for (FilterPlan.Stage<?> stage : plan.getStages()) {
+                stage.apply(image);
+            }
+            byte[] output = new byte[input.length];
+            image.data().get(output);
+            return output;
+        } finally {
+            PointBackend.setMode(previous);
+            image.release();
+        }
+    }
+
+    private static Map<String, Object> enabled(Object value) {
+        return Map.of("enabled", true, "value", value);
+    }
+
+    private static byte[] random(int length, long seed) {
+        byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static void scalarAffine(byte[] pixels, int channels, float[][] scales, float[][] offsets) {
+        for (int i = 0; i < pixels.length; i++) {
+            int channel = i % channels;
+            float v = pixels[i] & 0xff;
+            for (int stage = 0; stage < scales.length; stage++) {
+                v = saturate(scales[stage][channel] * v + offsets[stage][channel]);
+            }
+            pixels[i] = (byte) (int) v;
+        }
+    }
+
+    private static byte[] scalarTransform(byte[] pixels, float[] m) {
+        byte[] out = new byte[pixels.length];
+        for (int p = 0; p < pixels.length; p += 3) {
+            for (int c = 0; c < 3; c++) {
+                // 벡터 커널과 같은 덧셈 순서 (오프셋 + B + G + R)
+                float sum = m[c * 4 + 3];
+                for (int k = 0; k < 3; k++) {
+                    sum += m[c * 4 + k] * (pixels[p + k] & 0xff);
+                }
+                out[p + c] = (byte) (int) saturate(sum);
+            }
+        }
+        return out;
+    }
+
+    private static float saturate(float value) {
+        return (float) Math.rint(Math.max(0f, Math.min(255f, value)));
+    }
+}
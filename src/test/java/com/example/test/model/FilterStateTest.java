@@ -0,0 +1,109 @@
+package com.example.test.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 슬롯 기반 상태의 스냅샷/해시 동작 검증
+public class FilterStateTest {
+
+    @Test
+    void fingerprintDependsOnlyOnActiveFiltersAndValues() {
+        FilterState a = new FilterState("a.jpg");
+        a.setFilterActive("blur", true);
+        a.setFilterValue("blur", 1.5, 3);
+        a.setFilterValue("noise", 9, 9);
+
+        FilterState b = new FilterState("b.jpg");
+        b.setFilterValue("blur", 0, 0);
+        b.setFilterValue("blur", 1.5, 3);
+        b.setFilterActive("blur", true);
+        b.setFilterActive("sepia", false);
+
+        // 비활성 필터 값과 버전은 해시에 포함되지 않음
+        assertNotEquals(a.getVersion(), b.getVersion());
+        assertEquals(a.snapshot().fingerprint(), b.snapshot().fingerprint());
+
+        b.setFilterValue("blur", 1.5, 5);
+        assertNotEquals(a.snapshot().fingerprint(), b.snapshot().fingerprint());
+
+        // 적용 순서가 바뀌면 결과도 다름
+        a.setFilterActive("invert", true);
+        FilterState reordered = new FilterState("c.jpg");
+        reordered.setFilterActive("blur", true);
+        reordered.setFilterValue("blur", 1.5, 3);
+        reordered.setFilterActive("invert", true);
+        assertEquals(a.snapshot().fingerprint(), reordered.snapshot().fingerprint());
+        reordered.setFilterOrder(List.of("invert", "blur"));
+        assertNotEquals(a.snapshot().fingerprint(), reordered.snapshot().fingerprint());
+    }
+
+    @Test
+    void snapshotIsReusedUntilStateChanges() {
+        FilterState state = new FilterState("a.jpg");
+        state.setFilterActive("sepia", true);
+        state.setFilterActive("blur", true);
+
+        FilterState snapshot = state.snapshot();
+        assertSame(snapshot, state.snapshot());
+        assertSame(snapshot.getActiveFiltersInOrder(), snapshot.getActiveFiltersInOrder());
+        assertEquals(List.of("blur", "sepia"), snapshot.getActiveFiltersInOrder());
+
+        state.setFilterActive("blur", false);
+        assertNotSame(snapshot, state.snapshot());
+        assertEquals(List.of("blur", "sepia"), snapshot.getActiveFiltersInOrder());
+        assertEquals(List.of("sepia"), state.snapshot().getActiveFiltersInOrder());
+        assertTrue(snapshot.isFilterActive("blur"));
+    }
+
+    @Test
+    void unknownNamesGetTheirOwnSlots() {
+        FilterState state = new FilterState("a.jpg");
+        state.setFilterValue("brightness_alpha", 1.25);
+        state.setFilterActive("custom", true);
+
+        assertArrayEquals(new double[]{1.25}, state.getFilterValue("brightness_alpha"));
+        assertTrue(state.isFilterActive("custom"));
+        // 순서에 없는 필터는 적용되지 않음
+        assertTrue(state.getActiveFiltersInOrder().isEmpty());
+        assertFalse(state.isEmpty());
+
+        state.clear();
+        assertTrue(state.isEmpty());
+        assertNull(state.getFilterValue("brightness_alpha"));
+        assertEquals(new FilterState("b.jpg").getFilterOrder(), state.getFilterOrder());
+    }
+
+    @Test
+    void orderRejectsNamesOutsideTheSlotTable() {
+        FilterState state = new FilterState("a.jpg", List.of("blur", "invert"));
+        long version = state.getVersion();
+
+        assertThrows(IllegalArgumentException.class, () -> state.setFilterOrder(List.of("invert", "unknown")));
+        assertEquals(List.of("blur", "invert"), state.getFilterOrder());
+        assertEquals(version, state.getVersion());
+
+        // 슬롯 수 제한(64개)을 넘는 이름을 보내도 표가 늘지 않음
+        for (int i = 0; i < 100; i++) {
+            String name = "name" + i;
+            assertThrows(IllegalArgumentException.class, () -> state.setFilterOrder(List.of(name)));
+        }
+        state.setFilterOrder(List.of("invert", "blur"));
+        assertEquals(List.of("invert", "blur"), state.getFilterOrder());
+    }
+
+    @Test
+    void valuesAreCopiedVectors() {
+        FilterState state = new FilterState("a.jpg");
+        double[] vector = {1.5, 3};
+        state.setFilterValue("blur", vector);
+        vector[0] = 9;
+
+        FilterState snapshot = state.snapshot();
+        assertArrayEquals(new double[]{1.5, 3}, snapshot.getFilterValue("blur"));
+        snapshot.getFilterValue("blur")[0] = 9;
+        assertArrayEquals(new double[]{1.5, 3}, snapshot.getFilterValue("blur"));
+    }
+}
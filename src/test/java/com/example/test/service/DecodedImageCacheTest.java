@@ -0,0 +1,167 @@
+package com.example.test.service;
+
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+import static org.junit.jupiter.api.Assertions.*;
+
+// 디코딩 캐시의 적중/LRU 제거/무효화, 디코딩 중 무효화된 결과를 버리는지, 복사가 락 밖에서 실행되는지 검증
+public class DecodedImageCacheTest {
+
+    // 10x10 3채널 = 300 바이트
+    private static final long ENTRY_BYTES = 300;
+
+    @Test
+    void hitDoesNotReload() {
+        DecodedImageCache cache = new DecodedImageCache(ENTRY_BYTES * 4);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getCopy("a", loader(loads)).release();
+        cache.getCopy("a", loader(loads)).release();
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(ENTRY_BYTES, cache.getResidentBytes());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondBudget() {
+        DecodedImageCache cache = new DecodedImageCache(ENTRY_BYTES * 2);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getCopy("a", loader(loads)).release();
+        cache.getCopy("b", loader(loads)).release();
+
+        // a 를 최근 사용으로 만든 뒤 c 를 넣으면 b 가 제거됨
+        cache.getCopy("a", loader(loads)).release();
+        cache.getCopy("c", loader(loads)).release();
+
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(ENTRY_BYTES * 2, cache.getResidentBytes());
+    }
+
+    @Test
+    void invalidateRemovesEntryAndNextGetReloads() {
+        DecodedImageCache cache = new DecodedImageCache(ENTRY_BYTES * 4);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getCopy("a", loader(loads)).release();
+
+        cache.invalidate("a");
+        assertFalse(cache.contains("a"));
+        assertEquals(0, cache.getResidentBytes());
+
+        cache.getCopy("a", loader(loads)).release();
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadInvalidatedWhileDecodingIsNotCached() {
+        DecodedImageCache cache = new DecodedImageCache(ENTRY_BYTES * 4);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Mat> decode = loader(loads);
+
+        // 디코딩 도중 원본이 삭제된 경우: 호출자는 결과를 받지만 캐시에는 남지 않음
+        Mat copy = cache.getCopy("a", () -> {
+            Mat decoded = decode.get();
+            cache.invalidate("a");
+            return decoded;
+        });
+        assertNotNull(copy);
+        copy.release();
+        assertFalse(cache.contains("a"));
+        assertEquals(0, cache.getResidentBytes());
+
+        // 무효화 이후 시작한 로드는 다시 캐시됨
+        cache.getCopy("a", decode).release();
+        assertTrue(cache.contains("a"));
+    }
+
+    @Test
+    void loadClearedWhileDecodingIsNotCached() {
+        DecodedImageCache cache = new DecodedImageCache(ENTRY_BYTES * 4);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Mat> decode = loader(loads);
+
+        cache.getCopy("a", () -> {
+            Mat decoded = decode.get();
+            cache.clear();
+            return decoded;
+        }).release();
+
+        assertFalse(cache.contains("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void copyRunsOutsideTheLockAndSurvivesInvalidate() throws Exception {
+        DecodedImageCache cache = new DecodedImageCache(ENTRY_BYTES * 4);
+        AtomicInteger loads = new AtomicInteger();
+        cache.getCopy("a", loader(loads)).release();
+        cache.getCopy("b", loader(loads)).release();
+
+        CountDownLatch copying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // a 를 복사하는 동안 (사용 중 표시 상태)
+            Future<Mat> copy = executor.submit(() -> cache.getDerived("a", loader(loads), source -> {
+                copying.countDown();
+                await(release);
+                return source.clone();
+            }));
+            assertTrue(copying.await(5, TimeUnit.SECONDS));
+
+            // 다른 이미지 조회와 무효화는 기다리지 않음
+            cache.getCopy("b", loader(loads)).release();
+            cache.invalidate("a");
+            assertFalse(cache.contains("a"));
+            assertEquals(ENTRY_BYTES, cache.getResidentBytes());
+
+            // 무효화된 원본은 사용이 끝난 뒤 해제되므로 복사는 정상적으로 끝남
+            release.countDown();
+            Mat copied = copy.get(5, TimeUnit.SECONDS);
+            assertNotNull(copied);
+            copied.release();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void failedDecodeIsNotCached() {
+        DecodedImageCache cache = new DecodedImageCache(ENTRY_BYTES * 4);
+
+        assertNull(cache.getCopy("a", Mat::new));
+        assertFalse(cache.contains("a"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Supplier<Mat> loader(AtomicInteger loads) {
+        return () -> {
+            loads.incrementAndGet();
+            return new Mat(10, 10, CV_8UC3);
+        };
+    }
+}
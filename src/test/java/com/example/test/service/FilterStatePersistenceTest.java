@@ -0,0 +1,112 @@
+package com.example.test.service;
+
+import com.example.test.filter.BlurFilter;
+import com.example.test.filter.BrightnessFilter;
+import com.example.test.filter.FilterRegistry;
+import com.example.test.filter.InvertFilter;
+import com.example.test.model.FilterState;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 세션 저장소 로그의 복구/압축과 레시피 인코딩 검증
+public class FilterStatePersistenceTest {
+
+    @Test
+    void logRecoversLatestEntriesAfterReopen() throws IOException {
+        Path log = Files.createTempDirectory("sessions").resolve("sessions.log");
+        try (LogFilterStateRepository repository = new LogFilterStateRepository(log, Long.MAX_VALUE, 0)) {
+            repository.save(entry("a.jpg", 1));
+            repository.save(entry("b.jpg", 1));
+            repository.save(entry("a.jpg", 2));
+            repository.delete("b.jpg");
+        }
+
+        try (LogFilterStateRepository repository = new LogFilterStateRepository(log, Long.MAX_VALUE, 0)) {
+            assertEquals(1, repository.size());
+            assertEquals(2L, repository.find("a.jpg").version());
+            assertNull(repository.find("b.jpg"));
+        }
+    }
+
+    @Test
+    void logIgnoresTornRecordAtTheEnd() throws IOException {
+        Path log = Files.createTempDirectory("sessions").resolve("sessions.log");
+        long end;
+        try (LogFilterStateRepository repository = new LogFilterStateRepository(log, Long.MAX_VALUE, 0)) {
+            repository.save(entry("a.jpg", 1));
+            end = repository.getLogBytes();
+        }
+
+        // 쓰는 도중 종료된 레코드 (길이는 기록됐지만 내용/CRC 가 맞지 않음)
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(12).putInt(64).putInt(12345).putInt(7).flip(), end);
+        }
+
+        try (LogFilterStateRepository repository = new LogFilterStateRepository(log, Long.MAX_VALUE, 0)) {
+            assertEquals(end, repository.getLogBytes());
+            assertEquals(1L, repository.find("a.jpg").version());
+            repository.save(entry("b.jpg", 1));
+        }
+        try (LogFilterStateRepository repository = new LogFilterStateRepository(log, Long.MAX_VALUE, 0)) {
+            assertEquals(2, repository.size());
+        }
+    }
+
+    @Test
+    void compactionKeepsOnlyLiveEntries() throws IOException {
+        Path log = Files.createTempDirectory("sessions").resolve("sessions.log");
+        try (LogFilterStateRepository repository = new LogFilterStateRepository(log, 0, 0)) {
+            for (int version = 1; version <= 1000; version++) {
+                repository.save(entry("a.jpg", version));
+                repository.save(entry("b.jpg", version));
+            }
+            repository.delete("b.jpg");
+            long before = repository.getLogBytes();
+
+            repository.compact();
+            assertTrue(repository.getLogBytes() < before / 100);
+            assertEquals(repository.getLiveBytes(), repository.getLogBytes());
+        }
+
+        try (LogFilterStateRepository repository = new LogFilterStateRepository(log, 0, 0)) {
+            assertEquals(1, repository.size());
+            assertEquals(1000L, repository.find("a.jpg").version());
+        }
+    }
+
+    @Test
+    void codecRestoresOrderActiveFiltersValuesAndVersion() {
+        FilterRegistry registry = new FilterRegistry(List.of(new BlurFilter(), new BrightnessFilter(), new InvertFilter()), true, true);
+        FilterStateCodec codec = new FilterStateCodec(registry);
+
+        FilterState state = new FilterState("a.jpg", registry.names());
+        registry.applyRecipe(state, Map.of(
+            "blur", Map.of("enabled", true, "value", 7),
+            "brightness", Map.of("enabled", false, "value", Map.of("alpha", 1.5, "beta", -20))
+        ));
+        state.setFilterOrder(List.of("invert", "brightness", "blur"));
+        FilterState snapshot = state.snapshot();
+
+        FilterState restored = codec.decode("a.jpg", codec.encode(snapshot), snapshot.getVersion());
+        assertEquals(snapshot.getFilterOrder(), restored.getFilterOrder());
+        assertEquals(snapshot.getActiveFiltersInOrder(), restored.getActiveFiltersInOrder());
+        assertEquals(snapshot.getFilterValues().keySet(), restored.getFilterValues().keySet());
+        snapshot.getFilterValues().forEach((name, vector) -> assertArrayEquals(vector, restored.getFilterValue(name), name));
+        assertEquals(snapshot.getVersion(), restored.getVersion());
+        assertEquals(registry.recipeHash(snapshot), registry.recipeHash(restored.snapshot()));
+    }
+
+    private static FilterStateRepository.Entry entry(String fileName, long version) {
+        return new FilterStateRepository.Entry(fileName, "hash-" + fileName, 0.5, version, new byte[]{1, 2, 3});
+    }
+}
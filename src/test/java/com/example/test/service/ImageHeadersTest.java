@@ -0,0 +1,138 @@
+package com.example.test.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 디코딩 없이 파일 앞부분만으로 형식/크기를 읽는지 검증
+public class ImageHeadersTest {
+
+    @Test
+    void readsJpegFrameHeaderAfterOtherSegments() {
+        byte[] data = bytes(
+                0xFF, 0xD8,
+                // APP0 (길이 16)
+                0xFF, 0xE0, 0x00, 0x10, 'J', 'F', 'I', 'F', 0, 1, 1, 0, 0, 1, 0, 1, 0, 0,
+                // SOF0: 정밀도 8, 높이 3000, 너비 4000
+                0xFF, 0xC0, 0x00, 0x11, 0x08, 0x0B, 0xB8, 0x0F, 0xA0, 0x03);
+
+        ImageHeaders.Header header = ImageHeaders.sniff(data, data.length);
+
+        assertEquals("jpeg", header.format());
+        assertEquals(".jpg", header.extension());
+        assertEquals(4000, header.width());
+        assertEquals(3000, header.height());
+        assertEquals(12_000_000L, header.pixels());
+    }
+
+    @Test
+    void readsPngBmpAndWebpDimensions() {
+        byte[] png = bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A,
+                0, 0, 0, 13, 'I', 'H', 'D', 'R',
+                0, 0, 0x04, 0x00, 0, 0, 0x03, 0x00);
+        ImageHeaders.Header header = ImageHeaders.sniff(png, png.length);
+        assertEquals("png", header.format());
+        assertEquals(1024, header.width());
+        assertEquals(768, header.height());
+
+        byte[] bmp = new byte[26];
+        bmp[0] = 'B';
+        bmp[1] = 'M';
+        bmp[14] = 40;
+        bmp[18] = (byte) 0x80;
+        bmp[19] = 0x02;
+        // 음수 높이 (위에서 아래로 저장)
+        bmp[22] = (byte) 0x20;
+        bmp[23] = (byte) 0xFE;
+        bmp[24] = (byte) 0xFF;
+        bmp[25] = (byte) 0xFF;
+        header = ImageHeaders.sniff(bmp, bmp.length);
+        assertEquals(640, header.width());
+        assertEquals(480, header.height());
+
+        byte[] webp = bytes('R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P',
+                'V', 'P', '8', 'X', 10, 0, 0, 0, 0, 0, 0, 0,
+                // 너비-1 = 1919, 높이-1 = 1079 (24비트 리틀 엔디안)
+                0x7F, 0x07, 0x00, 0x37, 0x04, 0x00);
+        header = ImageHeaders.sniff(webp, webp.length);
+        assertEquals(".webp", header.extension());
+        assertEquals(1920, header.width());
+        assertEquals(1080, header.height());
+    }
+
+    @Test
+    void asksForMoreBytesWhenHeaderIsTruncated() {
+        byte[] png = bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A,
+                0, 0, 0, 13, 'I', 'H', 'D', 'R',
+                0, 0, 0x04, 0x00, 0, 0, 0x03, 0x00);
+
+        assertNull(ImageHeaders.sniff(png, 8));
+        assertNull(ImageHeaders.sniff(Arrays.copyOf(png, 20), 20));
+    }
+
+    @Test
+    void rejectsUnknownOrCorruptData() {
+        byte[] text = "hello, this is not an image".getBytes();
+        assertThrows(UploadRejectedException.class, () -> ImageHeaders.sniff(text, text.length));
+
+        byte[] zeroSize = bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A,
+                0, 0, 0, 13, 'I', 'H', 'D', 'R',
+                0, 0, 0, 0, 0, 0, 0x03, 0x00);
+        assertThrows(UploadRejectedException.class, () -> ImageHeaders.sniff(zeroSize, zeroSize.length));
+
+        // 프레임 헤더 없이 스캔 시작
+        byte[] noFrame = bytes(0xFF, 0xD8, 0xFF, 0xDA, 0x00, 0x08, 0, 0, 0, 0, 0, 0);
+        assertThrows(UploadRejectedException.class, () -> ImageHeaders.sniff(noFrame, noFrame.length));
+    }
+
+    @Test
+    void readsTiffWithFirstIfdAtTheEndOfTheFile() throws Exception {
+        // libtiff 처럼 스트립 데이터 뒤에 첫 IFD 를 둔 리틀 엔디안 TIFF (IFD 는 앞부분 범위 밖)
+        int dataBytes = ImageHeaders.SNIFF_LIMIT + 1024;
+        int ifdOffset = 8 + dataBytes;
+        ByteBuffer file = ByteBuffer.allocate(ifdOffset + 2 + 2 * 12 + 4).order(ByteOrder.LITTLE_ENDIAN);
+        file.put((byte) 'I').put((byte) 'I').putShort((short) 42).putInt(ifdOffset);
+        file.position(ifdOffset);
+        file.putShort((short) 2);
+        // ImageWidth (SHORT) = 1200, ImageLength (LONG) = 800
+        file.putShort((short) 256).putShort((short) 3).putInt(1).putShort((short) 1200).putShort((short) 0);
+        file.putShort((short) 257).putShort((short) 4).putInt(1).putInt(800);
+        file.putInt(0);
+        byte[] data = file.array();
+
+        ImageHeaders.Header header = ImageHeaders.sniff(data, ImageHeaders.SNIFF_LIMIT);
+        assertEquals(".tif", header.extension());
+        assertFalse(header.sizeKnown());
+
+        Path path = Files.createTempFile("header_", ".tif");
+        try {
+            Files.write(path, data);
+            header = ImageHeaders.readTiff(path);
+            assertTrue(header.sizeKnown());
+            assertEquals(1200, header.width());
+            assertEquals(800, header.height());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+
+        // IFD 가 앞부분에 있으면 저장 전에 바로 확인 (높이 태그가 없으면 거절)
+        ByteBuffer front = ByteBuffer.allocate(8 + 2 + 12).order(ByteOrder.LITTLE_ENDIAN);
+        front.put((byte) 'I').put((byte) 'I').putShort((short) 42).putInt(8);
+        front.putShort((short) 1).putShort((short) 256).putShort((short) 3).putInt(1).putShort((short) 640).putShort((short) 0);
+        assertThrows(UploadRejectedException.class, () -> ImageHeaders.sniff(front.array(), front.capacity()));
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] data = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            data[i] = (byte) values[i];
+        }
+        return data;
+    }
+}
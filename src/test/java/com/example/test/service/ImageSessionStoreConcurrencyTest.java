@@ -0,0 +1,172 @@
+package com.example.test.service;
+
+import com.example.test.filter.BlurFilter;
+import com.example.test.filter.FilterPlan;
+import com.example.test.filter.FilterRegistry;
+import com.example.test.model.FilterState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 여러 스레드가 같은/다른 이미지 상태를 동시에 다룰 때의 정합성 검증 (세션별 실행 계획 재사용 포함)
+public class ImageSessionStoreConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void concurrentUpdatesAreNotLost() throws Exception {
+        ImageSessionStore store = new ImageSessionStore();
+        store.create("a.jpg");
+        store.update("a.jpg", state -> state.setFilterValue("noise", 0));
+
+        int iterations = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    store.update("a.jpg", state ->
+                        state.setFilterValue("noise", state.getFilterValue("noise")[0] + 1));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals((double) (THREADS * iterations), store.snapshot("a.jpg").getFilterValue("noise")[0]);
+    }
+
+    @Test
+    void snapshotsStayConsistentWhileWritersMutate() throws Exception {
+        ImageSessionStore store = new ImageSessionStore();
+        store.create("a.jpg");
+        List<String> order = new FilterState("a.jpg").getFilterOrder();
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS / 2; t++) {
+            executor.submit(() -> {
+                int i = 0;
+                while (running.get()) {
+                    double value = i++;
+                    List<String> shuffled = new ArrayList<>(order);
+                    Collections.shuffle(shuffled);
+                    store.update("a.jpg", state -> {
+                        // 두 값은 항상 같은 업데이트 안에서 함께 바뀜
+                        state.setFilterValue("brightness_alpha", value);
+                        state.setFilterValue("brightness_beta", value);
+                        state.setFilterActive(shuffled.get(0), value % 2 == 0);
+                        state.setFilterOrder(shuffled);
+                    });
+                }
+            });
+        }
+        for (int t = 0; t < THREADS / 2; t++) {
+            executor.submit(() -> {
+                while (running.get()) {
+                    try {
+                        FilterState snapshot = store.snapshot("a.jpg");
+                        assertArrayEquals(snapshot.getFilterValue("brightness_alpha"),
+                                snapshot.getFilterValue("brightness_beta"));
+                        for (String filter : snapshot.getActiveFiltersInOrder()) {
+                            assertTrue(snapshot.isFilterActive(filter));
+                        }
+                        assertEquals(order.size(), snapshot.getFilterOrder().size());
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+
+        Thread.sleep(2_000);
+        running.set(false);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(failures.isEmpty(), () -> "동시성 오류: " + failures.peek());
+    }
+
+    @Test
+    void snapshotRejectsMutation() {
+        ImageSessionStore store = new ImageSessionStore();
+        store.create("a.jpg");
+        FilterState snapshot = store.snapshot("a.jpg");
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.setFilterActive("blur", true));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.setFilterOrder(List.of("blur")));
+    }
+
+    @Test
+    void differentImagesDoNotContend() throws Exception {
+        ImageSessionStore store = new ImageSessionStore();
+        store.create("a.jpg");
+        store.create("b.jpg");
+
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> store.update("a.jpg", state -> {
+            holding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        // a.jpg 락이 잡혀 있어도 b.jpg 변경은 바로 끝나야 함
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Boolean> other = executor.submit(() -> store.update("b.jpg", state -> state.setFilterActive("blur", true)));
+        assertTrue(other.get(1, TimeUnit.SECONDS));
+
+        release.countDown();
+        holder.join();
+        executor.shutdown();
+    }
+
+    @Test
+    void scaledPlansAreReusedUntilTheStateChanges() {
+        FilterRegistry registry = new FilterRegistry(List.of(new BlurFilter()), true, true);
+        ImageSessionStore store = new ImageSessionStore();
+        ImageSessionStore.Session session = store.create("a.jpg", registry.names());
+        store.update("a.jpg", state -> registry.applyRecipe(state, Map.of("blur", Map.of("enabled", true, "value", 9))));
+        AtomicInteger compiles = new AtomicInteger();
+        ImageSessionStore.ScaledCompiler compiler = (snapshot, scale) -> {
+            compiles.incrementAndGet();
+            return registry.compile(snapshot, scale);
+        };
+
+        // 같은 단위로 맞춰지는 배율은 한 번만 컴파일
+        FilterPlan first = session.scaledPlan(store.snapshot("a.jpg"), 0.5, compiler);
+        assertSame(first, session.scaledPlan(store.snapshot("a.jpg"), 0.50001, compiler));
+        assertNotSame(first, session.scaledPlan(store.snapshot("a.jpg"), 0.25, compiler));
+        assertEquals(2, compiles.get());
+
+        // 상태가 바뀌면 다시 컴파일
+        store.update("a.jpg", state -> registry.applyRecipe(state, Map.of("blur", Map.of("enabled", true, "value", 5))));
+        FilterPlan changed = session.scaledPlan(store.snapshot("a.jpg"), 0.5, compiler);
+        assertNotSame(first, changed);
+        assertNotEquals(first.getStages().get(0).getHash(), changed.getStages().get(0).getHash());
+        assertEquals(3, compiles.get());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.test.service;
+
+import com.example.test.filter.*;
+import com.example.test.model.FilterState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.bytedeco.opencv.opencv_core.Rect;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+import static org.junit.jupiter.api.Assertions.*;
+
+// 영역 렌더 결과가 전체 렌더 결과에서 같은 영역을 잘라낸 것과 같은지 검증
+// - 이웃 픽셀 필터(블러/샤픈)는 halo 만큼 넓게 처리한 뒤 안쪽만 사용
+// - 히스토그램은 영역만의 통계가 아니라 캐시된 이미지 전체 통계로 적용
+public class RegionRenderTest {
+
+    private static final int ROWS = 80;
+    private static final int COLS = 100;
+
+    private static final List<ImageFilter<?>> FILTERS = List.of(
+        new BlurFilter(), new SharpenFilter(), new BrightnessFilter(), new HistogramFilter()
+    );
+
+    // 가장자리에 닿는 영역과 안쪽 영역
+    private static final Rect[] REGIONS = {
+        new Rect(30, 20, 40, 30), new Rect(0, 0, 25, 35), new Rect(70, 55, 30, 25)
+    };
+
+    @Test
+    void haloFiltersMatchCropOfFullRender() {
+        Map<String, Object> recipe = new LinkedHashMap<>();
+        recipe.put("blur", enabled(5));
+        recipe.put("sharpen", enabled(0.8));
+        recipe.put("brightness", enabled(Map.of("alpha", 1.1, "beta", 10)));
+        assertRegionsMatch(recipe);
+    }
+
+    @Test
+    void histogramUsesCachedImageStatistics() {
+        Map<String, Object> recipe = new LinkedHashMap<>();
+        recipe.put("blur", enabled(5));
+        recipe.put("histogram", enabled(1.0));
+        GlobalStatisticsCache statisticsCache = assertRegionsMatch(recipe);
+
+        // 첫 영역에서 전체 통계를 한 번 모으고 나머지 영역은 캐시된 통계를 사용
+        assertEquals(1, statisticsCache.getMissCount());
+        assertEquals(REGIONS.length - 1, statisticsCache.getHitCount());
+    }
+
+    private static GlobalStatisticsCache assertRegionsMatch(Map<String, Object> recipe) {
+        FilterRegistry registry = new FilterRegistry(FILTERS, true, false);
+        FilterState state = new FilterState("a.jpg", registry.names());
+        registry.applyRecipe(state, recipe);
+        FilterPlan plan = registry.compile(state.snapshot());
+
+        GlobalStatisticsCache statisticsCache = new GlobalStatisticsCache(16);
+        TiledExecutor tiledExecutor = new TiledExecutor(16_000_000, 1024, 1);
+        ImageProcessingService service = service(statisticsCache, tiledExecutor);
+
+        Mat source = randomImage();
+        Mat full = source.clone();
+        try {
+            for (FilterPlan.Stage<?> stage : plan.getStages()) {
+                stage.apply(full);
+            }
+            for (Rect region : REGIONS) {
+                Mat expected = new Mat(full, region);
+                Mat actual = service.renderRegionImage("a.jpg", plan, source::clone, region, 1.0, 1.0, new RenderTimings());
+                try {
+                    assertArrayEquals(pixels(expected), pixels(actual), region.x() + "," + region.y());
+                } finally {
+                    actual.release();
+                    expected.release();
+                }
+            }
+        } finally {
+            full.release();
+            source.release();
+            tiledExecutor.shutdown();
+        }
+        MatPool.shared().assertNoLeaks();
+        return statisticsCache;
+    }
+
+    private static ImageProcessingService service(GlobalStatisticsCache statisticsCache, TiledExecutor tiledExecutor) {
+        DecodedImageCache decodedImageCache = new DecodedImageCache(64L * 1024 * 1024);
+        ImageProcessingService service = new ImageProcessingService();
+        ReflectionTestUtils.setField(service, "decodedImageCache", decodedImageCache);
+        ReflectionTestUtils.setField(service, "filterChainCache", new FilterChainCache(64L * 1024 * 1024));
+        ReflectionTestUtils.setField(service, "globalStatisticsCache", statisticsCache);
+        ReflectionTestUtils.setField(service, "tiledExecutor", tiledExecutor);
+        ReflectionTestUtils.setField(service, "renderMetrics", new RenderMetrics(
+            new SimpleMeterRegistry(),
+            new ImageSessionStore(),
+            new ProcessedImageStore(64L * 1024 * 1024, Duration.ofMinutes(10)),
+            decodedImageCache,
+            new RenderResultCache(64L * 1024 * 1024)
+        ));
+        return service;
+    }
+
+    private static Mat randomImage() {
+        byte[] pixels = new byte[ROWS * COLS * 3];
+        new Random(5).nextBytes(pixels);
+        Mat image = new Mat(ROWS, COLS, CV_8UC3);
+        image.data().put(pixels);
+        return image;
+    }
+
+    // ROI 는 행 사이가 떨어져 있으므로 행마다 복사
+    private static byte[] pixels(Mat image) {
+        int rowBytes = image.cols() * 3;
+        byte[] pixels = new byte[image.rows() * rowBytes];
+        for (int row = 0; row < image.rows(); row++) {
+            image.ptr(row).get(pixels, row * rowBytes, rowBytes);
+        }
+        return pixels;
+    }
+
+    private static Map<String, Object> enabled(Object value) {
+        return Map.of("enabled", true, "value", value);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.test.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 같은 이미지의 연속 렌더 요청이 최신 요청 하나로 합쳐지는지 검증
+public class RenderSchedulerTest {
+
+    @Test
+    void queuedRequestsCollapseIntoOnePendingRender() throws Exception {
+        ComputeExecutor executor = new ComputeExecutor(2, 64);
+        RenderScheduler scheduler = new RenderScheduler(executor);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        CompletableFuture<RenderResult> first = scheduler.submit("a.jpg", () -> {
+            started.countDown();
+            await(release);
+            return new RenderResult(0, null);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // 첫 렌더가 실행 중인 동안 들어온 요청들
+        List<CompletableFuture<RenderResult>> queued = new ArrayList<>();
+        for (int version = 1; version <= 20; version++) {
+            long v = version;
+            queued.add(scheduler.submit("a.jpg", () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                running.decrementAndGet();
+                return new RenderResult(v, null);
+            }));
+        }
+        release.countDown();
+
+        assertEquals(0, first.get(5, TimeUnit.SECONDS).version());
+        for (CompletableFuture<RenderResult> future : queued) {
+            // 모두 마지막 요청의 결과를 받음
+            assertEquals(20, future.get(5, TimeUnit.SECONDS).version());
+        }
+        assertEquals(21, scheduler.getSubmittedCount());
+        assertEquals(2, scheduler.getExecutedCount());
+        assertEquals(1, maxRunning.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void differentImagesRenderIndependently() throws Exception {
+        ComputeExecutor executor = new ComputeExecutor(2, 64);
+        RenderScheduler scheduler = new RenderScheduler(executor);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<RenderResult> blocked = scheduler.submit("a.jpg", () -> {
+            await(release);
+            return new RenderResult(1, null);
+        });
+        CompletableFuture<RenderResult> other = scheduler.submit("b.jpg", () -> new RenderResult(7, null));
+
+        assertEquals(7, other.get(5, TimeUnit.SECONDS).version());
+        assertFalse(blocked.isDone());
+        release.countDown();
+        assertEquals(1, blocked.get(5, TimeUnit.SECONDS).version());
+        executor.shutdown();
+    }
+
+    @Test
+    void rejectsRendersWhenComputeQueueIsFull() throws Exception {
+        // 연산 스레드 1개, 대기열 1개
+        ComputeExecutor executor = new ComputeExecutor(1, 1);
+        RenderScheduler scheduler = new RenderScheduler(executor);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<RenderResult> running = scheduler.submit("a.jpg", () -> {
+            started.countDown();
+            await(release);
+            return new RenderResult(1, null);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<RenderResult> queued = scheduler.submit("b.jpg", () -> new RenderResult(2, null));
+        CompletableFuture<RenderResult> shed = scheduler.submit("c.jpg", () -> new RenderResult(3, null));
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> shed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ComputeRejectedException.class, error.getCause());
+        assertEquals(1, executor.getRejectedCount());
+
+        release.countDown();
+        assertEquals(1, running.get(5, TimeUnit.SECONDS).version());
+        assertEquals(2, queued.get(5, TimeUnit.SECONDS).version());
+        // 거절된 이미지도 이후 요청은 정상 처리
+        assertEquals(4, scheduler.submit("c.jpg", () -> new RenderResult(4, null)).get(5, TimeUnit.SECONDS).version());
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.test.service;
+
+import com.example.test.filter.*;
+import com.example.test.model.FilterState;
+import org.bytedeco.opencv.opencv_core.Mat;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.bytedeco.opencv.global.opencv_core.CV_8UC3;
+import static org.junit.jupiter.api.Assertions.*;
+
+// 타일 실행 결과가 전체 이미지에 한 번에 적용한 결과와 같은지 검증
+// (작은 타일 크기로 타일 경계와 잘린 가장자리 타일이 모두 생기게 함)
+public class TiledExecutorTest {
+
+    private static final int ROWS = 70;
+    private static final int COLS = 90;
+
+    private static final List<ImageFilter<?>> FILTERS = List.of(
+        new BlurFilter(), new SharpenFilter(), new BrightnessFilter(), new SaturationFilter(),
+        new NoiseFilter(), new InvertFilter(), new HistogramFilter()
+    );
+
+    @Test
+    void haloStagesMatchWholeImage() {
+        TiledExecutor executor = executor();
+        try {
+            assertTiledMatches(executor, "blur", 5);
+            assertTiledMatches(executor, "sharpen", 0.8);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void pointStagesMatchWholeImage() {
+        TiledExecutor executor = executor();
+        try {
+            assertTiledMatches(executor, "brightness", Map.of("alpha", 1.2, "beta", 15));
+            assertTiledMatches(executor, "saturation", 1.5);
+            assertTiledMatches(executor, "noise", 25);
+            assertTiledMatches(executor, "invert", 0.7);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void histogramMatchesWholeImage() {
+        TiledExecutor executor = executor();
+        HistogramFilter filter = new HistogramFilter();
+        HistogramFilter.Params params = new HistogramFilter.Params(0.9);
+        Mat expected = randomImage();
+        Mat actual = randomImage();
+        try {
+            assertTiledMatches(executor, "histogram", 0.9);
+
+            // 2단계를 직접 실행: 타일별 부분 통계의 합은 전체 이미지 통계와 같음 (collect 는 이미지를 바꾸지 않음)
+            long[] statistics = executor.collect(filter, params, actual);
+            assertArrayEquals(filter.collect(expected, params), statistics);
+            filter.apply(expected, params);
+            executor.applyWithStatistics(filter, params, actual, statistics);
+            assertArrayEquals(pixels(expected), pixels(actual));
+        } finally {
+            expected.release();
+            actual.release();
+            executor.shutdown();
+        }
+        MatPool.shared().assertNoLeaks();
+    }
+
+    // 모든 이미지를 타일로 나누고, 16 으로 나눠떨어지지 않는 크기라 가장자리 타일도 생김
+    private static TiledExecutor executor() {
+        return new TiledExecutor(1, 16, 2);
+    }
+
+    private static void assertTiledMatches(TiledExecutor executor, String name, Object value) {
+        FilterRegistry registry = new FilterRegistry(FILTERS, false, false);
+        FilterState state = new FilterState("a.jpg", registry.names());
+        registry.applyRecipe(state, Map.of(name, Map.of("enabled", true, "value", value)));
+        FilterPlan plan = registry.compile(state.snapshot());
+        assertEquals(1, plan.size());
+        FilterPlan.Stage<?> stage = plan.getStages().get(0);
+
+        long tiledBefore = executor.getTiledStageCount();
+        Mat expected = randomImage();
+        Mat actual = randomImage();
+        try {
+            stage.apply(expected);
+            executor.apply(stage, actual);
+            assertArrayEquals(pixels(expected), pixels(actual), name);
+        } finally {
+            expected.release();
+            actual.release();
+        }
+        assertEquals(tiledBefore + 1, executor.getTiledStageCount(), name);
+        MatPool.shared().assertNoLeaks();
+    }
+
+    private static Mat randomImage() {
+        byte[] pixels = new byte[ROWS * COLS * 3];
+        new Random(11).nextBytes(pixels);
+        Mat image = new Mat(ROWS, COLS, CV_8UC3);
+        image.data().put(pixels);
+        return image;
+    }
+
+    private static byte[] pixels(Mat image) {
+        byte[] pixels = new byte[ROWS * COLS * 3];
+        image.data().get(pixels);
+        return pixels;
+    }
+}